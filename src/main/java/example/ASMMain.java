@@ -9,30 +9,30 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Stream;
 
 public class ASMMain {
 
-    private static final String CONFIG_PATH = "src/main/java/example/LinterConfig";
-
     public static void main(String[] args) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(CONFIG_PATH))) {
+        // Classes are read once per run and shared by every linter that loads them
+        ClassNodeCache nodes = new ClassNodeCache();
+        try (BufferedReader reader = new BufferedReader(new FileReader(LinterSettings.CONFIG_PATH))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (line.trim().isEmpty())
                     continue;
                 if (line.trim().startsWith("#"))
                     continue;
-                processConfigLine(line);
+                // Linter.key = value lines are settings, read by LinterSettings
+                if (LinterSettings.isSettingLine(line))
+                    continue;
+                processConfigLine(line, nodes);
             }
         } catch (IOException e) {
             System.err.println("Error reading config: " + e.getMessage());
         }
     }
 
-    private static void processConfigLine(String line) {
+    private static void processConfigLine(String line, ClassNodeCache nodes) {
         String[] parts = line.split(":", 2);
         if (parts.length != 2) {
             System.err.println("Invalid config line: " + line);
@@ -45,7 +45,14 @@ public class ASMMain {
         // Check if this is a package-wide analysis
         if (targets.startsWith("PACKAGE:")) {
             String packagePath = targets.substring("PACKAGE:".length()).trim();
-            runPackageAnalysis(linterName, packagePath);
+            runPackageAnalysis(linterName, packagePath, 1, nodes);
+            return;
+        }
+
+        // PACKAGE_TREE:pkg also analyses every subpackage below pkg
+        if (targets.startsWith("PACKAGE_TREE:")) {
+            String packagePath = targets.substring("PACKAGE_TREE:".length()).trim();
+            runPackageAnalysis(linterName, packagePath, Integer.MAX_VALUE, nodes);
             return;
         }
 
@@ -60,7 +67,7 @@ public class ASMMain {
             }
             String packagePath = rest.substring(0, colon).trim();
             String[] classNames = rest.substring(colon + 1).split(",");
-            runGroupClasses(linterName, packagePath, classNames);
+            runGroupClasses(linterName, packagePath, classNames, nodes);
             return;
         }
 
@@ -70,13 +77,13 @@ public class ASMMain {
             className = className.trim();
             if (className.isEmpty())
                 continue;
-            runLinter(linterName, className);
+            runLinter(linterName, className, nodes);
         }
     }
 
-    private static void runLinter(String linterName, String className) {
+    private static void runLinter(String linterName, String className, ClassNodeCache nodes) {
         try {
-            ClassNode classNode = loadClass(className);
+            ClassNode classNode = loadClass(className, nodes);
 
             Linter linter = LinterRegistry.create(linterName, classNode);
             System.out.println();
@@ -90,18 +97,12 @@ public class ASMMain {
         }
     }
 
-    private static ClassNode loadClass(String className) throws IOException {
+    private static ClassNode loadClass(String className, ClassNodeCache nodes) throws IOException {
         // Build the file path directly
         String classPath = "src/test/resources/" + className.replace('.', '/') + ".class";
         try {
-            // Read the file directly from filesystem
-            Path filePath = Paths.get(classPath);
-            byte[] classBytes = Files.readAllBytes(filePath);
-            ClassReader classReader = new ClassReader(classBytes);
-
-            ClassNode classNode = new ClassNode();
-            classReader.accept(classNode, ClassReader.EXPAND_FRAMES);
-            return classNode;
+            // Read the file directly from filesystem, once per run
+            return nodes.load(Paths.get(classPath));
         } catch (Exception e) {
             // Fall back to classpath
             ClassReader classReader = new ClassReader(className);
@@ -114,14 +115,13 @@ public class ASMMain {
     /**
      * Run package-wide analysis for linters that support it (like CyclicDependency)
      */
-    private static void runPackageAnalysis(String linterName, String packagePath) {
+    private static void runPackageAnalysis(String linterName, String packagePath, int depth,
+            ClassNodeCache nodes) {
         System.out.println("Running " + linterName + " package analysis on: " + packagePath);
 
-        try {
-            // Load all classes in the package
-            Map<String, ClassNode> allClasses = loadPackageClasses(packagePath);
-
-            if (allClasses.isEmpty()) {
+        // Summarize all classes in the package; full ClassNodes are loaded on demand
+        try (ClassSummaryIndex allClasses = loadPackageClasses(packagePath, depth, nodes)) {
+            if (allClasses.size() == 0) {
                 System.out.println("No classes found in package\n");
                 return;
             }
@@ -129,12 +129,25 @@ public class ASMMain {
             System.out.println("Found " + allClasses.size() + " classes");
 
             // Get first class as the base (needed for registry pattern)
-            ClassNode firstClass = allClasses.values().iterator().next();
+            String firstName = allClasses.classNames().iterator().next();
+            ClassNode firstClass = allClasses.loadNode(firstName);
 
             // Try to create the linter using the registry
             try {
                 Linter linter = LinterRegistry.createPackageLinter(linterName, firstClass, allClasses);
                 linter.lintClass();
+
+                // Per-class linters get one instance per class, sharing the same index
+                if (linter.isPerClass()) {
+                    for (String className : allClasses.classNames()) {
+                        if (className.equals(firstName))
+                            continue;
+                        ClassNode cn = allClasses.loadNode(className);
+                        if (cn != null) {
+                            LinterRegistry.createPackageLinter(linterName, cn, allClasses).lintClass();
+                        }
+                    }
+                }
             } catch (IllegalArgumentException e) {
                 System.err.println("Error: " + e.getMessage());
             }
@@ -147,10 +160,9 @@ public class ASMMain {
     }
 
     private static void runGroupClasses(String linterName, String packagePath,
-            String[] classNames) {
-        try {
-            Map<String, ClassNode> contextMap = loadPackageClasses(packagePath);
-            if (contextMap.isEmpty()) {
+            String[] classNames, ClassNodeCache nodes) {
+        try (ClassSummaryIndex contextMap = loadPackageClasses(packagePath, 1, nodes)) {
+            if (contextMap.size() == 0) {
                 System.err.println("No classes found in package: " + packagePath);
                 return;
             }
@@ -161,7 +173,7 @@ public class ASMMain {
                     continue;
 
                 String internalName = className.replace('.', '/');
-                ClassNode cn = contextMap.get(internalName);
+                ClassNode cn = contextMap.contains(internalName) ? contextMap.loadNode(internalName) : null;
                 if (cn == null) {
                     System.err.println("Class not found in package context: " + className);
                     continue;
@@ -181,47 +193,20 @@ public class ASMMain {
     }
 
     /**
-     * Load all class files from a package directory
+     * Summarize all class files from a package directory, down to depth
+     * directory levels (1 for the package alone)
      */
-    private static Map<String, ClassNode> loadPackageClasses(String packagePath) throws IOException {
-        Map<String, ClassNode> classes = new HashMap<>();
-
+    private static ClassSummaryIndex loadPackageClasses(String packagePath, int depth, ClassNodeCache nodes)
+            throws IOException {
         // Convert package path to directory path
         String dirPath = "src/test/resources/" + packagePath.replace('.', '/');
         Path packageDir = Paths.get(dirPath);
 
         if (!Files.exists(packageDir) || !Files.isDirectory(packageDir)) {
             System.err.println("Package directory not found: " + packageDir);
-            return classes;
+            return new ClassSummaryIndex();
         }
 
-        // Find all .class files in the directory
-        try (Stream<Path> paths = Files.walk(packageDir, 1)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".class"))
-                    .forEach(classFile -> {
-                        try {
-                            ClassNode classNode = loadClassFromFile(classFile);
-                            if (classNode != null) {
-                                classes.put(classNode.name, classNode);
-                            }
-                        } catch (IOException e) {
-                            System.err.println("Error loading " + classFile + ": " + e.getMessage());
-                        }
-                    });
-        }
-
-        return classes;
-    }
-
-    /**
-     * Load a ClassNode from a file path
-     */
-    private static ClassNode loadClassFromFile(Path classFile) throws IOException {
-        byte[] classBytes = Files.readAllBytes(classFile);
-        ClassReader classReader = new ClassReader(classBytes);
-        ClassNode classNode = new ClassNode();
-        classReader.accept(classNode, ClassReader.EXPAND_FRAMES);
-        return classNode;
+        return ClassSummaryIndex.fromDirectory(packageDir, depth, nodes);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package example;
+
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ClassNodes read during one linter run, by class file. Every linter of the
+ * run that loads a class gets the same ClassNode, so the analyses cached per
+ * MethodNode (SourceFrames, ControlFlowGraph, LineNumberIndex) are computed
+ * once per run instead of once per linter. Drop the cache when the run ends.
+ *
+ * Nodes are held softly: under memory pressure they are read again, which
+ * only repeats those analyses.
+ */
+public final class ClassNodeCache {
+
+    private final Map<Path, SoftReference<ClassNode>> nodes = new HashMap<>();
+
+    public ClassNode load(Path classFile) throws IOException {
+        Path key = classFile.toAbsolutePath().normalize();
+        synchronized (this) {
+            SoftReference<ClassNode> ref = nodes.get(key);
+            ClassNode node = ref == null ? null : ref.get();
+            if (node != null) return node;
+        }
+
+        // Parsed outside the lock; if two threads race, the first node stored wins
+        ClassNode loaded = ClassSummaryIndex.readClassFile(classFile);
+        synchronized (this) {
+            SoftReference<ClassNode> ref = nodes.get(key);
+            ClassNode node = ref == null ? null : ref.get();
+            if (node != null) return node;
+            nodes.put(key, new SoftReference<>(loaded));
+            return loaded;
+        }
+    }
+}
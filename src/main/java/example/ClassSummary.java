@@ -0,0 +1,215 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Compact, immutable view of a parsed class for package-wide linters.
+ *
+ * A summary is a flat run of int words: a fixed header followed by the
+ * interface, field, method, call-site and field-access tables and the list
+ * of referenced classes. Method handles, such as the targets of method
+ * references and lambdas, are recorded as the call site or field access they
+ * stand for. Names, descriptors and field signatures are symbol ids from the
+ * SymbolTable of the owning ClassSummaryIndex, and the instruction bodies
+ * are never retained.
+ * The words live either in an int[] on the heap or in an OffHeapSummaryStore,
+ * which reads them through a flyweight subclass.
+ */
+public abstract class ClassSummary {
+
+    static final int ACCESS = 0;
+    static final int NAME = 1;
+    static final int SUPER_NAME = 2;
+    static final int INTERFACES = 3;
+    static final int FIELDS = 4;
+    static final int METHODS = 5;
+    static final int CALLS = 6;
+    static final int FIELD_REFS = 7;
+    static final int DEPENDENCIES = 8;
+    static final int END = 9;
+    static final int HEADER_SIZE = 10;
+
+    // access, name, desc
+    static final int MEMBER_STRIDE = 3;
+    // access, name, desc, generic signature
+    static final int FIELD_STRIDE = 4;
+    // enclosing method ordinal, opcode, owner, name, desc
+    static final int SITE_STRIDE = 5;
+
+    /**
+     * Summary over an int[] laid out by ClassSummaryBuilder.
+     */
+    public static ClassSummary wrap(int[] data) {
+        return new ArrayBacked(data);
+    }
+
+    /**
+     * Reads the word at the given position of this summary's layout.
+     */
+    protected abstract int word(int offset);
+
+    public int access() {
+        return word(ACCESS);
+    }
+
+    public int name() {
+        return word(NAME);
+    }
+
+    public int superName() {
+        return word(SUPER_NAME);
+    }
+
+    public boolean isInterface() {
+        return (word(ACCESS) & Opcodes.ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (word(ACCESS) & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE)) != 0;
+    }
+
+    // ---------------- interfaces ----------------
+
+    public int interfaceCount() {
+        return word(FIELDS) - word(INTERFACES);
+    }
+
+    public int interfaceAt(int i) {
+        return word(word(INTERFACES) + i);
+    }
+
+    // ---------------- fields ----------------
+
+    public int fieldCount() {
+        return (word(METHODS) - word(FIELDS)) / FIELD_STRIDE;
+    }
+
+    public int fieldAccess(int i) {
+        return word(word(FIELDS) + i * FIELD_STRIDE);
+    }
+
+    public int fieldName(int i) {
+        return word(word(FIELDS) + i * FIELD_STRIDE + 1);
+    }
+
+    public int fieldDesc(int i) {
+        return word(word(FIELDS) + i * FIELD_STRIDE + 2);
+    }
+
+    /**
+     * Generic signature of the field, such as
+     * Ljava/util/List<Ljava/lang/String;>;, or SymbolTable.NONE if it has none.
+     */
+    public int fieldSignature(int i) {
+        return word(word(FIELDS) + i * FIELD_STRIDE + 3);
+    }
+
+    // ---------------- methods ----------------
+
+    public int methodCount() {
+        return (word(CALLS) - word(METHODS)) / MEMBER_STRIDE;
+    }
+
+    public int methodAccess(int i) {
+        return word(word(METHODS) + i * MEMBER_STRIDE);
+    }
+
+    public int methodName(int i) {
+        return word(word(METHODS) + i * MEMBER_STRIDE + 1);
+    }
+
+    public int methodDesc(int i) {
+        return word(word(METHODS) + i * MEMBER_STRIDE + 2);
+    }
+
+    // ---------------- call sites ----------------
+
+    public int callCount() {
+        return (word(FIELD_REFS) - word(CALLS)) / SITE_STRIDE;
+    }
+
+    /**
+     * Ordinal of the method (see methodName) that contains the call.
+     */
+    public int callMethod(int i) {
+        return word(word(CALLS) + i * SITE_STRIDE);
+    }
+
+    public int callOpcode(int i) {
+        return word(word(CALLS) + i * SITE_STRIDE + 1);
+    }
+
+    public int callOwner(int i) {
+        return word(word(CALLS) + i * SITE_STRIDE + 2);
+    }
+
+    public int callName(int i) {
+        return word(word(CALLS) + i * SITE_STRIDE + 3);
+    }
+
+    public int callDesc(int i) {
+        return word(word(CALLS) + i * SITE_STRIDE + 4);
+    }
+
+    // ---------------- field accesses ----------------
+
+    public int fieldRefCount() {
+        return (word(DEPENDENCIES) - word(FIELD_REFS)) / SITE_STRIDE;
+    }
+
+    public int fieldRefMethod(int i) {
+        return word(word(FIELD_REFS) + i * SITE_STRIDE);
+    }
+
+    public int fieldRefOpcode(int i) {
+        return word(word(FIELD_REFS) + i * SITE_STRIDE + 1);
+    }
+
+    public int fieldRefOwner(int i) {
+        return word(word(FIELD_REFS) + i * SITE_STRIDE + 2);
+    }
+
+    public int fieldRefName(int i) {
+        return word(word(FIELD_REFS) + i * SITE_STRIDE + 3);
+    }
+
+    public int fieldRefDesc(int i) {
+        return word(word(FIELD_REFS) + i * SITE_STRIDE + 4);
+    }
+
+    // ---------------- referenced classes ----------------
+
+    /**
+     * Number of classes this class refers to anywhere, see DependencyExtractor.
+     */
+    public int dependencyCount() {
+        return word(END) - word(DEPENDENCIES);
+    }
+
+    /**
+     * Symbol id of the i-th referenced class; ids are in ascending order.
+     */
+    public int dependencyAt(int i) {
+        return word(word(DEPENDENCIES) + i);
+    }
+
+    /**
+     * Number of ints backing this summary, for footprint reporting.
+     */
+    public int sizeInWords() {
+        return word(END);
+    }
+
+    private static final class ArrayBacked extends ClassSummary {
+        private final int[] data;
+
+        ArrayBacked(int[] data) {
+            this.data = data;
+        }
+
+        @Override
+        protected int word(int offset) {
+            return data[offset];
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.Arrays;
+
+/**
+ * Streams a class through ASM's visitor API and records only what the
+ * ClassSummary layout needs. No tree nodes are allocated when reading
+ * straight from class bytes. Referenced classes come from the constant pool
+ * through DependencyExtractor; a ClassNode is written to bytes first.
+ */
+public class ClassSummaryBuilder extends ClassVisitor {
+
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    private final SymbolTable symbols;
+
+    private int access;
+    private int name = SymbolTable.NONE;
+    private int superName = SymbolTable.NONE;
+    private final IntBuffer interfaces = new IntBuffer();
+    private final IntBuffer fields = new IntBuffer();
+    private final IntBuffer methods = new IntBuffer();
+    private final IntBuffer calls = new IntBuffer();
+    private final IntBuffer fieldRefs = new IntBuffer();
+    private int[] dependencies = new int[0];
+
+    public ClassSummaryBuilder(SymbolTable symbols) {
+        super(Opcodes.ASM9);
+        this.symbols = symbols;
+    }
+
+    public static int[] read(byte[] classBytes, SymbolTable symbols) {
+        ClassSummaryBuilder builder = new ClassSummaryBuilder(symbols);
+        ClassReader reader = new ClassReader(classBytes);
+        reader.accept(builder, PARSING_OPTIONS);
+        builder.dependencies = DependencyExtractor.read(reader, symbols);
+        return builder.toWords();
+    }
+
+    public static int[] of(ClassNode node, SymbolTable symbols) {
+        ClassSummaryBuilder builder = new ClassSummaryBuilder(symbols);
+        node.accept(builder);
+        try {
+            ClassWriter writer = new ClassWriter(0);
+            node.accept(writer);
+            builder.dependencies = DependencyExtractor.read(new ClassReader(writer.toByteArray()), symbols);
+        } catch (RuntimeException e) {
+            // Without its dependencies the class drops out of every graph-based result, so say which one
+            System.err.println("Cannot read dependencies of " + node.name + ": " + e);
+        }
+        return builder.toWords();
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature,
+            String superName, String[] interfaces) {
+        this.access = access;
+        this.name = symbols.intern(name);
+        this.superName = symbols.intern(superName);
+        if (interfaces != null) {
+            for (String iface : interfaces) {
+                this.interfaces.add(symbols.intern(iface));
+            }
+        }
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor,
+            String signature, Object value) {
+        fields.add(access);
+        fields.add(symbols.intern(name));
+        fields.add(symbols.intern(descriptor));
+        fields.add(signature == null ? SymbolTable.NONE : symbols.intern(signature));
+        return null;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor,
+            String signature, String[] exceptions) {
+        final int ordinal = methods.size() / ClassSummary.MEMBER_STRIDE;
+        methods.add(access);
+        methods.add(symbols.intern(name));
+        methods.add(symbols.intern(descriptor));
+
+        return new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name,
+                    String descriptor, boolean isInterface) {
+                addSite(calls, ordinal, opcode, owner, name, descriptor);
+            }
+
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                addSite(fieldRefs, ordinal, opcode, owner, name, descriptor);
+            }
+
+            @Override
+            public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                    Object... bootstrapMethodArguments) {
+                addHandle(ordinal, bootstrapMethodHandle);
+                for (Object argument : bootstrapMethodArguments) {
+                    if (argument instanceof Handle) addHandle(ordinal, (Handle) argument);
+                }
+            }
+
+            @Override
+            public void visitLdcInsn(Object value) {
+                if (value instanceof Handle) addHandle(ordinal, (Handle) value);
+            }
+        };
+    }
+
+    /**
+     * A method handle is recorded like the instruction it stands for, so
+     * method references and lambda bodies show up as call sites.
+     */
+    private void addHandle(int method, Handle handle) {
+        switch (handle.getTag()) {
+            case Opcodes.H_GETFIELD:
+                addSite(fieldRefs, method, Opcodes.GETFIELD, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            case Opcodes.H_GETSTATIC:
+                addSite(fieldRefs, method, Opcodes.GETSTATIC, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            case Opcodes.H_PUTFIELD:
+                addSite(fieldRefs, method, Opcodes.PUTFIELD, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            case Opcodes.H_PUTSTATIC:
+                addSite(fieldRefs, method, Opcodes.PUTSTATIC, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            case Opcodes.H_INVOKEVIRTUAL:
+                addSite(calls, method, Opcodes.INVOKEVIRTUAL, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            case Opcodes.H_INVOKESTATIC:
+                addSite(calls, method, Opcodes.INVOKESTATIC, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            case Opcodes.H_INVOKEINTERFACE:
+                addSite(calls, method, Opcodes.INVOKEINTERFACE, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+            default: // H_INVOKESPECIAL, H_NEWINVOKESPECIAL
+                addSite(calls, method, Opcodes.INVOKESPECIAL, handle.getOwner(), handle.getName(), handle.getDesc());
+                break;
+        }
+    }
+
+    private void addSite(IntBuffer table, int method, int opcode, String owner, String name, String desc) {
+        table.add(method);
+        table.add(opcode);
+        table.add(symbols.intern(owner));
+        table.add(symbols.intern(name));
+        table.add(symbols.intern(desc));
+    }
+
+    /**
+     * The summary in its flat ClassSummary layout, ready for a SummaryStore.
+     */
+    public int[] toWords() {
+        int[] data = new int[ClassSummary.HEADER_SIZE + interfaces.size() + fields.size()
+                + methods.size() + calls.size() + fieldRefs.size() + dependencies.length];
+
+        data[ClassSummary.ACCESS] = access;
+        data[ClassSummary.NAME] = name;
+        data[ClassSummary.SUPER_NAME] = superName;
+
+        int pos = ClassSummary.HEADER_SIZE;
+        data[ClassSummary.INTERFACES] = pos;
+        pos = interfaces.copyTo(data, pos);
+        data[ClassSummary.FIELDS] = pos;
+        pos = fields.copyTo(data, pos);
+        data[ClassSummary.METHODS] = pos;
+        pos = methods.copyTo(data, pos);
+        data[ClassSummary.CALLS] = pos;
+        pos = calls.copyTo(data, pos);
+        data[ClassSummary.FIELD_REFS] = pos;
+        pos = fieldRefs.copyTo(data, pos);
+        data[ClassSummary.DEPENDENCIES] = pos;
+        System.arraycopy(dependencies, 0, data, pos, dependencies.length);
+        pos += dependencies.length;
+        data[ClassSummary.END] = pos;
+
+        return data;
+    }
+
+    private static final class IntBuffer {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int copyTo(int[] target, int offset) {
+            System.arraycopy(values, 0, target, offset, size);
+            return offset + size;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The set of classes a package-wide linter run can see, held as ClassSummary
+ * records instead of full ClassNodes. When a linter does need instructions it
+ * asks for the ClassNode through loadNode: read from the run's ClassNodeCache
+ * when the index was given one, otherwise read afresh and not retained.
+ *
+ * By default summaries and symbols live on the heap. Setting the system
+ * property linter.summaryStore to "direct" or "mmap:&lt;file&gt;" moves them
+ * into an OffHeapArena so very large corpora keep the heap small; close the
+ * index to release the arena.
+ */
+public class ClassSummaryIndex implements AutoCloseable {
+
+    public static final String STORE_PROPERTY = "linter.summaryStore";
+
+    private final SymbolTable symbols;
+    private final SummaryStore store;
+    private final OffHeapArena arena;
+
+    // Per class position, in insertion order: store handle and class file path symbol
+    private int[] handles = new int[64];
+    private int[] paths = new int[64];
+    private int count;
+
+    // Open-addressing map from class name symbol to position; only class names are keys
+    private int[] positionKeys = new int[128];
+    private int[] positionValues = new int[128];
+
+    private final Map<String, ClassNode> inMemory = new HashMap<>();
+    private ClassNodeCache nodes;
+
+    // Helpers built once per index and shared by every linter of the run
+    private final Map<Class<?>, Object> shared = new HashMap<>();
+
+    public ClassSummaryIndex() {
+        this(new HeapSymbolTable(), SummaryStore.onHeap());
+    }
+
+    public ClassSummaryIndex(SymbolTable symbols, SummaryStore store) {
+        this(symbols, store, null);
+    }
+
+    private ClassSummaryIndex(SymbolTable symbols, SummaryStore store, OffHeapArena arena) {
+        this.symbols = symbols;
+        this.store = store;
+        this.arena = arena;
+        Arrays.fill(positionKeys, SymbolTable.NONE);
+    }
+
+    /**
+     * Index whose storage follows the linter.summaryStore system property.
+     */
+    public static ClassSummaryIndex create() throws IOException {
+        String mode = System.getProperty(STORE_PROPERTY, "heap").trim();
+        if (mode.equals("heap")) {
+            return new ClassSummaryIndex();
+        }
+
+        OffHeapArena arena;
+        if (mode.equals("direct")) {
+            arena = new OffHeapArena();
+        } else if (mode.startsWith("mmap:")) {
+            arena = new OffHeapArena(Paths.get(mode.substring("mmap:".length())));
+        } else {
+            throw new IllegalArgumentException("Unknown " + STORE_PROPERTY + ": " + mode);
+        }
+        return new ClassSummaryIndex(new OffHeapSymbolTable(arena), new OffHeapSummaryStore(arena), arena);
+    }
+
+    /**
+     * Index over classes that are already in memory, e.g. built by tests.
+     */
+    public static ClassSummaryIndex fromNodes(Map<String, ClassNode> classMap) {
+        ClassSummaryIndex index = new ClassSummaryIndex();
+        if (classMap != null) {
+            for (ClassNode node : classMap.values()) {
+                index.add(node);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Summarize every .class file below dir, down to maxDepth directory levels.
+     */
+    public static ClassSummaryIndex fromDirectory(Path dir, int maxDepth) throws IOException {
+        return fromDirectory(dir, maxDepth, null);
+    }
+
+    /**
+     * Like fromDirectory(dir, maxDepth), with loadNode reading through the
+     * run's ClassNodeCache so linters of the run share ClassNodes.
+     */
+    public static ClassSummaryIndex fromDirectory(Path dir, int maxDepth, ClassNodeCache nodes) throws IOException {
+        ClassSummaryIndex index = create();
+        index.nodes = nodes;
+        try (Stream<Path> files = Files.walk(dir, maxDepth)) {
+            files.filter(Files::isRegularFile)
+                    .filter(p -> p.toString().endsWith(".class"))
+                    .forEach(classFile -> {
+                        try {
+                            index.add(Files.readAllBytes(classFile), classFile);
+                        } catch (IOException e) {
+                            System.err.println("Error loading " + classFile + ": " + e.getMessage());
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+        return index;
+    }
+
+    public static ClassNode readClassFile(Path classFile) throws IOException {
+        ClassReader classReader = new ClassReader(Files.readAllBytes(classFile));
+        ClassNode classNode = new ClassNode();
+        classReader.accept(classNode, ClassReader.EXPAND_FRAMES);
+        return classNode;
+    }
+
+    public synchronized ClassSummary add(byte[] classBytes, Path classFile) {
+        int[] words = ClassSummaryBuilder.read(classBytes, symbols);
+        return put(words, symbols.intern(classFile.toString()));
+    }
+
+    public synchronized ClassSummary add(ClassNode node) {
+        int[] words = ClassSummaryBuilder.of(node, symbols);
+        inMemory.put(node.name, node);
+        return put(words, SymbolTable.NONE);
+    }
+
+    private ClassSummary put(int[] words, int pathSymbol) {
+        int handle = store.put(words);
+        int name = words[ClassSummary.NAME];
+
+        int position = positionOf(name);
+        if (position < 0) {
+            position = count++;
+            if (position == handles.length) {
+                handles = Arrays.copyOf(handles, position * 2);
+                paths = Arrays.copyOf(paths, position * 2);
+            }
+            if (count * 2 > positionKeys.length) {
+                growPositions();
+            }
+            insertPosition(positionKeys, positionValues, name, position);
+        }
+        handles[position] = handle;
+        paths[position] = pathSymbol;
+        return store.get(handle);
+    }
+
+    /**
+     * Insertion position of an indexed class, or -1. Positions run from 0 to
+     * size() - 1 in the order of classNames() and summaries().
+     */
+    public synchronized int positionOf(int nameId) {
+        if (nameId < 0) return -1;
+        int mask = positionKeys.length - 1;
+        for (int slot = mix(nameId) & mask; positionKeys[slot] != SymbolTable.NONE; slot = (slot + 1) & mask) {
+            if (positionKeys[slot] == nameId) return positionValues[slot];
+        }
+        return -1;
+    }
+
+    private void growPositions() {
+        int[] keys = new int[positionKeys.length * 2];
+        int[] values = new int[keys.length];
+        Arrays.fill(keys, SymbolTable.NONE);
+        for (int slot = 0; slot < positionKeys.length; slot++) {
+            if (positionKeys[slot] != SymbolTable.NONE) {
+                insertPosition(keys, values, positionKeys[slot], positionValues[slot]);
+            }
+        }
+        positionKeys = keys;
+        positionValues = values;
+    }
+
+    private static void insertPosition(int[] keys, int[] values, int nameId, int position) {
+        int mask = keys.length - 1;
+        int slot = mix(nameId) & mask;
+        while (keys[slot] != SymbolTable.NONE) slot = (slot + 1) & mask;
+        keys[slot] = nameId;
+        values[slot] = position;
+    }
+
+    // Symbol ids are dense, so spread them before masking
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public ClassSummary get(String internalName) {
+        return get(symbols.lookup(internalName));
+    }
+
+    public synchronized ClassSummary get(int nameId) {
+        int position = positionOf(nameId);
+        return position < 0 ? null : store.get(handles[position]);
+    }
+
+    public boolean contains(String internalName) {
+        return contains(symbols.lookup(internalName));
+    }
+
+    public synchronized boolean contains(int nameId) {
+        return positionOf(nameId) >= 0;
+    }
+
+    /**
+     * Summary of a class being linted; summarizes it on the fly when the
+     * class is not part of the index.
+     */
+    public ClassSummary summaryOf(ClassNode node) {
+        ClassSummary summary = get(node.name);
+        return summary != null ? summary : ClassSummary.wrap(ClassSummaryBuilder.of(node, symbols));
+    }
+
+    /**
+     * Names of the indexed classes, in the order they were added.
+     */
+    public List<String> classNames() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int position) {
+                return symbols.symbol(summaryAt(position).name());
+            }
+
+            @Override
+            public int size() {
+                return ClassSummaryIndex.this.size();
+            }
+        };
+    }
+
+    public List<ClassSummary> summaries() {
+        return new AbstractList<ClassSummary>() {
+            @Override
+            public ClassSummary get(int position) {
+                return summaryAt(position);
+            }
+
+            @Override
+            public int size() {
+                return ClassSummaryIndex.this.size();
+            }
+        };
+    }
+
+    private synchronized ClassSummary summaryAt(int position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length " + count);
+        }
+        return store.get(handles[position]);
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    public String symbol(int id) {
+        return symbols.symbol(id);
+    }
+
+    /**
+     * The index's single instance of a helper that caches data derived from
+     * it, created with factory on first use. Linters of one run that share
+     * the index then also share the helper's cache.
+     */
+    public synchronized <T> T shared(Class<T> type, Function<ClassSummaryIndex, T> factory) {
+        Object value = shared.get(type);
+        if (value == null) {
+            value = factory.apply(this);
+            shared.put(type, value);
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * The full ClassNode of an indexed class, or null if unavailable.
+     */
+    public ClassNode loadNode(String internalName) {
+        try {
+            ClassNode node;
+            int path;
+            synchronized (this) {
+                node = inMemory.get(internalName);
+                path = pathOf(internalName);
+            }
+            if (node != null) {
+                return node;
+            }
+            if (path == SymbolTable.NONE) {
+                return null;
+            }
+            Path classFile = Paths.get(symbols.symbol(path));
+            return nodes != null ? nodes.load(classFile) : readClassFile(classFile);
+        } catch (IOException e) {
+            System.err.println("Error loading class " + internalName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Streams an indexed class through the visitor, straight from its class
+     * file when it has one, so no ClassNode is built. Returns false when the
+     * class is unavailable.
+     */
+    public boolean accept(String internalName, ClassVisitor visitor, int parsingOptions) {
+        ClassNode node;
+        int path;
+        synchronized (this) {
+            node = inMemory.get(internalName);
+            path = pathOf(internalName);
+        }
+        if (node != null) {
+            node.accept(visitor);
+            return true;
+        }
+        if (path == SymbolTable.NONE) {
+            return false;
+        }
+
+        Path classFile = Paths.get(symbols.symbol(path));
+        try {
+            new ClassReader(Files.readAllBytes(classFile)).accept(visitor, parsingOptions);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading class " + internalName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Class file path symbol of an indexed class, or NONE; callers hold the lock
+    private int pathOf(String internalName) {
+        int position = positionOf(symbols.lookup(internalName));
+        return position < 0 ? SymbolTable.NONE : paths[position];
+    }
+
+    /**
+     * Releases the off-heap arena, if any, and the shared helpers, closing
+     * those that hold files. The index must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            for (Object helper : shared.values()) {
+                if (helper instanceof Closeable) {
+                    ((Closeable) helper).close();
+                }
+            }
+        } finally {
+            shared.clear();
+            inMemory.clear();
+            if (arena != null) {
+                arena.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Basic-block control flow graph of one method, over instruction indexes of
+ * its InsnList. Normal successors (fall-through, jumps, switch targets) and
+ * exception handler successors are kept in separate compressed adjacency
+ * arrays. Blocks are split at try/catch range boundaries, so every block is
+ * either wholly inside or wholly outside each protected range.
+ *
+ * A graph is built on the first of() for a MethodNode and cached while that
+ * node is reachable. Linters of one run share ClassNodes through the run's
+ * ClassNodeCache, so each method's graph is built once per run.
+ */
+public final class ControlFlowGraph {
+
+    private static final Map<MethodNode, ControlFlowGraph> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AbstractInsnNode[] insns;
+    private final int blockCount;
+    private final int[] blockStart;
+    private final int[] blockOfInsn;
+    private final int[] succOffset;
+    private final int[] succ;
+    private final int[] handlerOffset;
+    private final int[] handlers;
+    private long[] reachable;
+
+    public static ControlFlowGraph of(MethodNode method) {
+        ControlFlowGraph cached = CACHE.get(method);
+        if (cached == null) {
+            // Built outside the map's lock; a racing thread's graph is kept if stored first
+            ControlFlowGraph built = new ControlFlowGraph(method);
+            cached = CACHE.putIfAbsent(method, built);
+            if (cached == null) cached = built;
+        }
+        return cached;
+    }
+
+    private ControlFlowGraph(MethodNode method) {
+        InsnList list = method.instructions;
+        insns = list == null ? new AbstractInsnNode[0] : list.toArray();
+        int n = insns.length;
+
+        // 1) Leaders: entry, jump/switch targets, handlers, try boundaries, and whatever follows a branch
+        boolean[] leader = new boolean[n + 1];
+        leader[0] = true;
+        for (int i = 0; i < n; i++) {
+            AbstractInsnNode insn = insns[i];
+            if (insn instanceof JumpInsnNode) {
+                leader[list.indexOf(((JumpInsnNode) insn).label)] = true;
+                leader[i + 1] = true;
+            } else if (insn instanceof TableSwitchInsnNode) {
+                TableSwitchInsnNode sw = (TableSwitchInsnNode) insn;
+                leader[list.indexOf(sw.dflt)] = true;
+                for (LabelNode label : sw.labels) leader[list.indexOf(label)] = true;
+                leader[i + 1] = true;
+            } else if (insn instanceof LookupSwitchInsnNode) {
+                LookupSwitchInsnNode sw = (LookupSwitchInsnNode) insn;
+                leader[list.indexOf(sw.dflt)] = true;
+                for (LabelNode label : sw.labels) leader[list.indexOf(label)] = true;
+                leader[i + 1] = true;
+            } else if (isExit(insn.getOpcode())) {
+                leader[i + 1] = true;
+            }
+        }
+        if (method.tryCatchBlocks != null) {
+            for (TryCatchBlockNode tcb : method.tryCatchBlocks) {
+                leader[list.indexOf(tcb.start)] = true;
+                leader[list.indexOf(tcb.end)] = true;
+                leader[list.indexOf(tcb.handler)] = true;
+            }
+        }
+
+        // 2) Blocks
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (leader[i]) count++;
+        }
+        blockCount = count;
+        blockStart = new int[count + 1];
+        blockOfInsn = new int[n];
+        int b = -1;
+        for (int i = 0; i < n; i++) {
+            if (leader[i]) blockStart[++b] = i;
+            blockOfInsn[i] = b;
+        }
+        blockStart[count] = n;
+
+        // 3) Normal successors
+        int[][] out = new int[count][];
+        int edges = 0;
+        for (b = 0; b < count; b++) {
+            out[b] = successorsOf(list, b);
+            edges += out[b].length;
+        }
+        succOffset = new int[count + 1];
+        succ = new int[edges];
+        flatten(out, succOffset, succ);
+
+        // 4) Exception handler successors
+        int[] handlerCount = new int[count];
+        if (method.tryCatchBlocks != null) {
+            for (TryCatchBlockNode tcb : method.tryCatchBlocks) {
+                int end = list.indexOf(tcb.end);
+                for (int block = blockOf(list.indexOf(tcb.start)); block < count && blockStart[block] < end; block++) {
+                    handlerCount[block]++;
+                }
+            }
+        }
+        handlerOffset = new int[count + 1];
+        for (b = 0; b < count; b++) {
+            handlerOffset[b + 1] = handlerOffset[b] + handlerCount[b];
+        }
+        handlers = new int[handlerOffset[count]];
+        if (method.tryCatchBlocks != null) {
+            int[] fill = Arrays.copyOf(handlerOffset, count);
+            for (TryCatchBlockNode tcb : method.tryCatchBlocks) {
+                int end = list.indexOf(tcb.end);
+                int handler = blockOf(list.indexOf(tcb.handler));
+                for (int block = blockOf(list.indexOf(tcb.start)); block < count && blockStart[block] < end; block++) {
+                    handlers[fill[block]++] = handler;
+                }
+            }
+        }
+    }
+
+    private int[] successorsOf(InsnList list, int block) {
+        int fallThrough = block + 1 < blockCount ? block + 1 : -1;
+        int last = lastRealInsn(block);
+        if (last < 0) {
+            return fallThrough < 0 ? new int[0] : new int[] { fallThrough };
+        }
+
+        AbstractInsnNode insn = insns[last];
+        int opcode = insn.getOpcode();
+        if (insn instanceof JumpInsnNode) {
+            int target = blockOf(list.indexOf(((JumpInsnNode) insn).label));
+            if (opcode == Opcodes.GOTO || fallThrough < 0) {
+                return new int[] { target };
+            }
+            return new int[] { target, fallThrough };
+        }
+        if (insn instanceof TableSwitchInsnNode) {
+            TableSwitchInsnNode sw = (TableSwitchInsnNode) insn;
+            return switchTargets(list, sw.dflt, sw.labels);
+        }
+        if (insn instanceof LookupSwitchInsnNode) {
+            LookupSwitchInsnNode sw = (LookupSwitchInsnNode) insn;
+            return switchTargets(list, sw.dflt, sw.labels);
+        }
+        if (isExit(opcode)) {
+            return new int[0];
+        }
+        return fallThrough < 0 ? new int[0] : new int[] { fallThrough };
+    }
+
+    private int[] switchTargets(InsnList list, LabelNode dflt, List<LabelNode> labels) {
+        int[] targets = new int[labels.size() + 1];
+        targets[0] = blockOf(list.indexOf(dflt));
+        for (int i = 0; i < labels.size(); i++) {
+            targets[i + 1] = blockOf(list.indexOf(labels.get(i)));
+        }
+        return targets;
+    }
+
+    private static void flatten(int[][] lists, int[] offsets, int[] flat) {
+        int pos = 0;
+        for (int i = 0; i < lists.length; i++) {
+            offsets[i] = pos;
+            System.arraycopy(lists[i], 0, flat, pos, lists[i].length);
+            pos += lists[i].length;
+        }
+        offsets[lists.length] = pos;
+    }
+
+    private static boolean isExit(int opcode) {
+        return (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN)
+                || opcode == Opcodes.ATHROW
+                || opcode == Opcodes.RET;
+    }
+
+    // ---------------- queries ----------------
+
+    public int blockCount() {
+        return blockCount;
+    }
+
+    public int instructionCount() {
+        return insns.length;
+    }
+
+    public AbstractInsnNode instruction(int index) {
+        return insns[index];
+    }
+
+    /**
+     * Index of the first instruction of the block.
+     */
+    public int start(int block) {
+        return blockStart[block];
+    }
+
+    /**
+     * Index just past the last instruction of the block.
+     */
+    public int end(int block) {
+        return blockStart[block + 1];
+    }
+
+    public int blockOf(int insnIndex) {
+        return blockOfInsn[insnIndex];
+    }
+
+    public int successorCount(int block) {
+        return succOffset[block + 1] - succOffset[block];
+    }
+
+    public int successor(int block, int i) {
+        return succ[succOffset[block] + i];
+    }
+
+    public int handlerCount(int block) {
+        return handlerOffset[block + 1] - handlerOffset[block];
+    }
+
+    public int handler(int block, int i) {
+        return handlers[handlerOffset[block] + i];
+    }
+
+    /**
+     * Index of the last instruction with a real opcode in the block, or -1 if
+     * it only holds labels, line numbers and frames.
+     */
+    public int lastRealInsn(int block) {
+        for (int i = end(block) - 1; i >= start(block); i--) {
+            if (insns[i].getOpcode() >= 0) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the first instruction with a real opcode in the block, or -1.
+     */
+    public int firstRealInsn(int block) {
+        for (int i = start(block); i < end(block); i++) {
+            if (insns[i].getOpcode() >= 0) return i;
+        }
+        return -1;
+    }
+
+    public boolean isReachable(int block) {
+        long[] bits = reachableBlocks();
+        return (bits[block >>> 6] & (1L << block)) != 0;
+    }
+
+    /**
+     * Bitset of blocks reachable from the entry through normal or exception
+     * edges, computed with a single worklist pass.
+     */
+    public synchronized long[] reachableBlocks() {
+        if (reachable != null) return reachable;
+
+        long[] seen = new long[(blockCount + 63) >>> 6];
+        if (blockCount > 0) {
+            int[] stack = new int[blockCount];
+            int top = 0;
+            stack[top++] = 0;
+            seen[0] |= 1L;
+            while (top > 0) {
+                int block = stack[--top];
+                for (int i = succOffset[block]; i < succOffset[block + 1]; i++) {
+                    top = visit(succ[i], seen, stack, top);
+                }
+                for (int i = handlerOffset[block]; i < handlerOffset[block + 1]; i++) {
+                    top = visit(handlers[i], seen, stack, top);
+                }
+            }
+        }
+        reachable = seen;
+        return seen;
+    }
+
+    private static int visit(int block, long[] seen, int[] stack, int top) {
+        long bit = 1L << block;
+        if ((seen[block >>> 6] & bit) == 0) {
+            seen[block >>> 6] |= bit;
+            stack[top++] = block;
+        }
+        return top;
+    }
+}
@@ -5,45 +5,50 @@ import org.objectweb.asm.tree.*;
 import java.util.*;
 
 /**
- * Detects cyclic dependencies between classes using Tarjan's Strongly Connected Components algorithm.
- * This linter analyzes method calls to find circular dependencies at the class level.
+ * Detects cyclic dependencies using Tarjan's Strongly Connected Components algorithm.
+ *
+ * The class dependency graph is first condensed to packages, and package-level
+ * cycles are reported. Class-level cycles are then searched only within each
+ * group of mutually dependent packages: a class cycle can never leave its
+ * package group, so edges between groups are dropped before the second pass.
+ *
+ * Every cycle comes with a shortest witness path, each hop naming the field or
+ * method that causes it.
  */
 public class CycleDependencyLinter implements Linter {
     private final ClassNode classNode;
-    private final Map<String, ClassNode> allClasses;
-    
-    // For Tarjan's algorithm
-    private int index = 0;
-    private Stack<String> stack = new Stack<>();
-    private Map<String, Integer> indices = new HashMap<>();
-    private Map<String, Integer> lowLinks = new HashMap<>();
-    private Map<String, Boolean> onStack = new HashMap<>();
-    private List<List<String>> sccs = new ArrayList<>();
+    private final ClassSummaryIndex allClasses;
 
     public CycleDependencyLinter(ClassNode classNode) {
-        this.classNode = classNode;
-        this.allClasses = new HashMap<>();
-        this.allClasses.put(classNode.name, classNode);
+        this(classNode, Collections.singletonMap(classNode.name, classNode));
     }
 
     /**
      * Constructor that accepts multiple classes for package-wide analysis
      */
     public CycleDependencyLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    public CycleDependencyLinter(ClassNode classNode, ClassSummaryIndex allClasses) {
         this.classNode = classNode;
         this.allClasses = allClasses;
     }
 
     @Override
     public void lintClass() {
-        // Build dependency graph
-        Map<String, Set<String>> dependencyGraph = buildDependencyGraph();
-        
-        // Find SCCs using Tarjan's algorithm
-        findStronglyConnectedComponents(dependencyGraph);
-        
+        DependencyGraph graph = DependencyGraph.of(allClasses);
+
+        // 1) Package graph and its cycles
+        int[][] packageEdges = packageGraph(graph);
+        StronglyConnectedComponents packageSccs = new StronglyConnectedComponents(packageEdges[0], packageEdges[1]);
+
+        // 2) Class graph without edges between package groups, and its cycles
+        int[][] classEdges = classGraph(graph, packageSccs);
+        StronglyConnectedComponents classSccs = new StronglyConnectedComponents(classEdges[0], classEdges[1]);
+
         // Report cycles
-        reportCycles();
+        reportCycles(graph, packageEdges, packageSccs, classEdges, classSccs);
     }
 
     @Override
@@ -51,138 +56,186 @@ public class CycleDependencyLinter implements Linter {
         return LinterType.PRINCIPLE;
     }
 
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
     /**
-     * Build a dependency graph where each class points to classes it depends on
+     * Package dependency edges as {offset, targets}, one edge per package pair
      */
-    private Map<String, Set<String>> buildDependencyGraph() {
-        Map<String, Set<String>> graph = new HashMap<>();
-        
-        for (Map.Entry<String, ClassNode> entry : allClasses.entrySet()) {
-            String className = entry.getKey();
-            ClassNode node = entry.getValue();
-            
-            Set<String> dependencies = new HashSet<>();
-            
-            // Analyze all methods in the class
-            if (node.methods != null) {
-                for (MethodNode method : node.methods) {
-                    // Skip constructors and static initializers
-                    if (method.name.equals("<init>") || method.name.equals("<clinit>")) {
-                        continue;
-                    }
-                    
-                    // Find all method calls in this method
-                    if (method.instructions != null) {
-                        for (AbstractInsnNode insn : method.instructions) {
-                            if (insn instanceof MethodInsnNode) {
-                                MethodInsnNode methodCall = (MethodInsnNode) insn;
-                                String targetClass = methodCall.owner;
-                                
-                                // Only track dependencies to classes we're analyzing
-                                if (allClasses.containsKey(targetClass) && 
-                                    !targetClass.equals(className)) {
-                                    dependencies.add(targetClass);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            
-            // Also check field types for dependencies
-            if (node.fields != null) {
-                for (FieldNode field : node.fields) {
-                    String fieldType = extractClassFromDescriptor(field.desc);
-                    if (fieldType != null && allClasses.containsKey(fieldType) && 
-                        !fieldType.equals(className)) {
-                        dependencies.add(fieldType);
-                    }
+    private static int[][] packageGraph(DependencyGraph graph) {
+        int packages = graph.packageCount();
+        int[] offset = new int[packages + 1];
+        int[] targets = new int[16];
+        int count = 0;
+        int[] stamp = new int[packages];
+        Arrays.fill(stamp, -1);
+
+        for (int p = 0; p < packages; p++) {
+            for (int k = 0; k < graph.packageSize(p); k++) {
+                int node = graph.packageMember(p, k);
+                for (int i = 0; i < graph.outDegree(node); i++) {
+                    int q = graph.packageOf(graph.dependency(node, i));
+                    if (q == p || stamp[q] == p) continue;
+                    stamp[q] = p;
+                    if (count == targets.length) targets = Arrays.copyOf(targets, count * 2);
+                    targets[count++] = q;
                 }
             }
-            
-            graph.put(className, dependencies);
+            offset[p + 1] = count;
         }
-        
-        return graph;
+        return new int[][] { offset, Arrays.copyOf(targets, count) };
     }
 
     /**
-     * Extract class name from a type descriptor
+     * Class dependency edges as {offset, targets}, keeping only edges inside a
+     * package group (a package cycle, or a single package)
      */
-    private String extractClassFromDescriptor(String descriptor) {
-        if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
-            return descriptor.substring(1, descriptor.length() - 1);
+    private static int[][] classGraph(DependencyGraph graph, StronglyConnectedComponents packageSccs) {
+        int n = graph.size();
+        int[] offset = new int[n + 1];
+        int[] targets = new int[16];
+        int count = 0;
+
+        for (int node = 0; node < n; node++) {
+            int group = packageSccs.componentOf(graph.packageOf(node));
+            for (int i = 0; i < graph.outDegree(node); i++) {
+                int target = graph.dependency(node, i);
+                if (packageSccs.componentOf(graph.packageOf(target)) != group) continue;
+                if (count == targets.length) targets = Arrays.copyOf(targets, count * 2);
+                targets[count++] = target;
+            }
+            offset[node + 1] = count;
         }
-        return null;
+        return new int[][] { offset, Arrays.copyOf(targets, count) };
     }
 
     /**
-     * Find all strongly connected components using Tarjan's algorithm
+     * Shortest cycle through start, staying inside its component. The result
+     * lists the nodes in order; the last one leads back to start.
      */
-    private void findStronglyConnectedComponents(Map<String, Set<String>> graph) {
-        for (String className : graph.keySet()) {
-            if (!indices.containsKey(className)) {
-                tarjanDFS(className, graph);
+    private static int[] shortestCycle(int start, int[][] edges, StronglyConnectedComponents sccs) {
+        int[] offset = edges[0];
+        int[] targets = edges[1];
+        int component = sccs.componentOf(start);
+        Map<Integer, Integer> parent = new HashMap<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        parent.put(start, -1);
+
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            for (int i = offset[v]; i < offset[v + 1]; i++) {
+                int w = targets[i];
+                if (w == start) {
+                    List<Integer> path = new ArrayList<>();
+                    for (int u = v; u != -1; u = parent.get(u)) {
+                        path.add(u);
+                    }
+                    Collections.reverse(path);
+                    return path.stream().mapToInt(Integer::intValue).toArray();
+                }
+                if (sccs.componentOf(w) == component && !parent.containsKey(w)) {
+                    parent.put(w, v);
+                    queue.add(w);
+                }
             }
         }
+        return new int[] { start };
     }
 
     /**
-     * Tarjan's DFS for finding SCCs
+     * Report detected cycles
      */
-    private void tarjanDFS(String className, Map<String, Set<String>> graph) {
-        indices.put(className, index);
-        lowLinks.put(className, index);
-        index++;
-        stack.push(className);
-        onStack.put(className, true);
-
-        // Visit all neighbors
-        Set<String> neighbors = graph.get(className);
-        if (neighbors != null) {
-            for (String neighbor : neighbors) {
-                if (!indices.containsKey(neighbor)) {
-                    // Neighbor not yet visited
-                    tarjanDFS(neighbor, graph);
-                    lowLinks.put(className, Math.min(lowLinks.get(className), lowLinks.get(neighbor)));
-                } else if (onStack.getOrDefault(neighbor, false)) {
-                    // Neighbor is on stack, part of current SCC
-                    lowLinks.put(className, Math.min(lowLinks.get(className), indices.get(neighbor)));
+    private void reportCycles(DependencyGraph graph,
+            int[][] packageEdges, StronglyConnectedComponents packageSccs,
+            int[][] classEdges, StronglyConnectedComponents classSccs) {
+        List<Integer> packageCycles = cycles(packageSccs);
+        List<Integer> classCycles = cycles(classSccs);
+
+        if (packageCycles.isEmpty() && classCycles.isEmpty()) {
+            System.out.println("No cyclic dependencies detected");
+            return;
+        }
+
+        if (!packageCycles.isEmpty()) {
+            System.err.println("Cyclic package dependencies detected:");
+            for (int i = 0; i < packageCycles.size(); i++) {
+                int component = packageCycles.get(i);
+                List<String> names = new ArrayList<>();
+                for (int k = 0; k < packageSccs.size(component); k++) {
+                    names.add(graph.packageName(packageSccs.member(component, k)));
                 }
+                System.err.println("  Package cycle " + (i + 1) + ": " + String.join(" <-> ", names));
+
+                int[] path = shortestCycle(packageSccs.member(component, 0), packageEdges, packageSccs);
+                List<String> hops = new ArrayList<>();
+                for (int k = 0; k < path.length; k++) {
+                    int from = path[k];
+                    int to = path[(k + 1) % path.length];
+                    hops.add(graph.packageName(from) + " -> " + graph.packageName(to)
+                            + " (" + packageHop(graph, from, to) + ")");
+                }
+                System.err.println("    via " + String.join(", ", hops));
             }
         }
 
-        // If className is a root node, pop the stack to get SCC
-        if (lowLinks.get(className).equals(indices.get(className))) {
-            List<String> scc = new ArrayList<>();
-            String node;
-            do {
-                node = stack.pop();
-                onStack.put(node, false);
-                scc.add(node);
-            } while (!node.equals(className));
-            
-            // Only add SCCs with more than one class (cycles)
-            if (scc.size() > 1) {
-                sccs.add(scc);
+        if (!classCycles.isEmpty()) {
+            System.err.println("Cyclic dependencies detected:");
+            for (int i = 0; i < classCycles.size(); i++) {
+                int component = classCycles.get(i);
+                List<String> cycle = new ArrayList<>();
+                for (int k = 0; k < classSccs.size(component); k++) {
+                    cycle.add(graph.name(classSccs.member(component, k)));
+                }
+                System.err.println("  Cycle " + (i + 1) + ": " +
+                    formatCycle(cycle));
+
+                int[] path = shortestCycle(classSccs.member(component, 0), classEdges, classSccs);
+                List<String> hops = new ArrayList<>();
+                for (int k = 0; k < path.length; k++) {
+                    hops.add(classHop(graph, path[k], path[(k + 1) % path.length]));
+                }
+                System.err.println("    via " + String.join(", ", hops));
             }
         }
     }
 
+    private static List<Integer> cycles(StronglyConnectedComponents sccs) {
+        // Only components with more than one member are cycles
+        List<Integer> cycles = new ArrayList<>();
+        for (int c = 0; c < sccs.count(); c++) {
+            if (sccs.size(c) > 1) {
+                cycles.add(c);
+            }
+        }
+        return cycles;
+    }
+
     /**
-     * Report detected cycles
+     * First class edge from package from into package to, as a class hop
      */
-    private void reportCycles() {
-        if (sccs.isEmpty()) {
-            System.out.println("No cyclic dependencies detected");
-        } else {
-            System.err.println("Cyclic dependencies detected:");
-            for (int i = 0; i < sccs.size(); i++) {
-                List<String> cycle = sccs.get(i);
-                System.err.println("  Cycle " + (i + 1) + ": " + 
-                    formatCycle(cycle));
+    private String packageHop(DependencyGraph graph, int from, int to) {
+        for (int k = 0; k < graph.packageSize(from); k++) {
+            int node = graph.packageMember(from, k);
+            for (int i = 0; i < graph.outDegree(node); i++) {
+                int target = graph.dependency(node, i);
+                if (graph.packageOf(target) == to) {
+                    return classHop(graph, node, target);
+                }
             }
         }
+        return "?";
+    }
+
+    /**
+     * "Source.member -> Target" for a class dependency edge
+     */
+    private String classHop(DependencyGraph graph, int from, int to) {
+        String member = graph.member(from, to);
+        return simplifyClassName(graph.name(from)) + (member == null ? "" : "." + member)
+                + " -> " + simplifyClassName(graph.name(to));
     }
 
     /**
@@ -210,4 +263,4 @@ public class CycleDependencyLinter implements Linter {
         }
         return simplified;
     }
-}
\ No newline at end of file
+}
@@ -23,19 +23,42 @@ public class DeadCodeLinter implements Linter {
     }
 
     private void checkMethodForDeadCode(MethodNode method) {
-        InsnList instructions = method.instructions;
+        ControlFlowGraph cfg = ControlFlowGraph.of(method);
 
-        for (int i = 0; i < instructions.size() - 1; i++) {
-            AbstractInsnNode current = instructions.get(i);
-            AbstractInsnNode next = instructions.get(i + 1);
+        // Report each run of unreachable blocks once, at its first real instruction
+        boolean inDeadRun = false;
+        for (int block = 0; block < cfg.blockCount(); block++) {
+            int first = cfg.firstRealInsn(block);
+            if (first < 0) {
+                continue;
+            }
+            if (cfg.isReachable(block)) {
+                inDeadRun = false;
+                continue;
+            }
+            if (inDeadRun) {
+                continue;
+            }
+            inDeadRun = true;
+
+            int line = LineNumberIndex.of(method).lineAt(first);
+            String lineInfo = line > 0 ? " (line " + line + ")" : "";
+            System.err.println(classNode.name + "." + method.name + method.desc
+                    + lineInfo + ": " + describe(cfg, block));
+        }
+    }
 
-            if (isTerminalInstruction(current) && !isValidAfterTerminal(next)) {
-                int line = findLineNumber(method, current);
-                String lineInfo = line > 0 ? " (line " + line + ")" : "";
-                System.err.println(classNode.name + "." + method.name + method.desc
-                        + lineInfo + ": unreachable code after " + getOpcodeName(current.getOpcode()));
+    private String describe(ControlFlowGraph cfg, int block) {
+        for (int previous = block - 1; previous >= 0; previous--) {
+            int last = cfg.lastRealInsn(previous);
+            if (last >= 0) {
+                AbstractInsnNode insn = cfg.instruction(last);
+                return isTerminalInstruction(insn)
+                        ? "unreachable code after " + getOpcodeName(insn.getOpcode())
+                        : "unreachable code";
             }
         }
+        return "unreachable code";
     }
 
     private boolean isTerminalInstruction(AbstractInsnNode insn) {
@@ -50,23 +73,6 @@ public class DeadCodeLinter implements Linter {
                 || opcode == Opcodes.GOTO;
     }
 
-    private boolean isValidAfterTerminal(AbstractInsnNode insn) {
-        return insn instanceof LabelNode
-                || insn instanceof FrameNode
-                || insn instanceof LineNumberNode;
-    }
-
-    private int findLineNumber(MethodNode method, AbstractInsnNode target) {
-        AbstractInsnNode current = target;
-        while (current != null) {
-            if (current instanceof LineNumberNode) {
-                return ((LineNumberNode) current).line;
-            }
-            current = current.getPrevious();
-        }
-        return -1;
-    }
-
     private String getOpcodeName(int opcode) {
         switch (opcode) {
             case Opcodes.RETURN:
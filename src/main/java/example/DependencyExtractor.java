@@ -0,0 +1,247 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.Arrays;
+
+/**
+ * Every class a class file refers to, read from its constant pool through
+ * ClassReader's item table without visiting members or code:
+ * - CONSTANT_Class entries: supertypes, NEW, CHECKCAST, INSTANCEOF, class
+ *   literals, catch types, owners of member references, array types
+ * - Utf8 entries shaped like descriptors or generic signatures: field and
+ *   method types, type arguments, annotation types
+ *
+ * Utf8 entries used as string literals are not parsed. The class's own
+ * enclosing class and its own nested classes, as named by NestHost,
+ * NestMembers, EnclosingMethod and the InnerClasses entries for this class
+ * or its members, record nesting rather than use, so they are left out
+ * unless also referenced through a member reference or as a supertype.
+ * InnerClasses entries of other nested types are kept: the JVMS lists every
+ * nested class in the constant pool there, so such a type may be used only
+ * through a cast, a class literal or a catch type.
+ */
+public final class DependencyExtractor {
+
+    private static final int CLASS = 7;
+    private static final int FIELDREF = 9;
+    private static final int METHODREF = 10;
+    private static final int INTERFACE_METHODREF = 11;
+    private static final int STRING = 8;
+    private static final int UTF8 = 1;
+
+    private DependencyExtractor() {
+    }
+
+    /**
+     * Symbol ids of the referenced classes, sorted and without duplicates.
+     * The class itself is not included.
+     */
+    public static int[] read(ClassReader reader, SymbolTable symbols) {
+        int items = reader.getItemCount();
+        char[] buffer = new char[reader.getMaxStringLength()];
+
+        // 1) Utf8 entries that are string literals, and class entries that only express nesting
+        boolean[] literal = new boolean[items];
+        boolean[] nesting = new boolean[items];
+        boolean[] used = new boolean[items];
+        for (int i = 1; i < items; i++) {
+            // The unused slot after a long or double has no item
+            int offset = reader.getItem(i);
+            if (offset == 0) continue;
+            int tag = reader.readByte(offset - 1);
+            if (tag == STRING) {
+                literal[reader.readUnsignedShort(offset)] = true;
+            } else if (tag == FIELDREF || tag == METHODREF || tag == INTERFACE_METHODREF) {
+                used[reader.readUnsignedShort(offset)] = true;
+            }
+        }
+        markNesting(reader, nesting, buffer);
+        // Superclass and interfaces are dependencies even when they are nested types
+        used[itemIndexAt(reader, reader.header + 4)] = true;
+        for (int k = 0, n = reader.readUnsignedShort(reader.header + 6); k < n; k++) {
+            used[itemIndexAt(reader, reader.header + 8 + k * 2)] = true;
+        }
+
+        // 2) Names from class entries and descriptor-shaped Utf8 entries
+        Collector out = new Collector(symbols, reader.getClassName());
+        for (int i = 1; i < items; i++) {
+            int offset = reader.getItem(i);
+            if (offset == 0) continue;
+            int tag = reader.readByte(offset - 1);
+            if (tag == CLASS) {
+                if (nesting[i] && !used[i]) continue;
+                String name = reader.readUTF8(offset, buffer);
+                if (name.startsWith("[")) {
+                    out.signature(name);
+                } else {
+                    out.add(name);
+                }
+            } else if (tag == UTF8 && !literal[i]) {
+                String value = readUtf8Entry(reader, offset);
+                if (looksLikeSignature(value)) {
+                    out.signature(value);
+                }
+            }
+        }
+        return out.toSortedSet();
+    }
+
+    // Constant pool index stored as a u2 at offset
+    private static int itemIndexAt(ClassReader reader, int offset) {
+        return reader.readUnsignedShort(offset);
+    }
+
+    /**
+     * Marks the class entries that name the class's own enclosing or nested
+     * classes in its nesting attributes. Walks past fields and methods by
+     * their attribute lengths only.
+     */
+    private static void markNesting(ClassReader reader, boolean[] nesting, char[] buffer) {
+        int self = itemIndexAt(reader, reader.header + 2);
+        int offset = reader.header + 6;
+        offset += 2 + 2 * reader.readUnsignedShort(offset);
+        for (int members = 0; members < 2; members++) {
+            int count = reader.readUnsignedShort(offset);
+            offset += 2;
+            for (int m = 0; m < count; m++) {
+                offset = skipAttributes(reader, offset + 6);
+            }
+        }
+
+        int attributes = reader.readUnsignedShort(offset);
+        offset += 2;
+        for (int a = 0; a < attributes; a++) {
+            String name = reader.readUTF8(offset, buffer);
+            int length = reader.readInt(offset + 2);
+            int data = offset + 6;
+            switch (name) {
+                case "InnerClasses":
+                    for (int k = 0, n = reader.readUnsignedShort(data); k < n; k++) {
+                        int entry = data + 2 + k * 8;
+                        int inner = itemIndexAt(reader, entry);
+                        int outer = itemIndexAt(reader, entry + 2);
+                        // Entries of other nested types only accompany a use of them
+                        if (inner == self || outer == self) {
+                            nesting[inner] = true;
+                            nesting[outer] = true;
+                        }
+                    }
+                    break;
+                case "NestMembers":
+                    for (int k = 0, n = reader.readUnsignedShort(data); k < n; k++) {
+                        nesting[itemIndexAt(reader, data + 2 + k * 2)] = true;
+                    }
+                    break;
+                case "NestHost":
+                case "EnclosingMethod":
+                    nesting[itemIndexAt(reader, data)] = true;
+                    break;
+                default:
+                    break;
+            }
+            offset = data + length;
+        }
+        // Index 0 stands for "none" in these attributes
+        nesting[0] = false;
+    }
+
+    private static int skipAttributes(ClassReader reader, int offset) {
+        int count = reader.readUnsignedShort(offset);
+        offset += 2;
+        for (int a = 0; a < count; a++) {
+            offset += 6 + reader.readInt(offset + 2);
+        }
+        return offset;
+    }
+
+    private static boolean looksLikeSignature(String value) {
+        if (value.length() < 3) return false;
+        char first = value.charAt(0);
+        if (first == '(' || first == '<') return true;
+        return (first == 'L' || first == '[') && value.charAt(value.length() - 1) == ';';
+    }
+
+    /**
+     * Decodes the modified UTF-8 of a Utf8 constant starting at offset.
+     */
+    private static String readUtf8Entry(ClassReader reader, int offset) {
+        int length = reader.readUnsignedShort(offset);
+        int pos = offset + 2;
+        int end = pos + length;
+        StringBuilder out = new StringBuilder(length);
+        while (pos < end) {
+            int b = reader.readByte(pos++);
+            if ((b & 0x80) == 0) {
+                out.append((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                out.append((char) (((b & 0x1F) << 6) | (reader.readByte(pos++) & 0x3F)));
+            } else {
+                int c = ((b & 0x0F) << 12) | ((reader.readByte(pos++) & 0x3F) << 6);
+                out.append((char) (c | (reader.readByte(pos++) & 0x3F)));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Interns class names, including those inside descriptors and signatures.
+     */
+    private static final class Collector extends SignatureVisitor {
+        private final SymbolTable symbols;
+        private final String self;
+        private int[] ids = new int[16];
+        private int size;
+        private String outer;
+
+        Collector(SymbolTable symbols, String self) {
+            super(Opcodes.ASM9);
+            this.symbols = symbols;
+            this.self = self;
+        }
+
+        void add(String internalName) {
+            if (internalName.equals(self)) return;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = symbols.intern(internalName);
+        }
+
+        void signature(String value) {
+            try {
+                if (value.charAt(0) == '(' || value.charAt(0) == '<') {
+                    new SignatureReader(value).accept(this);
+                } else {
+                    new SignatureReader(value).acceptType(this);
+                }
+            } catch (RuntimeException e) {
+                // Not a descriptor after all, e.g. a constant that merely looks like one
+            }
+        }
+
+        @Override
+        public void visitClassType(String name) {
+            outer = name;
+            add(name);
+        }
+
+        @Override
+        public void visitInnerClassType(String name) {
+            outer = outer + "$" + name;
+            add(outer);
+        }
+
+        int[] toSortedSet() {
+            Arrays.sort(ids, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || ids[i] != ids[unique - 1]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, unique);
+        }
+    }
+}
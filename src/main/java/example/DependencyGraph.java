@@ -0,0 +1,233 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class-level dependency graph over the classes of a ClassSummaryIndex.
+ * Nodes are index positions; a class depends on every other indexed class
+ * its constant pool refers to (see DependencyExtractor), so calls, field
+ * types, signatures, casts, class literals and annotations all count.
+ *
+ * Edges are kept in compressed adjacency arrays, deduplicated and sorted,
+ * with the reverse (dependents) arrays built from them. Classes are also
+ * numbered by package, with each package's classes kept together. Obtain the
+ * graph with of(index) so every package linter of a run shares one instance.
+ */
+public final class DependencyGraph {
+
+    private final ClassSummaryIndex index;
+    private final int size;
+    private final int[] outOffset;
+    private final int[] out;
+    private final int[] inOffset;
+    private final int[] in;
+    private final List<String> packageNames = new ArrayList<>();
+    private final int[] packageOf;
+    private final int[] packageStart;
+    private final int[] packageMembers;
+    private StronglyConnectedComponents components;
+
+    public static DependencyGraph of(ClassSummaryIndex index) {
+        return index.shared(DependencyGraph.class, DependencyGraph::new);
+    }
+
+    private DependencyGraph(ClassSummaryIndex index) {
+        this.index = index;
+        this.size = index.size();
+
+        // 1) Outgoing edges per class, deduplicated with a per-source stamp
+        outOffset = new int[size + 1];
+        int[] edges = new int[Math.max(16, size * 4)];
+        int count = 0;
+        int[] stamp = new int[size];
+        Arrays.fill(stamp, -1);
+        int[] scratch = new int[16];
+
+        for (int node = 0; node < size; node++) {
+            ClassSummary summary = index.summaries().get(node);
+            int found = 0;
+
+            for (int i = 0; i < summary.dependencyCount(); i++) {
+                int target = index.positionOf(summary.dependencyAt(i));
+                if (target < 0 || target == node || stamp[target] == node) continue;
+                stamp[target] = node;
+                if (found == scratch.length) scratch = Arrays.copyOf(scratch, found * 2);
+                scratch[found++] = target;
+            }
+
+            Arrays.sort(scratch, 0, found);
+            if (count + found > edges.length) {
+                edges = Arrays.copyOf(edges, Math.max(edges.length * 2, count + found));
+            }
+            System.arraycopy(scratch, 0, edges, count, found);
+            count += found;
+            outOffset[node + 1] = count;
+        }
+        out = Arrays.copyOf(edges, count);
+
+        // 2) Reverse edges by counting sort on the target
+        inOffset = new int[size + 1];
+        for (int target : out) {
+            inOffset[target + 1]++;
+        }
+        for (int node = 0; node < size; node++) {
+            inOffset[node + 1] += inOffset[node];
+        }
+        in = new int[count];
+        int[] fill = Arrays.copyOf(inOffset, size);
+        for (int node = 0; node < size; node++) {
+            for (int i = outOffset[node]; i < outOffset[node + 1]; i++) {
+                in[fill[out[i]]++] = node;
+            }
+        }
+
+        // 3) Packages, and their classes grouped by counting sort
+        Map<String, Integer> packageIds = new HashMap<>();
+        packageOf = new int[size];
+        for (int node = 0; node < size; node++) {
+            String pkg = packageName(name(node));
+            Integer id = packageIds.get(pkg);
+            if (id == null) {
+                id = packageNames.size();
+                packageIds.put(pkg, id);
+                packageNames.add(pkg);
+            }
+            packageOf[node] = id;
+        }
+        packageStart = new int[packageNames.size() + 1];
+        for (int node = 0; node < size; node++) {
+            packageStart[packageOf[node] + 1]++;
+        }
+        for (int p = 0; p < packageNames.size(); p++) {
+            packageStart[p + 1] += packageStart[p];
+        }
+        packageMembers = new int[size];
+        fill = Arrays.copyOf(packageStart, packageNames.size());
+        for (int node = 0; node < size; node++) {
+            packageMembers[fill[packageOf[node]]++] = node;
+        }
+    }
+
+    private static String packageName(String internalName) {
+        int slash = internalName.lastIndexOf('/');
+        return slash < 0 ? "(default)" : internalName.substring(0, slash).replace('/', '.');
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int node) {
+        return index.symbol(summary(node).name());
+    }
+
+    public ClassSummary summary(int node) {
+        return index.summaries().get(node);
+    }
+
+    public int outDegree(int node) {
+        return outOffset[node + 1] - outOffset[node];
+    }
+
+    public int dependency(int node, int i) {
+        return out[outOffset[node] + i];
+    }
+
+    public int inDegree(int node) {
+        return inOffset[node + 1] - inOffset[node];
+    }
+
+    public int dependent(int node, int i) {
+        return in[inOffset[node] + i];
+    }
+
+    public int packageCount() {
+        return packageNames.size();
+    }
+
+    /**
+     * Dotted package name, or "(default)" for the unnamed package.
+     */
+    public String packageName(int pkg) {
+        return packageNames.get(pkg);
+    }
+
+    public int packageOf(int node) {
+        return packageOf[node];
+    }
+
+    public int packageSize(int pkg) {
+        return packageStart[pkg + 1] - packageStart[pkg];
+    }
+
+    public int packageMember(int pkg, int i) {
+        return packageMembers[packageStart[pkg] + i];
+    }
+
+    /**
+     * A member of from that makes it depend on to: a field name, or a method
+     * name followed by "()". Null when the reference is not tied to a field
+     * or method signature, call or field access, e.g. a cast or annotation.
+     */
+    public String member(int from, int to) {
+        ClassSummary summary = summary(from);
+        int target = summary(to).name();
+        String mention = "L" + index.symbol(target) + ";";
+        for (int i = 0; i < summary.fieldCount(); i++) {
+            if (index.symbol(summary.fieldDesc(i)).contains(mention)) {
+                return index.symbol(summary.fieldName(i));
+            }
+        }
+        for (int i = 0; i < summary.callCount(); i++) {
+            if (summary.callOwner(i) == target || index.symbol(summary.callDesc(i)).contains(mention)) {
+                return methodLabel(summary, summary.callMethod(i));
+            }
+        }
+        for (int i = 0; i < summary.fieldRefCount(); i++) {
+            if (summary.fieldRefOwner(i) == target) {
+                return methodLabel(summary, summary.fieldRefMethod(i));
+            }
+        }
+        for (int m = 0; m < summary.methodCount(); m++) {
+            if (index.symbol(summary.methodDesc(m)).contains(mention)) {
+                return methodLabel(summary, m);
+            }
+        }
+        return null;
+    }
+
+    private String methodLabel(ClassSummary summary, int method) {
+        return index.symbol(summary.methodName(method)) + "()";
+    }
+
+    /**
+     * Strongly connected components of the whole class graph, computed once.
+     */
+    public synchronized StronglyConnectedComponents components() {
+        if (components == null) {
+            components = new StronglyConnectedComponents(outOffset, out);
+        }
+        return components;
+    }
+
+    /**
+     * The graph keyed by internal class name.
+     */
+    public Map<String, Set<String>> asMap() {
+        Map<String, Set<String>> graph = new HashMap<>();
+        for (int node = 0; node < size; node++) {
+            Set<String> dependencies = new HashSet<>();
+            for (int i = outOffset[node]; i < outOffset[node + 1]; i++) {
+                dependencies.add(name(out[i]));
+            }
+            graph.put(name(node), dependencies);
+        }
+        return graph;
+    }
+}
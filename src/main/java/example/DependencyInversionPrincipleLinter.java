@@ -13,15 +13,22 @@ import org.objectweb.asm.tree.MethodNode;
 public class DependencyInversionPrincipleLinter implements Linter {
 
     private final ClassNode classNode;
-    private final Map<String, ClassNode> classMap;
+    private final ClassSummaryIndex index;
+    private final SupertypeResolver types;
 
     public DependencyInversionPrincipleLinter(ClassNode classNode, Map<String, ClassNode> classMap) {
+        this(classNode, ClassSummaryIndex.fromNodes(classMap));
+    }
+
+    public DependencyInversionPrincipleLinter(ClassNode classNode, ClassSummaryIndex index) {
         this.classNode = classNode;
-        this.classMap = classMap != null ? classMap : new HashMap<>();
+        this.index = index != null ? index : new ClassSummaryIndex();
+        // Types outside the index, e.g. library classes, are looked up on the classpath
+        this.types = this.index.shared(SupertypeResolver.class, SupertypeResolver::new);
     }
 
     public DependencyInversionPrincipleLinter(ClassNode classNode) {
-        this(classNode, new HashMap<>());
+        this(classNode, new ClassSummaryIndex());
     }
 
     @Override
@@ -35,6 +42,10 @@ public class DependencyInversionPrincipleLinter implements Linter {
                 || (classNode.access & Opcodes.ACC_ABSTRACT) != 0) {
             return;
         }
+        // Every type checked below is in the constant pool, so most classes stop here
+        if (!refersToConcreteType(index.summaryOf(classNode))) {
+            return;
+        }
 
         List<String> warnings = new ArrayList<>();
         checkFieldTypes(classNode, warnings);
@@ -53,8 +64,8 @@ public class DependencyInversionPrincipleLinter implements Linter {
             if (typeName == null || isExcluded(cn, typeName))
                 continue;
 
-            ClassNode typeNode = classMap.get(typeName);
-            if (typeNode != null && isConcrete(typeNode)) {
+            ClassSummary typeNode = types.get(typeName);
+            if (typeNode != null && !typeNode.isAbstract()) {
                 warnings.add("[DIP] Field '" + f.name + "' in " + cn.name
                         + " depends on concrete type: " + typeName);
             }
@@ -74,8 +85,8 @@ public class DependencyInversionPrincipleLinter implements Linter {
                 if (isExcluded(cn, typeName))
                     continue;
 
-                ClassNode typeNode = classMap.get(typeName);
-                if (typeNode != null && isConcrete(typeNode)) {
+                ClassSummary typeNode = types.get(typeName);
+                if (typeNode != null && !typeNode.isAbstract()) {
                     warnings.add("[DIP] Method '" + m.name + "' in " + cn.name
                             + " has concrete parameter type: " + typeName);
                 }
@@ -97,8 +108,8 @@ public class DependencyInversionPrincipleLinter implements Linter {
                 if (isExcluded(cn, call.owner))
                     continue;
 
-                ClassNode targetNode = classMap.get(call.owner);
-                if (targetNode != null && isConcrete(targetNode)) {
+                ClassSummary targetNode = types.get(call.owner);
+                if (targetNode != null && !targetNode.isAbstract()) {
                     warnings.add("[DIP] " + cn.name
                             + " directly instantiates concrete type: " + call.owner);
                 }
@@ -106,6 +117,19 @@ public class DependencyInversionPrincipleLinter implements Linter {
         }
     }
 
+    private boolean refersToConcreteType(ClassSummary summary) {
+        for (int i = 0; i < summary.dependencyCount(); i++) {
+            String typeName = index.symbol(summary.dependencyAt(i));
+            if (isExcluded(classNode, typeName))
+                continue;
+
+            ClassSummary typeNode = types.get(typeName);
+            if (typeNode != null && !typeNode.isAbstract())
+                return true;
+        }
+        return false;
+    }
+
     private String objectTypeFromDesc(String desc) {
         if (desc.startsWith("L") && desc.endsWith(";")) {
             return desc.substring(1, desc.length() - 1);
@@ -113,11 +137,6 @@ public class DependencyInversionPrincipleLinter implements Linter {
         return null;
     }
 
-    private boolean isConcrete(ClassNode cn) {
-        return (cn.access & Opcodes.ACC_INTERFACE) == 0
-                && (cn.access & Opcodes.ACC_ABSTRACT) == 0;
-    }
-
     private boolean isExcluded(ClassNode cn, String internalName) {
         return internalName.startsWith("java/")
                 || internalName.startsWith("javax/")
@@ -0,0 +1,353 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.*;
+
+/**
+ * Finds methods with the same or nearly the same bytecode across all
+ * indexed classes.
+ *
+ * Each method becomes a sequence of normalized instructions: the opcode plus
+ * an abstracted operand. Locals, jump targets, constants, owners and member
+ * names are dropped. Descriptors of calls and field accesses are kept, and
+ * constants keep their kind. Overlapping runs of DuplicateCode.shingle
+ * instructions are hashed with a rolling hash, and each method's set of
+ * shingles is condensed into a MinHash signature.
+ *
+ * Locality-sensitive hashing splits the signature into bands. Only methods
+ * that share a band bucket are compared, so the cost grows with the number of
+ * methods, not with its square. Methods whose signatures agree on at least
+ * DuplicateCode.similarity percent of their hashes are merged into clone
+ * groups.
+ *
+ * Settings: minInstructions (default 20), shingle (5), bands (16), rows (4)
+ * and similarity (80).
+ */
+public class DuplicateCodeLinter implements Linter {
+
+    private static final String NAME = "DuplicateCode";
+    private static final long HASH_BASE = 0x100000001B3L;
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
+
+    public DuplicateCodeLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public DuplicateCodeLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    public DuplicateCodeLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
+        this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.CHECKSTYLE;
+    }
+
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
+    @Override
+    public void lintClass() {
+        int minInstructions = settings.getInt(NAME, "minInstructions", 20);
+        int shingle = Math.max(1, settings.getInt(NAME, "shingle", 5));
+        int bands = Math.max(1, settings.getInt(NAME, "bands", 16));
+        int rows = Math.max(1, settings.getInt(NAME, "rows", 4));
+        int similarity = settings.getInt(NAME, "similarity", 80);
+
+        // 1) One MinHash signature per method, streaming every class
+        Fingerprinter fingerprints = new Fingerprinter(Math.max(minInstructions, shingle), shingle, bands * rows);
+        for (String className : index.classNames()) {
+            index.accept(className, fingerprints, ClassReader.SKIP_FRAMES);
+        }
+        List<MethodPrint> methods = fingerprints.methods;
+
+        // 2) Candidates from shared band buckets, merged when their signatures agree; each
+        //    method is compared with every earlier bucket member not already in its group
+        int[] parent = new int[methods.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        for (int band = 0; band < bands; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int m = 0; m < methods.size(); m++) {
+                List<Integer> members = buckets.computeIfAbsent(
+                        bandKey(methods.get(m).signature, band, rows), key -> new ArrayList<>());
+                for (int other : members) {
+                    if (find(parent, other) != find(parent, m)
+                            && agreement(methods.get(other), methods.get(m)) >= similarity) {
+                        parent[find(parent, m)] = find(parent, other);
+                    }
+                }
+                members.add(m);
+            }
+        }
+
+        // 3) Report clone groups, largest methods first
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int m = 0; m < methods.size(); m++) {
+            groups.computeIfAbsent(find(parent, m), root -> new ArrayList<>()).add(m);
+        }
+        List<List<MethodPrint>> clones = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            if (group.size() < 2) continue;
+            List<MethodPrint> members = new ArrayList<>();
+            for (int m : group) members.add(methods.get(m));
+            members.sort(Comparator.comparing(MethodPrint::label));
+            clones.add(members);
+        }
+        clones.sort(Comparator.<List<MethodPrint>>comparingInt(g -> -g.get(0).instructions)
+                .thenComparing(g -> g.get(0).label()));
+
+        if (clones.isEmpty()) {
+            System.out.println("No duplicate code detected (" + methods.size() + " methods compared)");
+            return;
+        }
+        System.err.println("Duplicate code detected:");
+        for (int i = 0; i < clones.size(); i++) {
+            List<MethodPrint> group = clones.get(i);
+            int lowest = 100;
+            for (MethodPrint m : group) {
+                lowest = Math.min(lowest, agreement(group.get(0), m));
+            }
+            System.err.println("  Clone group " + (i + 1) + " (" + group.size() + " methods, "
+                    + group.get(0).instructions + " instructions, ~" + lowest + "% similar):");
+            for (MethodPrint m : group) {
+                System.err.println("    " + m.label() + (m.line > 0 ? " (line " + m.line + ")" : ""));
+            }
+        }
+    }
+
+    private static int find(int[] parent, int m) {
+        while (parent[m] != m) {
+            parent[m] = parent[parent[m]];
+            m = parent[m];
+        }
+        return m;
+    }
+
+    private static long bandKey(int[] signature, int band, int rows) {
+        long key = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = key * HASH_BASE + signature[r];
+        }
+        return key;
+    }
+
+    /**
+     * Percentage of equal MinHash values, an estimate of the Jaccard
+     * similarity of the two shingle sets.
+     */
+    private static int agreement(MethodPrint a, MethodPrint b) {
+        int equal = 0;
+        for (int i = 0; i < a.signature.length; i++) {
+            if (a.signature[i] == b.signature[i]) equal++;
+        }
+        return equal * 100 / a.signature.length;
+    }
+
+    private static final class MethodPrint {
+        final String owner;
+        final String name;
+        final String desc;
+        final int line;
+        final int instructions;
+        final int[] signature;
+
+        MethodPrint(String owner, String name, String desc, int line, int instructions, int[] signature) {
+            this.owner = owner;
+            this.name = name;
+            this.desc = desc;
+            this.line = line;
+            this.instructions = instructions;
+            this.signature = signature;
+        }
+
+        String label() {
+            return owner.replace('/', '.') + "." + name + desc;
+        }
+    }
+
+    /**
+     * Turns every method of the visited classes into a MethodPrint.
+     */
+    private static final class Fingerprinter extends ClassVisitor {
+        private final int minInstructions;
+        private final int shingle;
+        private final long[] seeds;
+        private final List<MethodPrint> methods = new ArrayList<>();
+        private String owner;
+
+        Fingerprinter(int minInstructions, int shingle, int hashes) {
+            super(Opcodes.ASM9);
+            this.minInstructions = minInstructions;
+            this.shingle = shingle;
+            this.seeds = new long[hashes];
+            long seed = 0x5DEECE66DL;
+            for (int i = 0; i < hashes; i++) {
+                seed = mix(seed + i);
+                seeds[i] = seed;
+            }
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature,
+                String superName, String[] interfaces) {
+            owner = name;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor,
+                String signature, String[] exceptions) {
+            if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE | Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) != 0) {
+                return null;
+            }
+            return new Normalizer(name, descriptor);
+        }
+
+        private int[] signature(int[] tokens, int count) {
+            int[] minimum = new int[seeds.length];
+            Arrays.fill(minimum, Integer.MAX_VALUE);
+
+            // Rolling polynomial hash over each run of shingle tokens
+            long drop = 1;
+            for (int i = 1; i < shingle; i++) drop *= HASH_BASE;
+            long hash = 0;
+            for (int i = 0; i < count; i++) {
+                if (i >= shingle) hash -= tokens[i - shingle] * drop;
+                hash = hash * HASH_BASE + tokens[i];
+                if (i < shingle - 1) continue;
+
+                for (int h = 0; h < seeds.length; h++) {
+                    int value = (int) (mix(hash ^ seeds[h]) >>> 32);
+                    if (value < minimum[h]) minimum[h] = value;
+                }
+            }
+            return minimum;
+        }
+
+        // splitmix64 finalizer
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        /**
+         * Records one token per instruction; labels, frames and line
+         * numbers are not instructions.
+         */
+        private final class Normalizer extends MethodVisitor {
+            private final String name;
+            private final String desc;
+            private int[] tokens = new int[64];
+            private int count;
+            private int line;
+
+            Normalizer(String name, String desc) {
+                super(Opcodes.ASM9);
+                this.name = name;
+                this.desc = desc;
+            }
+
+            private void add(int opcode, int operand) {
+                if (count == tokens.length) tokens = Arrays.copyOf(tokens, count * 2);
+                tokens[count++] = opcode * 0x9E3779B1 + operand;
+            }
+
+            @Override
+            public void visitInsn(int opcode) {
+                add(opcode, 0);
+            }
+
+            @Override
+            public void visitIntInsn(int opcode, int operand) {
+                // NEWARRAY keeps its element type, pushed constants are dropped
+                add(opcode, opcode == Opcodes.NEWARRAY ? operand : 0);
+            }
+
+            @Override
+            public void visitVarInsn(int opcode, int var) {
+                add(opcode, 0);
+            }
+
+            @Override
+            public void visitTypeInsn(int opcode, String type) {
+                add(opcode, 0);
+            }
+
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                add(opcode, descriptor.hashCode());
+            }
+
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name, String descriptor,
+                    boolean isInterface) {
+                add(opcode, descriptor.hashCode());
+            }
+
+            @Override
+            public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                    Object... bootstrapMethodArguments) {
+                add(Opcodes.INVOKEDYNAMIC, descriptor.hashCode());
+            }
+
+            @Override
+            public void visitJumpInsn(int opcode, Label label) {
+                add(opcode, 0);
+            }
+
+            @Override
+            public void visitLdcInsn(Object value) {
+                add(Opcodes.LDC, value.getClass().getName().hashCode());
+            }
+
+            @Override
+            public void visitIincInsn(int var, int increment) {
+                add(Opcodes.IINC, 0);
+            }
+
+            @Override
+            public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+                add(Opcodes.TABLESWITCH, 0);
+            }
+
+            @Override
+            public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+                add(Opcodes.LOOKUPSWITCH, 0);
+            }
+
+            @Override
+            public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+                add(Opcodes.MULTIANEWARRAY, numDimensions);
+            }
+
+            @Override
+            public void visitLineNumber(int line, Label start) {
+                if (this.line == 0 || line < this.line) this.line = line;
+            }
+
+            @Override
+            public void visitEnd() {
+                if (count >= minInstructions) {
+                    methods.add(new MethodPrint(owner, name, desc, line, count, signature(tokens, count)));
+                }
+            }
+        }
+    }
+}
@@ -73,7 +73,7 @@ public class FeatureEnvyLinter implements Linter {
             double envyRatio = (double) foreignCount / totalAccesses;
 
             if (envyRatio >= ENVY_THRESHOLD) {
-                int line = findLineNumber(method);
+                int line = LineNumberIndex.of(method).firstLine();
                 String lineInfo = line > 0 ? " (line " + line + ")" : "";
                 String readableForeignClass = foreignClass.replace('/', '.');
 
@@ -97,17 +97,4 @@ public class FeatureEnvyLinter implements Linter {
 
         return !methodInsn.owner.startsWith("java/io/");
     }
-
-    private int findLineNumber(MethodNode method) {
-        if (method.instructions == null) {
-            return -1;
-        }
-
-        for (AbstractInsnNode insn : method.instructions) {
-            if (insn instanceof LineNumberNode) {
-                return ((LineNumberNode) insn).line;
-            }
-        }
-        return -1;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.*;
+
+/**
+ * Reports mutable global state: static fields of the indexed classes that are
+ * reassigned outside their class initializer, static containers whose
+ * contents are changed (collections, maps, arrays, builders, atomics), and
+ * non-final statics that any other class may assign.
+ *
+ * One pass over the class summaries indexes every PUTSTATIC and GETSTATIC
+ * site by field, resolved through ReferenceIndex so that Sub.FIELD finds a
+ * field declared by an indexed superclass. Only methods that read a static
+ * container and are not its class initializer are then loaded, and their
+ * mutating calls and array stores are matched to the container through
+ * SourceFrames, also through casts and locals with a single store.
+ */
+public class GlobalStateLinter implements Linter {
+
+    private static final NameMatcher MUTATORS = NameMatcher.builder()
+            .exact("add", "addAll", "put", "putAll", "putIfAbsent", "remove", "removeAll", "removeIf",
+                    "retainAll", "clear", "set", "replace", "replaceAll", "compute", "computeIfAbsent",
+                    "computeIfPresent", "merge", "push", "pop", "offer", "poll", "addFirst", "addLast",
+                    "removeFirst", "removeLast", "sort", "append", "insert", "delete", "setLength",
+                    "lazySet", "compareAndSet", "getAndSet", "incrementAndGet", "decrementAndGet",
+                    "getAndIncrement", "getAndDecrement", "addAndGet", "getAndAdd", "updateAndGet",
+                    "getAndUpdate", "accumulateAndGet", "getAndAccumulate")
+            .build();
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+
+    public GlobalStateLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this.classNode = classNode;
+        this.index = index;
+    }
+
+    public GlobalStateLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.PRINCIPLE;
+    }
+
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
+    @Override
+    public void lintClass() {
+        // 1) Static fields of the indexed classes, by ReferenceIndex member id
+        ReferenceIndex references = ReferenceIndex.of(index);
+        Map<Integer, StaticField> fields = new LinkedHashMap<>();
+        List<ClassSummary> summaries = index.summaries();
+        for (int c = 0; c < summaries.size(); c++) {
+            ClassSummary summary = summaries.get(c);
+            for (int i = 0; i < summary.fieldCount(); i++) {
+                if ((summary.fieldAccess(i) & Opcodes.ACC_STATIC) == 0) continue;
+                StaticField field = new StaticField(index.symbol(summary.name()), index.symbol(summary.fieldName(i)),
+                        index.symbol(summary.fieldDesc(i)), summary.fieldAccess(i));
+                fields.put(references.firstField(c) + i, field);
+            }
+        }
+        if (fields.isEmpty()) {
+            System.out.println("No static fields found");
+            return;
+        }
+
+        // 2) Static field sites: assignments outside <clinit>, and methods reading a container
+        Map<String, Set<String>> candidates = new TreeMap<>();
+        for (ClassSummary summary : summaries) {
+            String className = index.symbol(summary.name());
+            for (int i = 0; i < summary.fieldRefCount(); i++) {
+                int opcode = summary.fieldRefOpcode(i);
+                if (opcode != Opcodes.PUTSTATIC && opcode != Opcodes.GETSTATIC) continue;
+                StaticField field = fields.get(references.resolve(summary.fieldRefOwner(i),
+                        summary.fieldRefName(i), summary.fieldRefDesc(i)));
+                if (field == null) continue;
+
+                int method = summary.fieldRefMethod(i);
+                String methodName = index.symbol(summary.methodName(method));
+                if (methodName.equals("<clinit>") && className.equals(field.owner)) continue;
+
+                String where = className.replace('/', '.') + "." + methodName + index.symbol(summary.methodDesc(method));
+                if (opcode == Opcodes.PUTSTATIC) {
+                    field.writers.add(where);
+                } else if (field.isContainer()) {
+                    candidates.computeIfAbsent(className, c -> new TreeSet<>())
+                            .add(methodName + index.symbol(summary.methodDesc(method)));
+                }
+            }
+        }
+
+        // 3) Container mutations, checked only in the candidate methods
+        for (Map.Entry<String, Set<String>> entry : candidates.entrySet()) {
+            ClassNode node = index.loadNode(entry.getKey());
+            if (node == null) continue;
+            for (MethodNode method : node.methods) {
+                if (entry.getValue().contains(method.name + method.desc)) {
+                    findMutations(node.name, method, fields, references);
+                }
+            }
+        }
+
+        List<String> findings = new ArrayList<>();
+        for (StaticField field : fields.values()) {
+            String label = field.owner.replace('/', '.') + "." + field.name + " (" + field.desc + ")";
+            if (!field.writers.isEmpty()) {
+                findings.add("[GlobalState] " + label + " is reassigned by " + String.join(", ", field.writers));
+            }
+            if (!field.mutators.isEmpty()) {
+                findings.add("[GlobalState] " + label + " is mutated by " + String.join(", ", field.mutators));
+            }
+            if (field.writers.isEmpty() && (field.access & (Opcodes.ACC_FINAL | Opcodes.ACC_PRIVATE)) == 0) {
+                findings.add("[GlobalState] " + label + " is non-final and can be assigned by any class");
+            }
+        }
+
+        if (findings.isEmpty()) {
+            System.out.println("No mutable global state detected");
+        } else {
+            findings.forEach(System.err::println);
+        }
+    }
+
+    private void findMutations(String owner, MethodNode method, Map<Integer, StaticField> fields,
+            ReferenceIndex references) {
+        SourceFrames frames = SourceFrames.of(owner, method);
+        if (frames == null) return;
+        String where = owner.replace('/', '.') + "." + method.name + method.desc;
+
+        for (AbstractInsnNode insn : method.instructions) {
+            SourceValue target = null;
+            if (insn instanceof MethodInsnNode && MUTATORS.matches(((MethodInsnNode) insn).name)) {
+                target = frames.receiver((MethodInsnNode) insn);
+            } else if (insn.getOpcode() >= Opcodes.IASTORE && insn.getOpcode() <= Opcodes.SASTORE) {
+                // ..., arrayref, index, value
+                target = frames.stackValue(insn, 2);
+            }
+
+            AbstractInsnNode source = staticSource(frames, SourceFrames.singleSource(target));
+            if (source != null) {
+                FieldInsnNode get = (FieldInsnNode) source;
+                StaticField field = fields.get(references.resolve(index.symbols().lookup(get.owner),
+                        index.symbols().lookup(get.name), index.symbols().lookup(get.desc)));
+                if (field != null && field.isContainer()) {
+                    field.mutators.add(where);
+                }
+            }
+        }
+    }
+
+    /**
+     * The GETSTATIC a value comes from, looking through casts and locals
+     * that have a single store reaching the load, or null.
+     */
+    private static AbstractInsnNode staticSource(SourceFrames frames, AbstractInsnNode source) {
+        for (int hops = 0; source != null && hops < 8; hops++) {
+            if (source.getOpcode() == Opcodes.GETSTATIC) {
+                return source;
+            } else if (source.getOpcode() == Opcodes.CHECKCAST) {
+                source = SourceFrames.singleSource(frames.stackValue(source, 0));
+            } else if (source.getOpcode() == Opcodes.ALOAD) {
+                Frame<SourceValue> frame = frames.frameAt(source);
+                if (frame == null) return null;
+                AbstractInsnNode store = SourceFrames.singleSource(frame.getLocal(((VarInsnNode) source).var));
+                if (store == null || store.getOpcode() != Opcodes.ASTORE) return null;
+                source = SourceFrames.singleSource(frames.stackValue(store, 0));
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static final class StaticField {
+        final String owner;
+        final String name;
+        final String desc;
+        final int access;
+        final Set<String> writers = new TreeSet<>();
+        final Set<String> mutators = new TreeSet<>();
+
+        StaticField(String owner, String name, String desc, int access) {
+            this.owner = owner;
+            this.name = name;
+            this.desc = desc;
+            this.access = access;
+        }
+
+        boolean isContainer() {
+            return desc.startsWith("[")
+                    || desc.startsWith("Ljava/util/")
+                    || desc.equals("Ljava/lang/StringBuilder;")
+                    || desc.equals("Ljava/lang/StringBuffer;");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SymbolTable backed by an ordinary HashMap and list of Strings.
+ */
+public final class HeapSymbolTable implements SymbolTable {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+
+    @Override
+    public synchronized int intern(String symbol) {
+        if (symbol == null) return NONE;
+        Integer id = ids.get(symbol);
+        if (id != null) return id;
+
+        int next = symbols.size();
+        symbols.add(symbol);
+        ids.put(symbol, next);
+        return next;
+    }
+
+    @Override
+    public synchronized int lookup(String symbol) {
+        if (symbol == null) return NONE;
+        Integer id = ids.get(symbol);
+        return id == null ? NONE : id;
+    }
+
+    @Override
+    public synchronized String symbol(int id) {
+        if (id < 0 || id >= symbols.size()) return null;
+        return symbols.get(id);
+    }
+
+    @Override
+    public synchronized int size() {
+        return symbols.size();
+    }
+}
@@ -14,6 +14,10 @@ public class HollywoodPrincipleLinter implements Linter {
     private static final int GETTER_THRESHOLD = 8;
     private static final int CONDITION_THRESHOLD = 6;
 
+    private static final NameMatcher DATA_PULL_NAMES = NameMatcher.builder()
+            .prefix("get", "is", "has")
+            .build();
+
     public HollywoodPrincipleLinter(ClassNode classNode) {
         this.classNode = classNode;
     }
@@ -40,7 +44,7 @@ public class HollywoodPrincipleLinter implements Linter {
             int highBuckets = (highNew ? 1 : 0) + (highGetters ? 1 : 0) + (highConditions ? 1 : 0);
 
             if (highBuckets >= 2) {
-                int line = findFirstLineNumber(m);
+                int line = LineNumberIndex.of(m).firstLine();
                 String lineInfo = line > 0 ? " (line " + line + ")" : "";
 
                 findings.add(classNode.name + "." + m.name + m.desc + lineInfo
@@ -78,8 +82,7 @@ public class HollywoodPrincipleLinter implements Linter {
             if (insn instanceof MethodInsnNode) {
                 MethodInsnNode min = (MethodInsnNode) insn;
                 if (min.owner != null && !min.owner.startsWith("java/")) {
-                    String n = min.name;
-                    if (n.startsWith("get") || n.startsWith("is") || n.startsWith("has")) {
+                    if (DATA_PULL_NAMES.matches(min.name)) {
                         scores.getterCount++;
                     }
                 }
@@ -97,16 +100,6 @@ public class HollywoodPrincipleLinter implements Linter {
         return scores;
     }
 
-    private int findFirstLineNumber(MethodNode method) {
-        if (method.instructions == null) return -1;
-        for (AbstractInsnNode insn : method.instructions) {
-            if (insn instanceof LineNumberNode) {
-                return ((LineNumberNode) insn).line;
-            }
-        }
-        return -1;
-    }
-
     private static class MethodScores {
         int newCount = 0;
         int getterCount = 0;
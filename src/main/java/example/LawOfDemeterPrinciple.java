@@ -1,37 +1,16 @@
 package example;
 
-import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
-import java.util.HashSet;
-import java.util.Set;
-
 public class LawOfDemeterPrinciple implements Linter {
     private final ClassNode classNode;
     
-    // Common exceptions - builders, streams, strings
-    private static final Set<String> EXCLUDED_PATTERNS = new HashSet<>();
-    
-    static {
-        
-        EXCLUDED_PATTERNS.add("Builder");
-        EXCLUDED_PATTERNS.add("builder");
-        
-        
-        EXCLUDED_PATTERNS.add("java/util/stream/");
-        EXCLUDED_PATTERNS.add("stream");
-        EXCLUDED_PATTERNS.add("filter");
-        EXCLUDED_PATTERNS.add("map");
-        EXCLUDED_PATTERNS.add("collect");
-        EXCLUDED_PATTERNS.add("forEach");
-        
-        
-        EXCLUDED_PATTERNS.add("java/lang/String");
-        EXCLUDED_PATTERNS.add("java/lang/StringBuilder");
-        EXCLUDED_PATTERNS.add("java/lang/StringBuffer");
-        
-       
-    }
+    // Common exceptions - builders, streams, strings (matched anywhere in owner or name)
+    private static final NameMatcher EXCLUDED_PATTERNS = NameMatcher.builder()
+            .contains("Builder", "builder")
+            .contains("java/util/stream/", "stream", "filter", "map", "collect", "forEach")
+            .contains("java/lang/String", "java/lang/StringBuilder", "java/lang/StringBuffer")
+            .build();
 
     public LawOfDemeterPrinciple(ClassNode classNode) {
         this.classNode = classNode;
@@ -54,88 +33,54 @@ public class LawOfDemeterPrinciple implements Linter {
             return;
         }
 
-        Set<Integer> allowedLocalVars = new HashSet<>();
-        
-        if ((method.access & Opcodes.ACC_STATIC) == 0) {
-            allowedLocalVars.add(0);
-        }
-        
-        int paramCount = getParameterCount(method.desc, (method.access & Opcodes.ACC_STATIC) != 0);
-        for (int i = 0; i <= paramCount; i++) {
-            allowedLocalVars.add(i);
+        SourceFrames frames = SourceFrames.of(classNode.name, method);
+        if (frames == null) {
+            return;
         }
 
-        int chainDepth = 0;
-        AbstractInsnNode previousInsn = null;
-
         InsnList instructions = method.instructions;
+        int[] depths = new int[instructions.size()];
         for (int i = 0; i < instructions.size(); i++) {
             AbstractInsnNode insn = instructions.get(i);
-
-            
-            if (insn instanceof VarInsnNode) {
-                VarInsnNode varInsn = (VarInsnNode) insn;
-                if (isStoreInstruction(varInsn.getOpcode())) {
-                    allowedLocalVars.add(varInsn.var);
-                    chainDepth = 0;
-                }
+            if (!(insn instanceof MethodInsnNode)) continue;
+
+            MethodInsnNode methodInsn = (MethodInsnNode) insn;
+            if (isExcluded(methodInsn)) continue;
+
+            int chainDepth = chainDepth(frames, instructions, methodInsn, depths);
+            if (chainDepth > 1) {
+                int line = LineNumberIndex.of(method).lineAt(i);
+                String lineInfo = line > 0 ? " (line " + line + ")" : "";
+                System.err.println(classNode.name + "." + method.name + method.desc
+                        + lineInfo + ": Law of Demeter violation - chain depth "
+                        + chainDepth + " calling " + methodInsn.owner + "." + methodInsn.name);
             }
+        }
+    }
 
-           
-            if (insn instanceof MethodInsnNode) {
-                MethodInsnNode methodInsn = (MethodInsnNode) insn;
-                
-               
-                if (isExcluded(methodInsn)) {
-                    continue;
-                }
-
-                
-                if (previousInsn instanceof MethodInsnNode) {
-                    chainDepth++;
-                    
-                    if (chainDepth > 1) {
-                        int line = findLineNumber(method, insn);
-                        String lineInfo = line > 0 ? " (line " + line + ")" : "";
-                        System.err.println(classNode.name + "." + method.name + method.desc 
-                                + lineInfo + ": Law of Demeter violation - chain depth " 
-                                + chainDepth + " calling " + methodInsn.owner + "." + methodInsn.name);
-                    }
-                } else {
-                    // New chain starting
-                    chainDepth = 1;
-                }
-                
-               
-                if (previousInsn instanceof FieldInsnNode) {
-                    FieldInsnNode fieldInsn = (FieldInsnNode) previousInsn;
-                    if (fieldInsn.getOpcode() == Opcodes.GETFIELD) {
-                       
-                    }
-                }
+    /**
+     * Number of calls in the chain ending at call: one more than the call that
+     * produced its receiver, or 1 when the receiver came from anything else
+     * (a local, a field, a new object) or from an excluded call.
+     */
+    private int chainDepth(SourceFrames frames, InsnList instructions, MethodInsnNode call, int[] depths) {
+        int index = instructions.indexOf(call);
+        if (depths[index] > 0) {
+            return depths[index];
+        }
+        depths[index] = 1;
 
-                previousInsn = insn;
-            } else if (insn.getOpcode() >= 0) {
-              
-                if (!isStackManipulation(insn.getOpcode())) {
-                    previousInsn = insn;
-                    if (isValueProducer(insn)) {
-                        chainDepth = 0;
-                    }
-                }
-            }
+        AbstractInsnNode source = SourceFrames.singleSource(frames.receiver(call));
+        if (source instanceof MethodInsnNode && !isExcluded((MethodInsnNode) source)) {
+            depths[index] = chainDepth(frames, instructions, (MethodInsnNode) source, depths) + 1;
         }
+        return depths[index];
     }
 
     private boolean isExcluded(MethodInsnNode methodInsn) {
-        // Check owner class
-        for (String pattern : EXCLUDED_PATTERNS) {
-            if (methodInsn.owner.contains(pattern)) {
-                return true;
-            }
-            if (methodInsn.name.contains(pattern)) {
-                return true;
-            }
+        // Check owner class and method name
+        if (EXCLUDED_PATTERNS.matches(methodInsn.owner) || EXCLUDED_PATTERNS.matches(methodInsn.name)) {
+            return true;
         }
         
         if (methodInsn.name.startsWith("set") && 
@@ -145,73 +90,4 @@ public class LawOfDemeterPrinciple implements Linter {
         
         return false;
     }
-
-    private boolean isStoreInstruction(int opcode) {
-        return opcode == Opcodes.ASTORE
-                || opcode == Opcodes.ISTORE
-                || opcode == Opcodes.LSTORE
-                || opcode == Opcodes.FSTORE
-                || opcode == Opcodes.DSTORE;
-    }
-
-    private boolean isStackManipulation(int opcode) {
-        return opcode == Opcodes.DUP
-                || opcode == Opcodes.DUP2
-                || opcode == Opcodes.DUP_X1
-                || opcode == Opcodes.DUP_X2
-                || opcode == Opcodes.DUP2_X1
-                || opcode == Opcodes.DUP2_X2
-                || opcode == Opcodes.SWAP
-                || opcode == Opcodes.POP
-                || opcode == Opcodes.POP2;
-    }
-
-    private boolean isValueProducer(AbstractInsnNode insn) {
-        int opcode = insn.getOpcode();
-       
-        return opcode == Opcodes.ALOAD
-                || opcode == Opcodes.ILOAD
-                || opcode == Opcodes.LLOAD
-                || opcode == Opcodes.FLOAD
-                || opcode == Opcodes.DLOAD
-                || opcode == Opcodes.GETSTATIC
-                || opcode == Opcodes.GETFIELD
-                || opcode == Opcodes.NEW
-                || opcode == Opcodes.LDC
-                || (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.DCONST_1);
-    }
-
-    private int getParameterCount(String desc, boolean isStatic) {
-        int count = isStatic ? 0 : 1;
-        int i = 1;
-        while (desc.charAt(i) != ')') {
-            char c = desc.charAt(i);
-            if (c == 'L') {
-                
-                while (desc.charAt(i) != ';') i++;
-                count++;
-            } else if (c == '[') {
-               
-            } else if (c == 'D' || c == 'J') {
-                
-                count += 2;
-            } else {
-                
-                count++;
-            }
-            i++;
-        }
-        return count;
-    }
-
-    private int findLineNumber(MethodNode method, AbstractInsnNode target) {
-        AbstractInsnNode current = target;
-        while (current != null) {
-            if (current instanceof LineNumberNode) {
-                return ((LineNumberNode) current).line;
-            }
-            current = current.getPrevious();
-        }
-        return -1;
-    }
 }
\ No newline at end of file
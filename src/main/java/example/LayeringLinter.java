@@ -0,0 +1,272 @@
+package example;
+
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Checks architecture layering rules against the class dependency graph,
+ * including dependencies that only exist through other classes.
+ *
+ * Rules are a comma-separated Layering.rules setting of the form
+ * "&lt;packages&gt; must not depend on &lt;packages&gt;". Package patterns use ".."
+ * for any number of package levels and "*" for part of one level, and "|"
+ * separates alternatives: "..ui" is every package ending in ui, "..ui.."
+ * every package with a ui level, "com.acme.*dao|..jdbc" two patterns.
+ *
+ * All rules are answered together: each strongly connected component of the
+ * graph gets one bit per rule, set when the component can reach a class the
+ * rule forbids. Components are finished in reverse topological order, so
+ * one pass ORs every component's bits into those of its dependents.
+ */
+public class LayeringLinter implements Linter {
+
+    private static final String NAME = "Layering";
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
+
+    public LayeringLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public LayeringLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    public LayeringLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
+        this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.PRINCIPLE;
+    }
+
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
+    @Override
+    public void lintClass() {
+        List<Rule> rules = new ArrayList<>();
+        for (String text : settings.getList(NAME, "rules", null)) {
+            Rule rule = Rule.parse(text);
+            if (rule == null) {
+                System.err.println("Invalid layering rule (expected '<packages> must not depend on <packages>'): " + text);
+            } else {
+                rules.add(rule);
+            }
+        }
+        if (rules.isEmpty()) {
+            System.out.println("No layering rules configured (" + NAME + ".rules)");
+            return;
+        }
+
+        DependencyGraph graph = DependencyGraph.of(index);
+        int n = graph.size();
+        int words = (rules.size() + 63) / 64;
+
+        // 1) Per package: which rules it is a source of, and which it is forbidden by
+        int packages = graph.packageCount();
+        long[] sourceOf = new long[packages * words];
+        long[] forbiddenBy = new long[packages * words];
+        for (int p = 0; p < packages; p++) {
+            String name = graph.packageName(p);
+            for (int r = 0; r < rules.size(); r++) {
+                Rule rule = rules.get(r);
+                if (rule.forbidden.matcher(name).matches()) {
+                    forbiddenBy[p * words + (r >>> 6)] |= 1L << r;
+                } else if (rule.source.matcher(name).matches()) {
+                    sourceOf[p * words + (r >>> 6)] |= 1L << r;
+                }
+            }
+        }
+
+        // 2) Reach bits per component, successors first
+        StronglyConnectedComponents sccs = graph.components();
+        long[] reach = new long[sccs.count() * words];
+        for (int c = 0; c < sccs.count(); c++) {
+            for (int k = 0; k < sccs.size(c); k++) {
+                int node = sccs.member(c, k);
+                or(reach, c * words, forbiddenBy, graph.packageOf(node) * words, words);
+                for (int i = 0; i < graph.outDegree(node); i++) {
+                    int target = sccs.componentOf(graph.dependency(node, i));
+                    if (target != c) {
+                        or(reach, c * words, reach, target * words, words);
+                    }
+                }
+            }
+        }
+
+        // 3) Violations: a source class whose dependency is forbidden or reaches a forbidden class.
+        // Paths that continue through the source layer are reported where they leave it.
+        List<String> warnings = new ArrayList<>();
+        Map<Integer, int[]> towardTarget = new HashMap<>();
+        for (int node = 0; node < n; node++) {
+            int pkg = graph.packageOf(node);
+            for (int r = 0; r < rules.size(); r++) {
+                if (!test(sourceOf, pkg * words, r)) continue;
+
+                for (int i = 0; i < graph.outDegree(node); i++) {
+                    int dependency = graph.dependency(node, i);
+                    int depPackage = graph.packageOf(dependency);
+                    if (test(forbiddenBy, depPackage * words, r)) {
+                        warnings.add("[Layering] " + hop(graph, node, dependency)
+                                + " violates '" + rules.get(r) + "'");
+                    } else if (!test(sourceOf, depPackage * words, r)
+                            && test(reach, sccs.componentOf(dependency) * words, r)) {
+                        int[] next = towardTarget.computeIfAbsent(r,
+                                rule -> nearestForbidden(graph, forbiddenBy, words, rule));
+                        warnings.add("[Layering] " + path(graph, node, dependency, next)
+                                + " violates '" + rules.get(r) + "'");
+                    }
+                }
+            }
+        }
+
+        if (warnings.isEmpty()) {
+            System.out.println("No layering violations");
+        } else {
+            warnings.forEach(System.out::println);
+        }
+    }
+
+    private static void or(long[] into, int at, long[] from, int fromAt, int words) {
+        for (int w = 0; w < words; w++) {
+            into[at + w] |= from[fromAt + w];
+        }
+    }
+
+    private static boolean test(long[] bits, int at, int rule) {
+        return (bits[at + (rule >>> 6)] & (1L << rule)) != 0;
+    }
+
+    /**
+     * For every class, the next class on a shortest path to a class the rule
+     * forbids, or -1: a breadth-first search backwards from all of them.
+     */
+    private static int[] nearestForbidden(DependencyGraph graph, long[] forbiddenBy, int words, int rule) {
+        int n = graph.size();
+        int[] next = new int[n];
+        boolean[] seen = new boolean[n];
+        Arrays.fill(next, -1);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < n; node++) {
+            if (test(forbiddenBy, graph.packageOf(node) * words, rule)) {
+                seen[node] = true;
+                queue[tail++] = node;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int i = 0; i < graph.inDegree(node); i++) {
+                int dependent = graph.dependent(node, i);
+                if (!seen[dependent]) {
+                    seen[dependent] = true;
+                    next[dependent] = node;
+                    queue[tail++] = dependent;
+                }
+            }
+        }
+        return next;
+    }
+
+    private static String path(DependencyGraph graph, int source, int first, int[] next) {
+        StringBuilder out = new StringBuilder(hop(graph, source, first));
+        for (int node = first; next[node] >= 0; node = next[node]) {
+            String member = graph.member(node, next[node]);
+            out.append(member == null ? "" : " (" + member + ")")
+                    .append(" -> ").append(graph.name(next[node]).replace('/', '.'));
+        }
+        return out.toString();
+    }
+
+    private static String hop(DependencyGraph graph, int from, int to) {
+        String member = graph.member(from, to);
+        return graph.name(from).replace('/', '.') + (member == null ? "" : "." + member)
+                + " -> " + graph.name(to).replace('/', '.');
+    }
+
+    /**
+     * "&lt;packages&gt; must not depend on &lt;packages&gt;"
+     */
+    static final class Rule {
+        private static final String MUST_NOT = " must not depend on ";
+
+        final String text;
+        final Pattern source;
+        final Pattern forbidden;
+
+        private Rule(String text, Pattern source, Pattern forbidden) {
+            this.text = text;
+            this.source = source;
+            this.forbidden = forbidden;
+        }
+
+        static Rule parse(String text) {
+            String normalized = text.trim().replaceAll("\\s+", " ");
+            int split = normalized.toLowerCase(Locale.ROOT).indexOf(MUST_NOT);
+            if (split <= 0 || split + MUST_NOT.length() >= normalized.length()) {
+                return null;
+            }
+            return new Rule(normalized,
+                    packagePattern(normalized.substring(0, split)),
+                    packagePattern(normalized.substring(split + MUST_NOT.length())));
+        }
+
+        /**
+         * Regex for a package pattern: ".." spans any number of levels
+         * (including none), "*" part of a single level.
+         */
+        static Pattern packagePattern(String patterns) {
+            StringBuilder regex = new StringBuilder();
+            for (String pattern : patterns.split("\\|")) {
+                if (regex.length() > 0) regex.append('|');
+                String p = pattern.trim();
+                if (p.equals("..")) {
+                    regex.append(".*");
+                    continue;
+                }
+                regex.append("(?:");
+                int i = 0;
+                if (p.startsWith("..")) {
+                    regex.append("(?:.*\\.)?");
+                    i = 2;
+                }
+                boolean trailing = p.endsWith("..") && p.length() > 2;
+                int end = trailing ? p.length() - 2 : p.length();
+                for (; i < end; i++) {
+                    char c = p.charAt(i);
+                    if (c == '.' && i + 1 < end && p.charAt(i + 1) == '.') {
+                        regex.append("\\.(?:.*\\.)?");
+                        i++;
+                    } else if (c == '.') {
+                        regex.append("\\.");
+                    } else if (c == '*') {
+                        regex.append("[^.]*");
+                    } else {
+                        regex.append(Pattern.quote(String.valueOf(c)));
+                    }
+                }
+                if (trailing) {
+                    regex.append("(?:\\..*)?");
+                }
+                regex.append(')');
+            }
+            return Pattern.compile(regex.toString());
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package example;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Maps every instruction of a method to the source line it belongs to.
+ * The table is built on the first lookup and cached while the MethodNode is
+ * reachable. Linters of one run load classes through the run's
+ * ClassNodeCache, so every linter reporting lines of a method reuses it.
+ */
+public final class LineNumberIndex {
+
+    private static final Map<MethodNode, LineNumberIndex> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final InsnList instructions;
+    private int[] lines;
+
+    private LineNumberIndex(MethodNode method) {
+        this.instructions = method.instructions;
+    }
+
+    public static LineNumberIndex of(MethodNode method) {
+        LineNumberIndex cached = CACHE.get(method);
+        if (cached == null) {
+            LineNumberIndex created = new LineNumberIndex(method);
+            cached = CACHE.putIfAbsent(method, created);
+            if (cached == null) cached = created;
+        }
+        return cached;
+    }
+
+    /**
+     * Line of the closest LineNumberNode at or before the instruction, or -1.
+     */
+    public int lineAt(AbstractInsnNode insn) {
+        if (insn == null || instructions == null) return -1;
+        return lineAt(instructions.indexOf(insn));
+    }
+
+    public int lineAt(int index) {
+        int[] table = table();
+        if (index < 0 || index >= table.length) return -1;
+        return table[index];
+    }
+
+    /**
+     * First line number recorded for the method, or -1 without debug info.
+     */
+    public int firstLine() {
+        for (int line : table()) {
+            if (line > 0) return line;
+        }
+        return -1;
+    }
+
+    private int[] table() {
+        int[] table = lines;
+        if (table == null) {
+            table = build();
+            lines = table;
+        }
+        return table;
+    }
+
+    private int[] build() {
+        if (instructions == null) return new int[0];
+
+        int[] table = new int[instructions.size()];
+        Arrays.fill(table, -1);
+
+        int current = -1;
+        int i = 0;
+        for (AbstractInsnNode insn = instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof LineNumberNode) {
+                current = ((LineNumberNode) insn).line;
+            }
+            table[i++] = current;
+        }
+        return table;
+    }
+}
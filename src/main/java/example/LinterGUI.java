@@ -30,7 +30,9 @@ public class LinterGUI extends JFrame {
     };
 
     private static final String[] PACKAGE_LINTERS = {
-            "CyclicDependency"
+            "CyclicDependency", "PackageMetrics", "Layering", "DuplicateCode", "MethodMetrics",
+            "GlobalState", "NamingConvention", "SpellCheck", "RedundantInterface",
+            "NonConstructible"
     };
 
     // GUI Components
@@ -8,7 +8,7 @@ import java.util.function.BiFunction;
 
 public class LinterRegistry {
     private static final Map<String, Function<ClassNode, Linter>> linters = new HashMap<>();
-    private static final Map<String, BiFunction<ClassNode, Map<String, ClassNode>, Linter>> packageLinters = new HashMap<>();
+    private static final Map<String, BiFunction<ClassNode, ClassSummaryIndex, Linter>> packageLinters = new HashMap<>();
 
     static {
         register("EqualsHashCode", EqualsHashCodeLinter::new);
@@ -24,9 +24,22 @@ public class LinterRegistry {
         register("AdapterPattern", PatternAdapterLinter::new);
         register("TemporalCoupling", TemporalCouplingLinter::new);
         register("SingleResponsibilityPrinciple", SingleResponsibilityPrincipleLinter::new);
+        register("MethodMetrics", MethodMetricsLinter::new);
+        register("NamingConvention", NamingConventionLinter::new);
+        register("SpellCheck", SpellCheckLinter::new);
 
         // Register package-wide linters only
         registerPackageLinter("CyclicDependency", CycleDependencyLinter::new);
+        registerPackageLinter("PackageMetrics", PackageMetricsLinter::new);
+        registerPackageLinter("Layering", LayeringLinter::new);
+        registerPackageLinter("DuplicateCode", DuplicateCodeLinter::new);
+        registerPackageLinter("MethodMetrics", MethodMetricsLinter::new);
+        registerPackageLinter("GlobalState", GlobalStateLinter::new);
+        registerPackageLinter("UnusedVariables", UnusedVariablesLinter::new);
+        registerPackageLinter("NamingConvention", NamingConventionLinter::new);
+        registerPackageLinter("SpellCheck", SpellCheckLinter::new);
+        registerPackageLinter("RedundantInterface", RedundantInterfaceLinter::new);
+        registerPackageLinter("NonConstructible", NonConstructibleLinter::new);
         registerPackageLinter("DependencyInversionPrinciple", DependencyInversionPrincipleLinter::new);
         registerPackageLinter("MissingImplementation", MissingImplementationLinter::new);
     }
@@ -36,7 +49,7 @@ public class LinterRegistry {
     }
 
     public static void registerPackageLinter(String name,
-            BiFunction<ClassNode, Map<String, ClassNode>, Linter> constructor) {
+            BiFunction<ClassNode, ClassSummaryIndex, Linter> constructor) {
         packageLinters.put(name, constructor);
     }
 
@@ -48,11 +61,15 @@ public class LinterRegistry {
         return constructor.apply(classNode);
     }
 
-    public static Linter createPackageLinter(String name, ClassNode classNode, Map<String, ClassNode> allClasses) {
-        BiFunction<ClassNode, Map<String, ClassNode>, Linter> constructor = packageLinters.get(name);
+    public static Linter createPackageLinter(String name, ClassNode classNode, ClassSummaryIndex allClasses) {
+        BiFunction<ClassNode, ClassSummaryIndex, Linter> constructor = packageLinters.get(name);
         if (constructor == null) {
             throw new IllegalArgumentException("Linter '" + name + "' does not support package-wide analysis");
         }
         return constructor.apply(classNode, allClasses);
     }
+
+    public static Linter createPackageLinter(String name, ClassNode classNode, Map<String, ClassNode> allClasses) {
+        return createPackageLinter(name, classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package example;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Per-linter options written in LinterConfig as "Linter.key = value" lines,
+ * next to the usual "Linter: targets" lines. ASMMain skips these lines, and
+ * linters read them through global().
+ */
+public final class LinterSettings {
+
+    public static final String CONFIG_PATH = "src/main/java/example/LinterConfig";
+
+    private static final Pattern SETTING = Pattern.compile("^\\s*(\\w+)\\.([\\w.]+)\\s*=(.*)$");
+
+    private static LinterSettings global;
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public LinterSettings() {
+    }
+
+    /**
+     * Settings from LinterConfig, read once per run. A missing file yields
+     * empty settings so every linter falls back to its defaults.
+     */
+    public static synchronized LinterSettings global() {
+        if (global == null) {
+            global = new LinterSettings();
+            try (BufferedReader reader = new BufferedReader(new FileReader(CONFIG_PATH))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    global.parseLine(line);
+                }
+            } catch (IOException e) {
+                // No config file, so defaults apply
+            }
+        }
+        return global;
+    }
+
+    public static boolean isSettingLine(String line) {
+        return SETTING.matcher(line).matches();
+    }
+
+    /**
+     * Records the line if it is a setting; returns whether it was.
+     */
+    public boolean parseLine(String line) {
+        Matcher m = SETTING.matcher(line);
+        if (!m.matches()) {
+            return false;
+        }
+        set(m.group(1), m.group(2), m.group(3).trim());
+        return true;
+    }
+
+    public void set(String linter, String key, String value) {
+        values.put(linter + "." + key, value);
+    }
+
+    public String get(String linter, String key, String defaultValue) {
+        return values.getOrDefault(linter + "." + key, defaultValue);
+    }
+
+    public int getInt(String linter, String key, int defaultValue) {
+        String value = values.get(linter + "." + key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + linter + "." + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Comma-separated value as a list of trimmed, non-empty entries.
+     */
+    public List<String> getList(String linter, String key, String defaultValue) {
+        String value = get(linter, key, defaultValue);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> out = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.trim().isEmpty()) {
+                out.add(part.trim());
+            }
+        }
+        return out;
+    }
+}
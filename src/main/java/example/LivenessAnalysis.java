@@ -0,0 +1,220 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import java.util.Arrays;
+
+/**
+ * Backward liveness of local variable slots over a method's
+ * ControlFlowGraph. Every per-block set is a run of long words in one flat
+ * array, so a fixpoint costs roughly instructions x (maxLocals / 64) words.
+ *
+ * Whatever is live at the entry of an exception handler counts as live
+ * throughout each block the handler covers, since the jump can happen at any
+ * instruction in it. Unreachable blocks are left out of the analysis.
+ */
+public final class LivenessAnalysis {
+
+    private final ControlFlowGraph cfg;
+    private final int words;
+    private final long[] use;
+    private final long[] def;
+    private final long[] liveIn;
+    private final long[] liveOut;
+    private final long[] handlerLive;
+
+    public LivenessAnalysis(MethodNode method) {
+        this.cfg = ControlFlowGraph.of(method);
+        int blocks = cfg.blockCount();
+        this.words = Math.max(1, (method.maxLocals + 63) >>> 6);
+        this.use = new long[blocks * words];
+        this.def = new long[blocks * words];
+        this.liveIn = new long[blocks * words];
+        this.liveOut = new long[blocks * words];
+        this.handlerLive = new long[blocks * words];
+
+        for (int block = 0; block < blocks; block++) {
+            summarize(block);
+        }
+        solve();
+    }
+
+    // Upward-exposed uses and definitions of one block, scanning forwards
+    private void summarize(int block) {
+        int base = block * words;
+        for (int i = cfg.start(block); i < cfg.end(block); i++) {
+            AbstractInsnNode insn = cfg.instruction(i);
+            int slot = slotOf(insn);
+            if (slot < 0 || slot >= words * 64) continue;
+
+            int word = base + (slot >>> 6);
+            long bit = 1L << slot;
+            if (reads(insn) && (def[word] & bit) == 0) {
+                use[word] |= bit;
+            }
+            if (writes(insn)) {
+                def[word] |= bit;
+            }
+        }
+    }
+
+    private void solve() {
+        int blocks = cfg.blockCount();
+
+        // Predecessors over both normal and handler edges, in compressed form
+        int[] predCount = new int[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < cfg.successorCount(b); i++) predCount[cfg.successor(b, i) + 1]++;
+            for (int i = 0; i < cfg.handlerCount(b); i++) predCount[cfg.handler(b, i) + 1]++;
+        }
+        for (int b = 0; b < blocks; b++) {
+            predCount[b + 1] += predCount[b];
+        }
+        int[] preds = new int[predCount[blocks]];
+        int[] fill = Arrays.copyOf(predCount, blocks);
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < cfg.successorCount(b); i++) preds[fill[cfg.successor(b, i)]++] = b;
+            for (int i = 0; i < cfg.handlerCount(b); i++) preds[fill[cfg.handler(b, i)]++] = b;
+        }
+
+        // Worklist seeded in reverse block order, which suits a backward problem
+        int[] queue = new int[blocks];
+        long[] queued = new long[(blocks + 63) >>> 6];
+        int head = 0;
+        int size = 0;
+        for (int b = blocks - 1; b >= 0; b--) {
+            if (cfg.isReachable(b)) {
+                queue[size++] = b;
+                queued[b >>> 6] |= 1L << b;
+            }
+        }
+
+        while (size > 0) {
+            int block = queue[head];
+            head = (head + 1) % blocks;
+            size--;
+            queued[block >>> 6] &= ~(1L << block);
+
+            if (!transfer(block)) continue;
+
+            for (int i = predCount[block]; i < predCount[block + 1]; i++) {
+                int pred = preds[i];
+                long bit = 1L << pred;
+                if (cfg.isReachable(pred) && (queued[pred >>> 6] & bit) == 0) {
+                    queued[pred >>> 6] |= bit;
+                    queue[(head + size) % blocks] = pred;
+                    size++;
+                }
+            }
+        }
+    }
+
+    // Recomputes the block's sets; returns true when live-in grew
+    private boolean transfer(int block) {
+        int base = block * words;
+        Arrays.fill(liveOut, base, base + words, 0L);
+        Arrays.fill(handlerLive, base, base + words, 0L);
+        for (int i = 0; i < cfg.successorCount(block); i++) {
+            or(liveOut, base, liveIn, cfg.successor(block, i) * words);
+        }
+        for (int i = 0; i < cfg.handlerCount(block); i++) {
+            or(handlerLive, base, liveIn, cfg.handler(block, i) * words);
+        }
+
+        boolean changed = false;
+        for (int w = base; w < base + words; w++) {
+            long in = use[w] | (liveOut[w] & ~def[w]) | handlerLive[w];
+            if (in != liveIn[w]) {
+                liveIn[w] = in;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void or(long[] target, int targetBase, long[] source, int sourceBase) {
+        for (int w = 0; w < words; w++) {
+            target[targetBase + w] |= source[sourceBase + w];
+        }
+    }
+
+    /**
+     * Instruction indexes of reachable stores whose value is never read on
+     * any path, in instruction order.
+     */
+    public int[] deadStores() {
+        int[] out = new int[8];
+        int count = 0;
+        long[] live = new long[words];
+
+        for (int block = 0; block < cfg.blockCount(); block++) {
+            if (!cfg.isReachable(block)) continue;
+            int base = block * words;
+            for (int w = 0; w < words; w++) {
+                live[w] = liveOut[base + w] | handlerLive[base + w];
+            }
+
+            int blockStart = count;
+            for (int i = cfg.end(block) - 1; i >= cfg.start(block); i--) {
+                AbstractInsnNode insn = cfg.instruction(i);
+                int slot = slotOf(insn);
+                if (slot < 0 || slot >= words * 64) continue;
+
+                int w = slot >>> 6;
+                long bit = 1L << slot;
+                if (writes(insn)) {
+                    if (!reads(insn) && (live[w] & bit) == 0) {
+                        if (count == out.length) out = Arrays.copyOf(out, count * 2);
+                        out[count++] = i;
+                    }
+                    live[w] = (live[w] & ~bit) | (handlerLive[base + w] & bit);
+                }
+                if (reads(insn)) {
+                    live[w] |= bit;
+                }
+            }
+            reverse(out, blockStart, count);
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    public boolean isLiveIn(int block, int slot) {
+        return (liveIn[block * words + (slot >>> 6)] & (1L << slot)) != 0;
+    }
+
+    public boolean isLiveOut(int block, int slot) {
+        return (liveOut[block * words + (slot >>> 6)] & (1L << slot)) != 0;
+    }
+
+    public ControlFlowGraph cfg() {
+        return cfg;
+    }
+
+    private static void reverse(int[] values, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private static int slotOf(AbstractInsnNode insn) {
+        if (insn instanceof VarInsnNode) return ((VarInsnNode) insn).var;
+        if (insn instanceof IincInsnNode) return ((IincInsnNode) insn).var;
+        return -1;
+    }
+
+    private static boolean reads(AbstractInsnNode insn) {
+        int op = insn.getOpcode();
+        return (op >= Opcodes.ILOAD && op <= Opcodes.ALOAD) || op == Opcodes.IINC || op == Opcodes.RET;
+    }
+
+    private static boolean writes(AbstractInsnNode insn) {
+        int op = insn.getOpcode();
+        return (op >= Opcodes.ISTORE && op <= Opcodes.ASTORE) || op == Opcodes.IINC;
+    }
+}
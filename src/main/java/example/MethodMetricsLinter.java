@@ -0,0 +1,305 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.*;
+
+/**
+ * Size and complexity metrics per method, measured in one visitor pass:
+ * - cc: cyclomatic complexity, 1 + conditional jumps + switch cases + catch handlers;
+ *   the catch-any entries behind finally and synchronized are not counted
+ * - insns: bytecode instructions
+ * - maxStack, maxLocals: as recorded in the class file
+ * - tryNesting: deepest nesting of distinct try ranges
+ * - fanOut: distinct methods called
+ *
+ * Each method is printed as one JSON object per line. By default only
+ * methods over a threshold are printed; MethodMetrics.report = all prints
+ * every method. Thresholds are the settings maxComplexity (10),
+ * maxInstructions (500), maxStack (15), maxLocals (20), maxTryNesting (2)
+ * and maxFanOut (20).
+ *
+ * As a package linter every indexed class is streamed from its class file,
+ * so no ClassNodes are built.
+ */
+public class MethodMetricsLinter implements Linter {
+
+    private static final String NAME = "MethodMetrics";
+
+    private static final String[] METRICS = { "cc", "insns", "maxStack", "maxLocals", "tryNesting", "fanOut" };
+    private static final String[] THRESHOLDS = { "maxComplexity", "maxInstructions", "maxStack", "maxLocals",
+            "maxTryNesting", "maxFanOut" };
+    private static final int[] DEFAULTS = { 10, 500, 15, 20, 2, 20 };
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
+
+    public MethodMetricsLinter(ClassNode classNode) {
+        this(classNode, null, LinterSettings.global());
+    }
+
+    public MethodMetricsLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public MethodMetricsLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
+        this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.CHECKSTYLE;
+    }
+
+    /**
+     * With an index the whole index is measured at once.
+     */
+    @Override
+    public boolean isPerClass() {
+        return index == null;
+    }
+
+    @Override
+    public void lintClass() {
+        int[] limits = new int[THRESHOLDS.length];
+        for (int i = 0; i < limits.length; i++) {
+            limits[i] = settings.getInt(NAME, THRESHOLDS[i], DEFAULTS[i]);
+        }
+        boolean all = settings.get(NAME, "report", "violations").equalsIgnoreCase("all");
+
+        Recorder recorder = new Recorder(limits, all);
+        if (index == null) {
+            classNode.accept(recorder);
+        } else {
+            for (String className : index.classNames()) {
+                index.accept(className, recorder, ClassReader.SKIP_FRAMES);
+            }
+        }
+
+        System.out.println(recorder.methods + " methods measured, " + recorder.over + " over thresholds");
+    }
+
+    /**
+     * Measures every visited method and prints its record.
+     */
+    private static final class Recorder extends ClassVisitor {
+        private final int[] limits;
+        private final boolean all;
+        private String owner;
+        private int methods;
+        private int over;
+
+        Recorder(int[] limits, boolean all) {
+            super(Opcodes.ASM9);
+            this.limits = limits;
+            this.all = all;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature,
+                String superName, String[] interfaces) {
+            owner = name;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor,
+                String signature, String[] exceptions) {
+            if ((access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) != 0) {
+                return null;
+            }
+            return new Measure(name, descriptor);
+        }
+
+        private void record(String name, String desc, int line, int[] values) {
+            methods++;
+            List<String> exceeded = new ArrayList<>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] > limits[i]) exceeded.add(METRICS[i]);
+            }
+            if (!exceeded.isEmpty()) over++;
+            if (exceeded.isEmpty() && !all) return;
+
+            StringBuilder json = new StringBuilder("{");
+            json.append("\"class\":").append(quote(owner.replace('/', '.')));
+            json.append(",\"method\":").append(quote(name));
+            json.append(",\"desc\":").append(quote(desc));
+            json.append(",\"line\":").append(line);
+            for (int i = 0; i < values.length; i++) {
+                json.append(",\"").append(METRICS[i]).append("\":").append(values[i]);
+            }
+            json.append(",\"over\":[");
+            for (int i = 0; i < exceeded.size(); i++) {
+                json.append(i == 0 ? "" : ",").append(quote(exceeded.get(i)));
+            }
+            json.append("]}");
+            System.out.println(json);
+        }
+
+        private static String quote(String value) {
+            return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+
+        /**
+         * One method's counters. Try ranges are kept as instruction indexes
+         * of their labels and resolved at the end.
+         */
+        private final class Measure extends MethodVisitor {
+            private final String name;
+            private final String desc;
+            private int line;
+            private int insns;
+            private int decisions;
+            private int maxStack;
+            private int maxLocals;
+            private final Set<String> callees = new HashSet<>();
+            private final Map<Label, Integer> labelIndex = new HashMap<>();
+            private final List<Label[]> tryRanges = new ArrayList<>();
+
+            Measure(String name, String desc) {
+                super(Opcodes.ASM9);
+                this.name = name;
+                this.desc = desc;
+            }
+
+            @Override
+            public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+                tryRanges.add(new Label[] { start, end });
+                if (type != null) decisions++;
+            }
+
+            @Override
+            public void visitLabel(Label label) {
+                labelIndex.put(label, insns);
+            }
+
+            @Override
+            public void visitLineNumber(int line, Label start) {
+                if (this.line == 0 || line < this.line) this.line = line;
+            }
+
+            @Override
+            public void visitInsn(int opcode) {
+                insns++;
+            }
+
+            @Override
+            public void visitIntInsn(int opcode, int operand) {
+                insns++;
+            }
+
+            @Override
+            public void visitVarInsn(int opcode, int var) {
+                insns++;
+            }
+
+            @Override
+            public void visitTypeInsn(int opcode, String type) {
+                insns++;
+            }
+
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                insns++;
+            }
+
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name, String descriptor,
+                    boolean isInterface) {
+                insns++;
+                callees.add(owner + '.' + name + descriptor);
+            }
+
+            @Override
+            public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                    Object... bootstrapMethodArguments) {
+                insns++;
+                callees.add("indy:" + name + descriptor);
+            }
+
+            @Override
+            public void visitJumpInsn(int opcode, Label label) {
+                insns++;
+                if (opcode != Opcodes.GOTO && opcode != Opcodes.JSR) decisions++;
+            }
+
+            @Override
+            public void visitLdcInsn(Object value) {
+                insns++;
+            }
+
+            @Override
+            public void visitIincInsn(int var, int increment) {
+                insns++;
+            }
+
+            @Override
+            public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+                insns++;
+                decisions += distinctCases(dflt, labels);
+            }
+
+            @Override
+            public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+                insns++;
+                decisions += distinctCases(dflt, labels);
+            }
+
+            @Override
+            public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+                insns++;
+            }
+
+            @Override
+            public void visitMaxs(int maxStack, int maxLocals) {
+                this.maxStack = maxStack;
+                this.maxLocals = maxLocals;
+            }
+
+            @Override
+            public void visitEnd() {
+                if (insns == 0) return;
+                record(name, desc, line, new int[] {
+                        1 + decisions, insns, maxStack, maxLocals, tryNesting(), callees.size() });
+            }
+
+            // Case targets other than the default, each counted once
+            private int distinctCases(Label dflt, Label[] labels) {
+                Set<Label> targets = new HashSet<>(Arrays.asList(labels));
+                targets.remove(dflt);
+                return targets.size();
+            }
+
+            private int tryNesting() {
+                // Sweep over distinct ranges: +1 at each start, -1 at each end
+                Set<Long> ranges = new HashSet<>();
+                List<long[]> events = new ArrayList<>();
+                for (Label[] range : tryRanges) {
+                    Integer start = labelIndex.get(range[0]);
+                    Integer end = labelIndex.get(range[1]);
+                    if (start == null || end == null || start >= end) continue;
+                    if (!ranges.add(((long) start << 32) | end)) continue;
+                    events.add(new long[] { end, -1 });
+                    events.add(new long[] { start, 1 });
+                }
+                // Ends sort before starts at the same index, so adjacent ranges do not nest
+                events.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+                int depth = 0;
+                int deepest = 0;
+                for (long[] event : events) {
+                    depth += (int) event[1];
+                    deepest = Math.max(deepest, depth);
+                }
+                return deepest;
+            }
+        }
+    }
+}
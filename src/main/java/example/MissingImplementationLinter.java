@@ -1,21 +1,25 @@
 package example;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.MethodNode;
 
 public class MissingImplementationLinter implements Linter {
 
     private ClassNode classNode;
-    private Map<String, ClassNode> classMap;
+    private ClassSummaryIndex index;
     private List<String> warnings = new ArrayList<>();
 
     public MissingImplementationLinter(ClassNode classNode,
             Map<String, ClassNode> classMap) {
+        this(classNode, ClassSummaryIndex.fromNodes(classMap));
+    }
+
+    public MissingImplementationLinter(ClassNode classNode, ClassSummaryIndex index) {
         this.classNode = classNode;
-        this.classMap = classMap;
+        this.index = index;
     }
 
     @Override
@@ -25,83 +29,151 @@ public class MissingImplementationLinter implements Linter {
 
     @Override
     public void lintClass() {
-        if (isAbstract(classNode))
+        ClassSummary summary = index.summaryOf(classNode);
+        if (summary.isAbstract())
             return;
 
-        Set<String> required = new HashSet<>();
-        collectAbstractMethods(classNode, required, new HashSet<>());
-
-        Set<String> implemented = getImplementedMethods(classNode);
+        MethodSets sets = index.shared(MethodSets.class, MethodSets::new);
+        long[] required = sets.inheritedRequired(summary);
+        long[] implemented = sets.implemented(summary);
 
-        for (String sig : required) {
-            if (!implemented.contains(sig)) {
-                warnings.add("Missing implementation: " + sig
-                        + " in " + classNode.name);
+        List<String> missing = new ArrayList<>();
+        for (long sig : required) {
+            if (Arrays.binarySearch(implemented, sig) < 0) {
+                missing.add(index.symbol(MethodSets.nameOf(sig)) + index.symbol(MethodSets.descOf(sig)));
             }
         }
+        Collections.sort(missing);
+
+        for (String sig : missing) {
+            warnings.add("Missing implementation: " + sig
+                    + " in " + classNode.name);
+        }
 
         warnings.forEach(System.out::println);
     }
 
-    private void collectAbstractMethods(ClassNode node, Set<String> required, Set<String> visited) {
-        if (node == null || visited.contains(node.name))
-            return;
-        visited.add(node.name);
-
-        for (String iface : node.interfaces) {
-            ClassNode ifaceNode = classMap.get(iface);
-            if (ifaceNode != null) {
-                for (MethodNode m : ifaceNode.methods) {
-                    if ((m.access & Opcodes.ACC_ABSTRACT) != 0) {
-                        required.add(sig(m));
-                    }
-                }
-                collectAbstractMethods(ifaceNode, required, visited);
-            }
+    /**
+     * Required and implemented method signatures per indexed type, each a
+     * sorted long[] of (name symbol << 32 | desc symbol). A type's sets are
+     * derived from its direct supertypes' cached sets, so resolving a whole
+     * hierarchy visits every type once.
+     *
+     * Required: abstract methods declared by any supertype. Implemented:
+     * concrete methods of the type and its superclasses, java/lang/Object's
+     * included, plus default methods of every superinterface. Supertypes
+     * outside the index, such as JDK interfaces, come from SupertypeResolver.
+     */
+    static final class MethodSets {
+        private static final long[] EMPTY = new long[0];
+
+        private final SupertypeResolver types;
+        private final Map<Integer, long[]> required = new HashMap<>();
+        private final Map<Integer, long[]> implemented = new HashMap<>();
+
+        MethodSets(ClassSummaryIndex index) {
+            this.types = index.shared(SupertypeResolver.class, SupertypeResolver::new);
         }
 
-        if (node.superName != null && !node.superName.equals("java/lang/Object")) {
-            ClassNode parent = classMap.get(node.superName);
-            if (parent != null) {
-                for (MethodNode m : parent.methods) {
-                    if ((m.access & Opcodes.ACC_ABSTRACT) != 0) {
-                        required.add(sig(m));
-                    }
-                }
-                collectAbstractMethods(parent, required, visited);
-            }
+        static int nameOf(long sig) {
+            return (int) (sig >>> 32);
         }
-    }
 
-    private Set<String> getImplementedMethods(ClassNode node) {
-        Set<String> set = new HashSet<>();
-        collectImplemented(node, set, new HashSet<>());
-        return set;
-    }
+        static int descOf(long sig) {
+            return (int) sig;
+        }
 
-    private void collectImplemented(ClassNode node, Set<String> set, Set<String> visited) {
-        if (node == null || visited.contains(node.name))
-            return;
-        visited.add(node.name);
+        /**
+         * Abstract methods the type inherits, not counting its own.
+         */
+        synchronized long[] inheritedRequired(ClassSummary type) {
+            SignatureBuffer out = new SignatureBuffer();
+            forEachSupertype(type, superType -> {
+                out.addAll(required(superType));
+                out.addAll(declared(superType, true));
+            });
+            return out.toSortedSet();
+        }
+
+        synchronized long[] implemented(ClassSummary type) {
+            SignatureBuffer out = new SignatureBuffer();
+            out.addAll(declared(type, false));
+            forEachSupertype(type, superType -> out.addAll(implementedOf(superType)));
+            return out.toSortedSet();
+        }
 
-        for (MethodNode m : node.methods) {
-            if ((m.access & Opcodes.ACC_ABSTRACT) == 0) {
-                set.add(sig(m));
+        private long[] required(int typeName) {
+            long[] cached = required.get(typeName);
+            if (cached != null) return cached;
+            ClassSummary type = types.get(typeName);
+            if (type == null) return EMPTY;
+
+            // Placeholder guards against cyclic hierarchies in malformed input
+            required.put(typeName, EMPTY);
+            long[] sigs = inheritedRequired(type);
+            required.put(typeName, sigs);
+            return sigs;
+        }
+
+        private long[] implementedOf(int typeName) {
+            long[] cached = implemented.get(typeName);
+            if (cached != null) return cached;
+            ClassSummary type = types.get(typeName);
+            if (type == null) return EMPTY;
+
+            implemented.put(typeName, EMPTY);
+            long[] sigs = implemented(type);
+            implemented.put(typeName, sigs);
+            return sigs;
+        }
+
+        private long[] declared(int typeName, boolean abstractOnes) {
+            ClassSummary type = types.get(typeName);
+            return type == null ? EMPTY : declared(type, abstractOnes);
+        }
+
+        private long[] declared(ClassSummary type, boolean abstractOnes) {
+            long[] out = new long[type.methodCount()];
+            int count = 0;
+            for (int m = 0; m < type.methodCount(); m++) {
+                if (((type.methodAccess(m) & Opcodes.ACC_ABSTRACT) != 0) == abstractOnes) {
+                    out[count++] = ((long) type.methodName(m) << 32) | (type.methodDesc(m) & 0xFFFFFFFFL);
+                }
             }
+            return Arrays.copyOf(out, count);
         }
 
-        if (node.superName != null && !node.superName.equals("java/lang/Object")) {
-            ClassNode parent = classMap.get(node.superName);
-            collectImplemented(parent, set, visited);
+        private void forEachSupertype(ClassSummary type, IntConsumer action) {
+            for (int i = 0; i < type.interfaceCount(); i++) {
+                action.accept(type.interfaceAt(i));
+            }
+            if (type.superName() >= 0) {
+                action.accept(type.superName());
+            }
         }
     }
 
-    private boolean isAbstract(ClassNode node) {
-        return (node.access & Opcodes.ACC_ABSTRACT) != 0
-                || (node.access & Opcodes.ACC_INTERFACE) != 0;
-    }
+    private static final class SignatureBuffer {
+        private long[] values = new long[16];
+        private int size;
+
+        void addAll(long[] sigs) {
+            if (size + sigs.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + sigs.length));
+            }
+            System.arraycopy(sigs, 0, values, size, sigs.length);
+            size += sigs.length;
+        }
 
-    private String sig(MethodNode m) {
-        return m.name + m.desc;
+        long[] toSortedSet() {
+            Arrays.sort(values, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || values[i] != values[unique - 1]) {
+                    values[unique++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, unique);
+        }
     }
 }
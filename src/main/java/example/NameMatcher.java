@@ -0,0 +1,217 @@
+package example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches identifiers against many substring, prefix, suffix and exact-name
+ * patterns at once. The patterns are compiled into an Aho-Corasick automaton
+ * with a dense transition table, so a lookup is one pass over the name with
+ * no allocation, and the answer for each distinct name is memoized.
+ *
+ * Patterns must be ASCII; any other input character simply fails to match.
+ */
+public final class NameMatcher {
+
+    public enum Mode {
+        CONTAINS,
+        PREFIX,
+        SUFFIX,
+        EXACT
+    }
+
+    private static final int ALPHABET = 129;
+    private static final int OTHER = 128;
+
+    private final boolean ignoreCase;
+    private final int[] delta;
+    private final int[][] outputs;
+    private final Mode[] modes;
+    private final int[] lengths;
+    private final Map<String, Boolean> memo = new ConcurrentHashMap<>();
+
+    private NameMatcher(boolean ignoreCase, int[] delta, int[][] outputs, Mode[] modes, int[] lengths) {
+        this.ignoreCase = ignoreCase;
+        this.delta = delta;
+        this.outputs = outputs;
+        this.modes = modes;
+        this.lengths = lengths;
+    }
+
+    public static Builder builder() {
+        return new Builder(false);
+    }
+
+    public static Builder ignoringCase() {
+        return new Builder(true);
+    }
+
+    public boolean matches(String name) {
+        if (name == null) return false;
+        Boolean cached = memo.get(name);
+        if (cached == null) {
+            cached = scan(name);
+            memo.put(name, cached);
+        }
+        return cached;
+    }
+
+    private boolean scan(String name) {
+        int length = name.length();
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            state = delta[state * ALPHABET + symbol(name.charAt(i))];
+            for (int pattern : outputs[state]) {
+                if (accepts(pattern, i, length)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean accepts(int pattern, int end, int length) {
+        switch (modes[pattern]) {
+            case CONTAINS:
+                return true;
+            case PREFIX:
+                return end + 1 == lengths[pattern];
+            case SUFFIX:
+                return end == length - 1;
+            case EXACT:
+                return end + 1 == lengths[pattern] && end == length - 1;
+            default:
+                return false;
+        }
+    }
+
+    private int symbol(char c) {
+        if (c >= OTHER) return OTHER;
+        if (ignoreCase && c >= 'A' && c <= 'Z') return c + ('a' - 'A');
+        return c;
+    }
+
+    public static final class Builder {
+        private final boolean ignoreCase;
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Mode> modes = new ArrayList<>();
+
+        private Builder(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+        }
+
+        public Builder contains(String... words) {
+            return add(Mode.CONTAINS, words);
+        }
+
+        public Builder prefix(String... words) {
+            return add(Mode.PREFIX, words);
+        }
+
+        public Builder suffix(String... words) {
+            return add(Mode.SUFFIX, words);
+        }
+
+        public Builder exact(String... words) {
+            return add(Mode.EXACT, words);
+        }
+
+        public Builder add(Mode mode, String... words) {
+            for (String word : words) {
+                if (word.isEmpty()) {
+                    throw new IllegalArgumentException("Empty name pattern");
+                }
+                for (int i = 0; i < word.length(); i++) {
+                    if (word.charAt(i) >= OTHER) {
+                        throw new IllegalArgumentException("Name pattern must be ASCII: " + word);
+                    }
+                }
+                patterns.add(ignoreCase ? word.toLowerCase() : word);
+                modes.add(mode);
+            }
+            return this;
+        }
+
+        public NameMatcher build() {
+            // 1) Trie of all patterns
+            int[] trie = new int[ALPHABET * 16];
+            Arrays.fill(trie, -1);
+            List<List<Integer>> terminal = new ArrayList<>();
+            terminal.add(new ArrayList<>());
+            int states = 1;
+
+            for (int p = 0; p < patterns.size(); p++) {
+                String word = patterns.get(p);
+                int state = 0;
+                for (int i = 0; i < word.length(); i++) {
+                    int slot = state * ALPHABET + word.charAt(i);
+                    if (trie[slot] < 0) {
+                        if ((states + 1) * ALPHABET > trie.length) {
+                            int old = trie.length;
+                            trie = Arrays.copyOf(trie, old * 2);
+                            Arrays.fill(trie, old, trie.length, -1);
+                        }
+                        trie[slot] = states++;
+                        terminal.add(new ArrayList<>());
+                    }
+                    state = trie[slot];
+                }
+                terminal.get(state).add(p);
+            }
+
+            // 2) Failure links in BFS order turn the trie into a full DFA
+            int[] delta = Arrays.copyOf(trie, states * ALPHABET);
+            int[] fail = new int[states];
+            int[][] outputs = new int[states][];
+            outputs[0] = toArray(terminal.get(0));
+
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = delta[c];
+                if (child < 0) {
+                    delta[c] = 0;
+                } else {
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                List<Integer> out = new ArrayList<>(terminal.get(state));
+                for (int inherited : outputs[fail[state]]) {
+                    out.add(inherited);
+                }
+                outputs[state] = toArray(out);
+
+                for (int c = 0; c < ALPHABET; c++) {
+                    int slot = state * ALPHABET + c;
+                    int child = delta[slot];
+                    if (child < 0) {
+                        delta[slot] = delta[fail[state] * ALPHABET + c];
+                    } else {
+                        fail[child] = delta[fail[state] * ALPHABET + c];
+                        queue.add(child);
+                    }
+                }
+            }
+
+            int[] lengths = new int[patterns.size()];
+            for (int p = 0; p < lengths.length; p++) {
+                lengths[p] = patterns.get(p).length();
+            }
+            return new NameMatcher(ignoreCase, delta, outputs, modes.toArray(new Mode[0]), lengths);
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            int[] out = new int[values.size()];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = values.get(i);
+            }
+            return out;
+        }
+    }
+}
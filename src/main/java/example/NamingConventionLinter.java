@@ -0,0 +1,176 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Checks class, method, field, constant and local variable names against
+ * the patterns in the settings class, method, field, constant and local.
+ * Constants are static final fields; locals, parameters included, come from
+ * the LocalVariableTable, so classes compiled without -g have none.
+ * Generated names are skipped: constructors, synthetic members, anonymous
+ * classes and this.
+ *
+ * Each pattern is compiled once per run into a RegexDfa, which remembers
+ * the result for the names it sees, so repeated names cost one map lookup.
+ * The automata are shared through the index and go with it. As a package
+ * linter every indexed class is streamed from its class file without
+ * building ClassNodes.
+ */
+public class NamingConventionLinter implements Linter {
+
+    private static final String NAME = "NamingConvention";
+
+    private static final String[] KINDS = { "class", "method", "field", "constant", "local" };
+    private static final String[] DEFAULTS = {
+            "[A-Z][A-Za-z0-9]*",
+            "[a-z][A-Za-z0-9]*",
+            "[a-z][A-Za-z0-9]*",
+            "[A-Z][A-Z0-9]*(_[A-Z0-9]+)*",
+            "[a-z][A-Za-z0-9]*"
+    };
+    private static final int CLASS = 0;
+    private static final int METHOD = 1;
+    private static final int FIELD = 2;
+    private static final int CONSTANT = 3;
+    private static final int LOCAL = 4;
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
+
+    public NamingConventionLinter(ClassNode classNode) {
+        this(classNode, null, LinterSettings.global());
+    }
+
+    public NamingConventionLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public NamingConventionLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
+        this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.CHECKSTYLE;
+    }
+
+    /**
+     * With an index the whole index is checked at once.
+     */
+    @Override
+    public boolean isPerClass() {
+        return index == null;
+    }
+
+    @Override
+    public void lintClass() {
+        RegexDfa.Cache compiled = index == null ? new RegexDfa.Cache()
+                : index.shared(RegexDfa.Cache.class, i -> new RegexDfa.Cache());
+        RegexDfa[] patterns = new RegexDfa[KINDS.length];
+        for (int i = 0; i < KINDS.length; i++) {
+            patterns[i] = compiled.compile(settings.get(NAME, KINDS[i], DEFAULTS[i]));
+        }
+
+        Checker checker = new Checker(patterns);
+        if (index == null) {
+            classNode.accept(checker);
+        } else {
+            for (String className : index.classNames()) {
+                index.accept(className, checker, ClassReader.SKIP_FRAMES);
+            }
+        }
+
+        if (checker.violations == 0) {
+            System.out.println("No naming convention violations (" + checker.checked + " names checked)");
+        } else {
+            System.out.println(checker.violations + " naming convention violations in " + checker.checked
+                    + " names checked");
+        }
+    }
+
+    /**
+     * Checks the names of every visited class and prints each violation.
+     */
+    private static final class Checker extends ClassVisitor {
+        private final RegexDfa[] patterns;
+        private String owner;
+        private int checked;
+        private int violations;
+
+        Checker(RegexDfa[] patterns) {
+            super(Opcodes.ASM9);
+            this.patterns = patterns;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature,
+                String superName, String[] interfaces) {
+            owner = name.replace('/', '.');
+            String simple = simpleName(name);
+            if ((access & Opcodes.ACC_SYNTHETIC) == 0 && !simple.isEmpty()
+                    && !simple.equals("package-info") && !simple.equals("module-info")) {
+                check(CLASS, simple, owner);
+            }
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor,
+                String signature, Object value) {
+            if ((access & Opcodes.ACC_SYNTHETIC) != 0 || name.equals("serialVersionUID")) return null;
+            boolean constant = (access & (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL))
+                    == (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL);
+            check(constant ? CONSTANT : FIELD, name, owner + "." + name);
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor,
+                String signature, String[] exceptions) {
+            if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0) return null;
+            String method = owner + "." + name + descriptor;
+            if (!name.startsWith("<")) {
+                check(METHOD, name, method);
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitLocalVariable(String local, String descriptor, String signature,
+                        Label start, Label end, int slot) {
+                    if (!local.equals("this") && local.indexOf('$') < 0) {
+                        check(LOCAL, local, method);
+                    }
+                }
+            };
+        }
+
+        private void check(int kind, String name, String where) {
+            checked++;
+            if (!patterns[kind].matches(name)) {
+                violations++;
+                System.out.println("[NamingConvention] " + where + ": " + KINDS[kind] + " name '" + name
+                        + "' does not match " + patterns[kind].pattern());
+            }
+        }
+
+        /**
+         * Source-level name of a class: after the package and any enclosing
+         * class, without the numeric prefix of local classes. Empty for
+         * anonymous classes.
+         */
+        private static String simpleName(String internalName) {
+            String name = internalName.substring(internalName.lastIndexOf('/') + 1);
+            name = name.substring(name.lastIndexOf('$') + 1);
+            int start = 0;
+            while (start < name.length() && Character.isDigit(name.charAt(start))) start++;
+            return name.substring(start);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds public classes that code outside their package cannot get an
+ * instance of: every constructor is private or package-private, and no
+ * indexed class offers a public static factory method or public static field
+ * of the type, nor does a public nested class offer a public method
+ * returning it, as a builder's build() would. A builder only counts once
+ * the builder itself can be obtained.
+ *
+ * Works from the method and field headers in the class summaries alone.
+ * Interfaces, abstract classes, enums, annotations, anonymous and local
+ * classes are skipped, as are utility classes with no instance members.
+ */
+public class NonConstructibleLinter implements Linter {
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+
+    public NonConstructibleLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this.classNode = classNode;
+        this.index = index;
+    }
+
+    public NonConstructibleLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.PRINCIPLE;
+    }
+
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
+    @Override
+    public void lintClass() {
+        // 1) One pass over all headers: classes with a way in, and classes with instance members
+        BitSet obtainable = new BitSet(index.size());
+        BitSet instanceMembers = new BitSet(index.size());
+        List<int[]> builders = new ArrayList<>();
+        for (int c = 0; c < index.size(); c++) {
+            ClassSummary summary = index.summaries().get(c);
+            boolean publicClass = isPublic(summary.access());
+            String owner = index.symbol(summary.name());
+
+            for (int m = 0; m < summary.methodCount(); m++) {
+                int access = summary.methodAccess(m);
+                String name = index.symbol(summary.methodName(m));
+                if (name.equals("<init>")) {
+                    if ((access & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED)) != 0) obtainable.set(c);
+                    continue;
+                }
+                if (!isStatic(access)) instanceMembers.set(c);
+                if (!publicClass || !isPublic(access) || (access & Opcodes.ACC_SYNTHETIC) != 0) continue;
+
+                int returned = returnedClass(index.symbol(summary.methodDesc(m)));
+                if (returned < 0) continue;
+                String returnedName = index.symbol(index.summaries().get(returned).name());
+                // Static factories anywhere; instance methods only on a nested builder
+                if (isStatic(access)) {
+                    obtainable.set(returned);
+                } else if (owner.startsWith(returnedName + "$")) {
+                    builders.add(new int[] { c, returned });
+                }
+            }
+
+            for (int f = 0; f < summary.fieldCount(); f++) {
+                int access = summary.fieldAccess(f);
+                if (!isStatic(access)) instanceMembers.set(c);
+                if (publicClass && isPublic(access) && isStatic(access)) {
+                    int type = classOf(index.symbol(summary.fieldDesc(f)));
+                    if (type >= 0) obtainable.set(type);
+                }
+            }
+        }
+
+        // 2) Builders, once the builder is obtainable; repeated so builders of builders count too
+        boolean changed;
+        do {
+            changed = false;
+            for (int[] builder : builders) {
+                if (obtainable.get(builder[0]) && !obtainable.get(builder[1])) {
+                    obtainable.set(builder[1]);
+                    changed = true;
+                }
+            }
+        } while (changed);
+
+        // 3) Public concrete classes without any of them
+        List<String> findings = new ArrayList<>();
+        for (int c = 0; c < index.size(); c++) {
+            ClassSummary summary = index.summaries().get(c);
+            if (obtainable.get(c) || !instanceMembers.get(c) || !isPublic(summary.access())) continue;
+            if ((summary.access() & (Opcodes.ACC_ENUM | Opcodes.ACC_ANNOTATION | Opcodes.ACC_SYNTHETIC)) != 0
+                    || summary.isAbstract()) continue;
+            String name = index.symbol(summary.name());
+            String simple = name.substring(name.lastIndexOf('$') + 1);
+            if (!simple.isEmpty() && Character.isDigit(simple.charAt(0))) continue;
+
+            findings.add("[NonConstructible] " + name.replace('/', '.')
+                    + " has no public constructor, static factory or builder");
+        }
+
+        if (findings.isEmpty()) {
+            System.out.println("No non-constructible public classes in " + index.size() + " classes");
+        } else {
+            findings.forEach(System.out::println);
+        }
+    }
+
+    // Index position of the class a method descriptor returns, or -1
+    private int returnedClass(String desc) {
+        return classOf(desc.substring(desc.indexOf(')') + 1));
+    }
+
+    // Index position of the class a field descriptor names, or -1
+    private int classOf(String desc) {
+        if (!desc.startsWith("L")) return -1;
+        return index.positionOf(index.symbols().lookup(desc.substring(1, desc.length() - 1)));
+    }
+
+    private static boolean isPublic(int access) {
+        return (access & Opcodes.ACC_PUBLIC) != 0;
+    }
+
+    private static boolean isStatic(int access) {
+        return (access & Opcodes.ACC_STATIC) != 0;
+    }
+}
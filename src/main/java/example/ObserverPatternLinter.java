@@ -3,25 +3,43 @@ package example;
 import java.util.*;
 
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldNode;
-import org.objectweb.asm.tree.MethodInsnNode;
-import org.objectweb.asm.tree.MethodNode;
 
+/**
+ * Finds Observer pattern roles from the package's ObserverGraph: subjects
+ * that keep a collection of observers and call them, and the observer
+ * classes those subjects notify. Subjects without a remove/unsubscribe
+ * method, and collections of observers that are never notified, are
+ * reported as warnings.
+ */
 public class ObserverPatternLinter implements Linter {
 
+    private static final NameMatcher NOTIFY_NAMES = NameMatcher.ignoringCase()
+            .contains("update", "notify", "onchange", "onevent", "dispatch", "trigger", "publish", "broadcast", "fire")
+            .build();
+
+    private static final NameMatcher REMOVE_NAMES = NameMatcher.ignoringCase()
+            .contains("remove", "unsubscribe", "detach", "deregister", "unregister")
+            .build();
+
     private final ClassNode classNode;
-    private final Map<String, ClassNode> classMap;
+    private final ClassSummaryIndex index;
     private final List<String> warnings = new ArrayList<>();
 
     public ObserverPatternLinter(ClassNode classNode, Map<String, ClassNode> classMap) {
+        this(classNode, ClassSummaryIndex.fromNodes(classMap));
+    }
+
+    public ObserverPatternLinter(ClassNode classNode, ClassSummaryIndex index) {
         this.classNode = classNode;
-        this.classMap = classMap != null ? classMap : new HashMap<>();
+        this.index = index != null ? index : new ClassSummaryIndex();
     }
 
     public ObserverPatternLinter(ClassNode classNode) {
-        this(classNode, new HashMap<>());
+        this(classNode, new ClassSummaryIndex());
+        index.add(classNode);
     }
 
     @Override
@@ -31,15 +49,31 @@ public class ObserverPatternLinter implements Linter {
 
     @Override
     public void lintClass() {
-        if (hasObserverCollection() && hasNotifyCall()) {
-            warnings.add("[Observer] Subject detected: " + classNode.name);
-            if (!hasRemoveObserverMethod()) {
-                warnings.add("[Observer] Warning - no remove/unsubscribe method found" + classNode.name);
+        ObserverGraph graph = index.shared(ObserverGraph.class, ObserverGraph::new);
+        int position = index.positionOf(index.symbols().lookup(classNode.name));
+        String name = classNode.name.replace('/', '.');
+
+        if (position >= 0) {
+            boolean subject = false;
+            for (ObserverGraph.Link link : graph.linksOf(position)) {
+                String observers = graph.label(link.observerType) + " observers in field " + link.field;
+                if (link.notified) {
+                    subject = true;
+                    warnings.add("[Observer] Subject detected: " + name + " notifies " + observers);
+                } else {
+                    warnings.add("[Observer] Warning - " + name + " holds " + observers + " but never notifies them");
+                }
+            }
+            if (subject && !graph.hasRemoveMethod(position)) {
+                warnings.add("[Observer] Warning - no remove/unsubscribe method found in " + name);
             }
-        }
 
-        if (isObserverImplementation()) {
-            warnings.add("[Observer] Observer detected: " + classNode.name);
+            for (int observerType : graph.observerTypesOf(position)) {
+                List<String> subjects = graph.subjectsNotifying(observerType);
+                warnings.add("[Observer] Observer detected: " + name + " implements " + graph.label(observerType)
+                        + (subjects.isEmpty() ? ", but no analyzed subject notifies it"
+                                : ", notified by " + String.join(", ", subjects)));
+            }
         }
 
         if (warnings.isEmpty()) {
@@ -49,66 +83,215 @@ public class ObserverPatternLinter implements Linter {
         }
     }
 
-    private boolean hasObserverCollection() {
-        for (FieldNode f : classNode.fields) {
-            if (f.desc.contains("List") || f.desc.contains("Set")
-                    || f.desc.contains("Collection") || f.desc.contains("Deque")
-                    || f.desc.contains("Queue") || f.desc.startsWith("[L")) {
-                return true;
+    /**
+     * Observer roles of all indexed classes, found in one pass over the
+     * summaries and the shared TypeHierarchy.
+     *
+     * Observer types are interfaces with a notify-like method (update,
+     * onEvent, fire...) and their subinterfaces; their implementors are read
+     * from each class's ancestors. A subject is a class with a field whose
+     * element type is an observer type: a type argument of the field's
+     * generic signature, such as Observer in List<Observer>, or the component
+     * of an array. It notifies its observers when it calls a method of that
+     * type or a related one.
+     */
+    static final class ObserverGraph {
+
+        /**
+         * A field of a subject that holds observers of a type (a hierarchy node).
+         */
+        static final class Link {
+            final int subject;
+            final String field;
+            final int observerType;
+            final boolean notified;
+
+            Link(int subject, String field, int observerType, boolean notified) {
+                this.subject = subject;
+                this.field = field;
+                this.observerType = observerType;
+                this.notified = notified;
             }
         }
-        return false;
-    }
 
-    private boolean hasNotifyCall() {
-        for (MethodNode m : classNode.methods) {
-            for (AbstractInsnNode insn : m.instructions) {
-                if (insn.getOpcode() == Opcodes.INVOKEINTERFACE
-                        || insn.getOpcode() == Opcodes.INVOKEVIRTUAL) {
-                    MethodInsnNode call = (MethodInsnNode) insn;
-                    if (isNotifyMethodName(call.name))
-                        return true;
+        private static final int[] NONE = new int[0];
+
+        private final ClassSummaryIndex index;
+        private final TypeHierarchy hierarchy;
+        private final boolean[] observerType;
+        private final int[][] implemented;
+        private final List<Link> links = new ArrayList<>();
+        private final Map<Integer, List<Link>> linksBySubject = new HashMap<>();
+
+        ObserverGraph(ClassSummaryIndex index) {
+            this.index = index;
+            this.hierarchy = TypeHierarchy.of(index);
+            int size = hierarchy.size();
+
+            // 1) Observer types: interfaces declaring a notify-like method, then their subinterfaces
+            boolean[] declaring = new boolean[size];
+            for (int node = 0; node < size; node++) {
+                declaring[node] = declaresNotifyMethod(hierarchy.summary(node));
+            }
+            observerType = declaring.clone();
+            for (int node = 0; node < size; node++) {
+                ClassSummary summary = hierarchy.summary(node);
+                if (summary == null || !summary.isInterface() || observerType[node]) continue;
+                for (int ancestor : hierarchy.ancestors(node)) {
+                    if (declaring[ancestor]) {
+                        observerType[node] = true;
+                        break;
+                    }
+                }
+            }
+
+            // 2) Implementors through their ancestors, and subjects through their fields
+            implemented = new int[index.size()][];
+            List<String> elements = new ArrayList<>();
+            for (int c = 0; c < index.size(); c++) {
+                ClassSummary summary = index.summaries().get(c);
+                implemented[c] = summary.isInterface() ? NONE : observerAncestors(c);
+
+                for (int f = 0; f < summary.fieldCount(); f++) {
+                    if ((summary.fieldAccess(f) & Opcodes.ACC_SYNTHETIC) != 0) continue;
+                    elements.clear();
+                    elementTypes(summary, f, elements);
+                    for (String element : elements) {
+                        int node = hierarchy.nodeOf(index.symbols().lookup(element));
+                        if (node < 0 || !observerType[node]) continue;
+                        Link link = new Link(c, index.symbol(summary.fieldName(f)), node, callsInto(summary, node));
+                        links.add(link);
+                        linksBySubject.computeIfAbsent(c, k -> new ArrayList<>()).add(link);
+                    }
                 }
             }
         }
-        return false;
-    }
 
-    private boolean hasRemoveObserverMethod() {
-        for (MethodNode m : classNode.methods) {
-            String name = m.name.toLowerCase();
-            if (name.contains("remove") || name.contains("unsubscribe")
-                    || name.contains("detach") || name.contains("deregister")
-                    || name.contains("unregister")) {
-                return true;
+        private boolean declaresNotifyMethod(ClassSummary summary) {
+            if (summary == null || !summary.isInterface() || (summary.access() & Opcodes.ACC_ANNOTATION) != 0) {
+                return false;
+            }
+            for (int m = 0; m < summary.methodCount(); m++) {
+                if ((summary.methodAccess(m) & (Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC)) == 0
+                        && NOTIFY_NAMES.matches(index.symbol(summary.methodName(m)))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int[] observerAncestors(int node) {
+            int[] ancestors = hierarchy.ancestors(node);
+            int count = 0;
+            int[] result = new int[ancestors.length];
+            for (int ancestor : ancestors) {
+                if (observerType[ancestor]) result[count++] = ancestor;
             }
+            return count == 0 ? NONE : Arrays.copyOf(result, count);
         }
-        return false;
-    }
 
-    private boolean isObserverImplementation() {
-        for (String iface : classNode.interfaces) {
-            ClassNode ifaceNode = classMap.get(iface);
-            if (ifaceNode == null)
-                continue;
-            for (MethodNode m : ifaceNode.methods) {
-                if (isNotifyMethodName(m.name))
+        /**
+         * Class names a field holds: the type arguments of its generic
+         * signature at any depth, or the component of an array descriptor.
+         */
+        private void elementTypes(ClassSummary summary, int field, List<String> out) {
+            if (summary.fieldSignature(field) >= 0) {
+                new SignatureReader(index.symbol(summary.fieldSignature(field))).acceptType(new TypeArguments(out, false));
+                return;
+            }
+            String desc = index.symbol(summary.fieldDesc(field));
+            int start = desc.lastIndexOf('[') + 1;
+            if (start > 0 && desc.charAt(start) == 'L') {
+                out.add(desc.substring(start + 1, desc.length() - 1));
+            }
+        }
+
+        // A call on the observer type, one of its subtypes or one of its observer supertypes
+        private boolean callsInto(ClassSummary summary, int observer) {
+            for (int i = 0; i < summary.callCount(); i++) {
+                int opcode = summary.callOpcode(i);
+                if (opcode != Opcodes.INVOKEINTERFACE && opcode != Opcodes.INVOKEVIRTUAL) continue;
+                int owner = hierarchy.nodeOf(summary.callOwner(i));
+                if (owner >= 0 && (hierarchy.isSubtype(owner, observer)
+                        || observerType[owner] && hierarchy.isSubtype(observer, owner))) {
                     return true;
+                }
+            }
+            return false;
+        }
+
+        List<Link> linksOf(int subject) {
+            return linksBySubject.getOrDefault(subject, Collections.emptyList());
+        }
+
+        int[] observerTypesOf(int position) {
+            return implemented[position];
+        }
+
+        boolean hasRemoveMethod(int position) {
+            ClassSummary summary = index.summaries().get(position);
+            for (int m = 0; m < summary.methodCount(); m++) {
+                if (REMOVE_NAMES.matches(index.symbol(summary.methodName(m)))) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Subjects that notify a collection typed as this observer type or
+         * one of its supertypes, so the observer can be registered there.
+         */
+        List<String> subjectsNotifying(int observerType) {
+            List<String> subjects = new ArrayList<>();
+            for (Link link : links) {
+                if (link.notified && hierarchy.isSubtype(observerType, link.observerType)) {
+                    String subject = label(link.subject);
+                    if (!subjects.contains(subject)) subjects.add(subject);
+                }
             }
+            return subjects;
+        }
+
+        String label(int node) {
+            return hierarchy.name(node).replace('/', '.');
         }
-        return false;
     }
 
-    private boolean isNotifyMethodName(String name) {
-        String lower = name.toLowerCase();
-        return lower.contains("update")
-                || lower.contains("notify")
-                || lower.contains("onchange")
-                || lower.contains("onevent")
-                || lower.contains("dispatch")
-                || lower.contains("trigger")
-                || lower.contains("publish")
-                || lower.contains("broadcast")
-                || lower.contains("fire");
+    /**
+     * Collects the class types inside type arguments; the outermost type of
+     * the signature itself is only recorded when record is set.
+     */
+    private static final class TypeArguments extends SignatureVisitor {
+        private final List<String> out;
+        private final boolean record;
+        private int last = -1;
+
+        TypeArguments(List<String> out, boolean record) {
+            super(Opcodes.ASM9);
+            this.out = out;
+            this.record = record;
+        }
+
+        @Override
+        public void visitClassType(String name) {
+            if (record) {
+                last = out.size();
+                out.add(name);
+            }
+        }
+
+        @Override
+        public void visitInnerClassType(String name) {
+            if (last >= 0) out.set(last, out.get(last) + "$" + name);
+        }
+
+        @Override
+        public SignatureVisitor visitArrayType() {
+            return this;
+        }
+
+        @Override
+        public SignatureVisitor visitTypeArgument(char wildcard) {
+            return new TypeArguments(out, true);
+        }
     }
 }
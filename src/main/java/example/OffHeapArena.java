@@ -0,0 +1,179 @@
+package example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only memory outside the Java heap, carved into segments that are
+ * either direct ByteBuffers or consecutive regions of a memory-mapped file.
+ * Segments start at FIRST_SEGMENT_SIZE and double up to SEGMENT_SIZE, so a
+ * small run reserves little; nothing is reserved before the first record.
+ *
+ * An address packs the segment number in the high 32 bits and the byte offset
+ * in the low 32 bits. Records never straddle a segment boundary. Closing the
+ * arena releases its segments and file.
+ */
+public final class OffHeapArena implements AutoCloseable {
+
+    public static final int FIRST_SEGMENT_SIZE = 1 << 20;
+    public static final int SEGMENT_SIZE = 1 << 26;
+
+    private final FileChannel channel;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int position;
+    private int limit;
+    private long reserved;
+
+    /**
+     * Arena over direct ByteBuffers.
+     */
+    public OffHeapArena() {
+        this.channel = null;
+    }
+
+    /**
+     * Arena over a memory-mapped file; the file is truncated first.
+     */
+    public OffHeapArena(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Reserves size bytes, 8-byte aligned, and returns their address.
+     */
+    public synchronized long allocate(int size) {
+        if (size < 0 || size > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Record of " + size + " bytes does not fit a segment");
+        }
+        int aligned = (size + 7) & ~7;
+        if (position + aligned > limit) {
+            int next = limit == 0 ? FIRST_SEGMENT_SIZE : Math.min(limit * 2, SEGMENT_SIZE);
+            while (next < aligned) next *= 2;
+            segments.add(newSegment(reserved, next));
+            reserved += next;
+            position = 0;
+            limit = next;
+        }
+        long address = ((long) (segments.size() - 1) << 32) | position;
+        position += aligned;
+        return address;
+    }
+
+    public ByteBuffer segment(long address) {
+        return segments.get((int) (address >>> 32));
+    }
+
+    public static int offset(long address) {
+        return (int) address;
+    }
+
+    public int getInt(long address) {
+        return segment(address).getInt(offset(address));
+    }
+
+    public void putInt(long address, int value) {
+        segment(address).putInt(offset(address), value);
+    }
+
+    public long getLong(long address) {
+        return segment(address).getLong(offset(address));
+    }
+
+    public void putLong(long address, long value) {
+        segment(address).putLong(offset(address), value);
+    }
+
+    /**
+     * Bytes reserved so far, for footprint reporting.
+     */
+    public synchronized long reservedBytes() {
+        return reserved;
+    }
+
+    private ByteBuffer newSegment(long fileOffset, int size) {
+        ByteBuffer buffer;
+        if (channel == null) {
+            buffer = ByteBuffer.allocateDirect(size);
+        } else {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, fileOffset, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map summary store segment " + segments.size(), e);
+            }
+        }
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Drops the segments, so their memory goes once they are collected, and
+     * closes the mapped file. The arena must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        segments.clear();
+        position = 0;
+        limit = 0;
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Growable array of longs kept in the arena in pages of PAGE_SIZE entries;
+     * only the small page directory lives on the heap.
+     */
+    public static final class LongArray {
+        private static final int PAGE_BITS = 13;
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+        private final OffHeapArena arena;
+        private long[] pages = new long[16];
+        private int size;
+
+        public LongArray(OffHeapArena arena) {
+            this.arena = arena;
+        }
+
+        public int add(long value) {
+            int index = size;
+            int page = index >>> PAGE_BITS;
+            if (page == pages.length) {
+                pages = Arrays.copyOf(pages, pages.length * 2);
+            }
+            if ((index & (PAGE_SIZE - 1)) == 0) {
+                pages[page] = arena.allocate(PAGE_SIZE * Long.BYTES);
+            }
+            size++;
+            set(index, value);
+            return index;
+        }
+
+        public long get(int index) {
+            return arena.getLong(slot(index));
+        }
+
+        public void set(int index, long value) {
+            arena.putLong(slot(index), value);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private long slot(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return pages[index >>> PAGE_BITS] + (long) (index & (PAGE_SIZE - 1)) * Long.BYTES;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps class summaries in an OffHeapArena. The heap only holds one page
+ * directory entry per 8192 classes; get returns a small flyweight that reads
+ * the record in place, and reuse lets hot loops walk many classes with a
+ * single flyweight.
+ */
+public final class OffHeapSummaryStore implements SummaryStore {
+
+    private final OffHeapArena arena;
+    private final OffHeapArena.LongArray addresses;
+
+    public OffHeapSummaryStore(OffHeapArena arena) {
+        this.arena = arena;
+        this.addresses = new OffHeapArena.LongArray(arena);
+    }
+
+    @Override
+    public synchronized int put(int[] words) {
+        long address = arena.allocate(words.length * Integer.BYTES);
+        ByteBuffer segment = arena.segment(address);
+        int offset = OffHeapArena.offset(address);
+        for (int i = 0; i < words.length; i++) {
+            segment.putInt(offset + i * Integer.BYTES, words[i]);
+        }
+        return addresses.add(address);
+    }
+
+    @Override
+    public ClassSummary get(int handle) {
+        return reuse(new Flyweight(), handle);
+    }
+
+    /**
+     * Points an existing flyweight at another record instead of allocating.
+     */
+    public Flyweight reuse(Flyweight flyweight, int handle) {
+        long address;
+        synchronized (this) {
+            address = addresses.get(handle);
+        }
+        flyweight.segment = arena.segment(address);
+        flyweight.base = OffHeapArena.offset(address);
+        return flyweight;
+    }
+
+    @Override
+    public synchronized int size() {
+        return addresses.size();
+    }
+
+    public static final class Flyweight extends ClassSummary {
+        private ByteBuffer segment;
+        private int base;
+
+        @Override
+        protected int word(int offset) {
+            return segment.getInt(base + offset * Integer.BYTES);
+        }
+    }
+}
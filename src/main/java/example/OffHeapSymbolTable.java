@@ -0,0 +1,151 @@
+package example;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * SymbolTable whose strings, id directory and hash table all live outside
+ * the heap. Each symbol is stored once as [hash][length|wide][chars], with
+ * Latin-1 symbols taking one byte per char.
+ *
+ * symbol(id) decodes a new String on every call, so hot paths should compare
+ * ids rather than names.
+ */
+public final class OffHeapSymbolTable implements SymbolTable {
+
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+
+    private final OffHeapArena arena;
+    private final OffHeapArena.LongArray addresses;
+    private IntBuffer slots;
+    private int mask;
+
+    public OffHeapSymbolTable(OffHeapArena arena) {
+        this.arena = arena;
+        this.addresses = new OffHeapArena.LongArray(arena);
+        resize(1 << 16);
+    }
+
+    @Override
+    public synchronized int intern(String symbol) {
+        if (symbol == null) return NONE;
+        int hash = symbol.hashCode();
+        int slot = findSlot(symbol, hash);
+        int entry = slots.get(slot);
+        if (entry != 0) return entry - 1;
+
+        int id = addresses.add(write(symbol, hash));
+        slots.put(slot, id + 1);
+        if (addresses.size() * 2 > slots.capacity()) {
+            resize(slots.capacity() * 2);
+        }
+        return id;
+    }
+
+    @Override
+    public synchronized int lookup(String symbol) {
+        if (symbol == null) return NONE;
+        return slots.get(findSlot(symbol, symbol.hashCode())) - 1;
+    }
+
+    @Override
+    public synchronized String symbol(int id) {
+        if (id < 0 || id >= addresses.size()) return null;
+        long address = addresses.get(id);
+        ByteBuffer segment = arena.segment(address);
+        int offset = OffHeapArena.offset(address);
+
+        int header = segment.getInt(offset + Integer.BYTES);
+        int length = header >>> 1;
+        boolean wide = (header & 1) != 0;
+        int chars = offset + RECORD_HEADER;
+
+        char[] out = new char[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = wide ? segment.getChar(chars + 2 * i) : (char) (segment.get(chars + i) & 0xFF);
+        }
+        return new String(out);
+    }
+
+    @Override
+    public synchronized int size() {
+        return addresses.size();
+    }
+
+    private int findSlot(String symbol, int hash) {
+        int slot = mix(hash) & mask;
+        while (true) {
+            int entry = slots.get(slot);
+            if (entry == 0 || matches(addresses.get(entry - 1), symbol, hash)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(long address, String symbol, int hash) {
+        ByteBuffer segment = arena.segment(address);
+        int offset = OffHeapArena.offset(address);
+        if (segment.getInt(offset) != hash) return false;
+
+        int header = segment.getInt(offset + Integer.BYTES);
+        int length = header >>> 1;
+        if (length != symbol.length()) return false;
+
+        boolean wide = (header & 1) != 0;
+        int chars = offset + RECORD_HEADER;
+        for (int i = 0; i < length; i++) {
+            char stored = wide ? segment.getChar(chars + 2 * i) : (char) (segment.get(chars + i) & 0xFF);
+            if (stored != symbol.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private long write(String symbol, int hash) {
+        int length = symbol.length();
+        boolean wide = false;
+        for (int i = 0; i < length && !wide; i++) {
+            wide = symbol.charAt(i) > 0xFF;
+        }
+
+        long address = arena.allocate(RECORD_HEADER + (wide ? 2 * length : length));
+        ByteBuffer segment = arena.segment(address);
+        int offset = OffHeapArena.offset(address);
+        segment.putInt(offset, hash);
+        segment.putInt(offset + Integer.BYTES, (length << 1) | (wide ? 1 : 0));
+
+        int chars = offset + RECORD_HEADER;
+        for (int i = 0; i < length; i++) {
+            if (wide) {
+                segment.putChar(chars + 2 * i, symbol.charAt(i));
+            } else {
+                segment.put(chars + i, (byte) symbol.charAt(i));
+            }
+        }
+        return address;
+    }
+
+    private void resize(int capacity) {
+        IntBuffer table = ByteBuffer.allocateDirect(capacity * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        int tableMask = capacity - 1;
+
+        for (int id = 0; id < addresses.size(); id++) {
+            int slot = mix(arena.getInt(addresses.get(id))) & tableMask;
+            while (table.get(slot) != 0) {
+                slot = (slot + 1) & tableMask;
+            }
+            table.put(slot, id + 1);
+        }
+
+        slots = table;
+        mask = tableMask;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
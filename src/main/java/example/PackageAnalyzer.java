@@ -1,21 +1,13 @@
 package example;
 
-import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * Analyzes entire packages for cyclic dependencies between classes
@@ -46,11 +38,9 @@ public class PackageAnalyzer {
         System.out.println("Analyzing package: " + packagePath);
         System.out.println("----------------------------------------");
         
-        try {
-            // Load all classes in the package
-            Map<String, ClassNode> allClasses = loadPackageClasses(packagePath);
-            
-            if (allClasses.isEmpty()) {
+        // Summarize all classes in the package
+        try (ClassSummaryIndex allClasses = loadPackageClasses(packagePath)) {
+            if (allClasses.size() == 0) {
                 System.out.println("No classes found in package\n");
                 return;
             }
@@ -58,7 +48,7 @@ public class PackageAnalyzer {
             System.out.println("Found " + allClasses.size() + " classes");
             
             // Create a single cyclic dependency linter with all classes
-            ClassNode firstClass = allClasses.values().iterator().next();
+            ClassNode firstClass = allClasses.loadNode(allClasses.classNames().iterator().next());
             CycleDependencyLinter linter = new CycleDependencyLinter(firstClass, allClasses);
             linter.lintClass();
             
@@ -69,9 +59,7 @@ public class PackageAnalyzer {
         }
     }
 
-    private static Map<String, ClassNode> loadPackageClasses(String packagePath) throws IOException {
-        Map<String, ClassNode> classes = new HashMap<>();
-        
+    private static ClassSummaryIndex loadPackageClasses(String packagePath) throws IOException {
         // Convert package path to directory path
         String dirPath = "../main/resources/" + packagePath.replace('.', '/');
         Path packageDir = Paths.get(dirPath);
@@ -85,33 +73,9 @@ public class PackageAnalyzer {
         
         if (!Files.exists(packageDir) || !Files.isDirectory(packageDir)) {
             System.err.println("Package directory not found: " + packageDir);
-            return classes;
-        }
-        
-        // Find all .class files in the directory
-        try (Stream<Path> paths = Files.walk(packageDir, 1)) {
-            paths.filter(Files::isRegularFile)
-                 .filter(p -> p.toString().endsWith(".class"))
-                 .forEach(classFile -> {
-                     try {
-                         ClassNode classNode = loadClassFromFile(classFile);
-                         if (classNode != null) {
-                             classes.put(classNode.name, classNode);
-                         }
-                     } catch (IOException e) {
-                         System.err.println("Error loading " + classFile + ": " + e.getMessage());
-                     }
-                 });
+            return new ClassSummaryIndex();
         }
         
-        return classes;
-    }
-
-    private static ClassNode loadClassFromFile(Path classFile) throws IOException {
-        byte[] classBytes = Files.readAllBytes(classFile);
-        ClassReader classReader = new ClassReader(classBytes);
-        ClassNode classNode = new ClassNode();
-        classReader.accept(classNode, ClassReader.EXPAND_FRAMES);
-        return classNode;
+        return ClassSummaryIndex.fromDirectory(packageDir, 1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,190 @@
+package example;
+
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.*;
+
+/**
+ * Robert Martin's package metrics over the shared DependencyGraph, per class
+ * and per package:
+ * - Ca (afferent coupling): classes outside that depend on it
+ * - Ce (efferent coupling): classes outside that it depends on
+ * - I = Ce / (Ca + Ce) (instability)
+ * - A = abstract classes / classes (abstractness)
+ * - D = |A + I - 1| (distance from the main sequence)
+ *
+ * For a single class, "outside" means any other class. Everything is
+ * computed in one pass over the graph's nodes and edges, walking the
+ * classes package by package. Tables are sorted by
+ * the PackageMetrics.sortBy setting (name, classes, ca, ce, i, a or d;
+ * default d). PackageMetrics.format = tsv prints tab-separated rows for
+ * external sorting, and PackageMetrics.classes = false leaves out the class
+ * table.
+ */
+public class PackageMetricsLinter implements Linter {
+
+    private static final String NAME = "PackageMetrics";
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
+
+    public PackageMetricsLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public PackageMetricsLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    public PackageMetricsLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
+        this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.PRINCIPLE;
+    }
+
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
+    @Override
+    public void lintClass() {
+        DependencyGraph graph = DependencyGraph.of(index);
+        int n = graph.size();
+        if (n == 0) {
+            System.out.println("No classes for package metrics");
+            return;
+        }
+
+        int packages = graph.packageCount();
+
+        // One pass over every class and its edges, package by package
+        List<Row> classRows = new ArrayList<>(n);
+        List<Row> packageRows = new ArrayList<>(packages);
+        int[] targetStamp = new int[n];
+        int[] sourceStamp = new int[n];
+        Arrays.fill(targetStamp, -1);
+        Arrays.fill(sourceStamp, -1);
+
+        for (int p = 0; p < packages; p++) {
+            int ca = 0;
+            int ce = 0;
+            int abstractClasses = 0;
+            for (int k = 0; k < graph.packageSize(p); k++) {
+                int node = graph.packageMember(p, k);
+                boolean isAbstract = graph.summary(node).isAbstract();
+                if (isAbstract) abstractClasses++;
+                classRows.add(new Row(graph.name(node).replace('/', '.'), 1,
+                        graph.inDegree(node), graph.outDegree(node), isAbstract ? 1 : 0));
+
+                for (int i = 0; i < graph.outDegree(node); i++) {
+                    int target = graph.dependency(node, i);
+                    if (graph.packageOf(target) != p && targetStamp[target] != p) {
+                        targetStamp[target] = p;
+                        ce++;
+                    }
+                }
+                for (int i = 0; i < graph.inDegree(node); i++) {
+                    int source = graph.dependent(node, i);
+                    if (graph.packageOf(source) != p && sourceStamp[source] != p) {
+                        sourceStamp[source] = p;
+                        ca++;
+                    }
+                }
+            }
+            int classes = graph.packageSize(p);
+            packageRows.add(new Row(graph.packageName(p), classes, ca, ce, (double) abstractClasses / classes));
+        }
+
+        Comparator<Row> order = comparator(settings.get(NAME, "sortBy", "d"));
+        boolean tsv = settings.get(NAME, "format", "table").equalsIgnoreCase("tsv");
+
+        packageRows.sort(order);
+        System.out.println("Package metrics (" + packages + " packages, " + n + " classes):");
+        print(packageRows, "package", tsv);
+
+        if (Boolean.parseBoolean(settings.get(NAME, "classes", "true"))) {
+            classRows.sort(order);
+            System.out.println("Class metrics:");
+            print(classRows, "class", tsv);
+        }
+    }
+
+    private static Comparator<Row> comparator(String key) {
+        Comparator<Row> byName = Comparator.comparing(r -> r.name);
+        switch (key.trim().toLowerCase()) {
+            case "name":
+                return byName;
+            case "classes":
+                return Comparator.<Row>comparingInt(r -> r.classes).reversed().thenComparing(byName);
+            case "ca":
+                return Comparator.<Row>comparingInt(r -> r.ca).reversed().thenComparing(byName);
+            case "ce":
+                return Comparator.<Row>comparingInt(r -> r.ce).reversed().thenComparing(byName);
+            case "i":
+                return Comparator.<Row>comparingDouble(r -> r.instability).reversed().thenComparing(byName);
+            case "a":
+                return Comparator.<Row>comparingDouble(r -> r.abstractness).reversed().thenComparing(byName);
+            case "d":
+                return Comparator.<Row>comparingDouble(r -> r.distance).reversed().thenComparing(byName);
+            default:
+                System.err.println("Unknown " + NAME + ".sortBy: " + key + ", sorting by d");
+                return Comparator.<Row>comparingDouble(r -> r.distance).reversed().thenComparing(byName);
+        }
+    }
+
+    private static void print(List<Row> rows, String label, boolean tsv) {
+        boolean packages = label.equals("package");
+        if (tsv) {
+            System.out.println(label + (packages ? "\tclasses" : "") + "\tCa\tCe\tI\tA\tD");
+            for (Row r : rows) {
+                System.out.println(r.name + (packages ? "\t" + r.classes : "") + "\t" + r.ca + "\t" + r.ce + "\t"
+                        + format(r.instability) + "\t" + format(r.abstractness) + "\t" + format(r.distance));
+            }
+            return;
+        }
+
+        int width = label.length();
+        for (Row r : rows) width = Math.max(width, r.name.length());
+        String name = "  %-" + width + "s";
+        String metrics = " %5s %5s %5s %5s %5s%n";
+        System.out.printf(name + (packages ? " %7s" : "") + metrics,
+                packages ? new Object[] {label, "classes", "Ca", "Ce", "I", "A", "D"}
+                        : new Object[] {label, "Ca", "Ce", "I", "A", "D"});
+        for (Row r : rows) {
+            String values = String.format(metrics, r.ca, r.ce,
+                    format(r.instability), format(r.abstractness), format(r.distance));
+            System.out.print(String.format(name, r.name) + (packages ? String.format(" %7d", r.classes) : "") + values);
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static final class Row {
+        final String name;
+        final int classes;
+        final int ca;
+        final int ce;
+        final double instability;
+        final double abstractness;
+        final double distance;
+
+        Row(String name, int classes, int ca, int ce, double abstractness) {
+            this.name = name;
+            this.classes = classes;
+            this.ca = ca;
+            this.ce = ce;
+            this.instability = ca + ce == 0 ? 0.0 : (double) ce / (ca + ce);
+            this.abstractness = abstractness;
+            this.distance = Math.abs(abstractness + instability - 1.0);
+        }
+    }
+}
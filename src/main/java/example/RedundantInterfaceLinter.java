@@ -0,0 +1,118 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds interfaces that add nothing, over the shared TypeHierarchy:
+ * - a class or interface that lists an interface which another of its
+ *   direct supertypes already implements
+ * - a marker-like interface (no methods, no superinterfaces) implemented by
+ *   exactly one indexed class
+ * - an empty sub-interface: no methods of its own and a single
+ *   superinterface, so it is only another name for it
+ *
+ * Interfaces combining several superinterfaces are not reported, and
+ * annotation types are ignored.
+ */
+public class RedundantInterfaceLinter implements Linter {
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+
+    public RedundantInterfaceLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this.classNode = classNode;
+        this.index = index;
+    }
+
+    public RedundantInterfaceLinter(ClassNode classNode, Map<String, ClassNode> allClasses) {
+        this(classNode, ClassSummaryIndex.fromNodes(allClasses));
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.PRINCIPLE;
+    }
+
+    @Override
+    public boolean isPerClass() {
+        return false;
+    }
+
+    @Override
+    public void lintClass() {
+        TypeHierarchy hierarchy = TypeHierarchy.of(index);
+        List<String> findings = new ArrayList<>();
+
+        // Indexed classes that implement each type, found from every class's ancestors once
+        int[] implementors = new int[hierarchy.size()];
+        int[] lastImplementor = new int[hierarchy.size()];
+        for (int node = 0; node < index.size(); node++) {
+            if (hierarchy.summary(node).isInterface()) continue;
+            for (int ancestor : hierarchy.ancestors(node)) {
+                implementors[ancestor]++;
+                lastImplementor[ancestor] = node;
+            }
+        }
+
+        for (int node = 0; node < index.size(); node++) {
+            ClassSummary summary = hierarchy.summary(node);
+            if ((summary.access() & (Opcodes.ACC_ANNOTATION | Opcodes.ACC_SYNTHETIC)) != 0) continue;
+            String name = label(hierarchy, node);
+
+            // 1) Interfaces already implemented through another direct supertype
+            for (int i = 0; i < hierarchy.superCount(node); i++) {
+                int listed = hierarchy.superAt(node, i);
+                // The superclass, java/lang/Object for interfaces, comes first
+                if (summary.superName() >= 0 && i == 0) continue;
+                for (int j = 0; j < hierarchy.superCount(node); j++) {
+                    int other = hierarchy.superAt(node, j);
+                    if (j != i && other != listed && hierarchy.isSubtype(other, listed)) {
+                        findings.add("[RedundantInterface] " + name + " redeclares " + label(hierarchy, listed)
+                                + ", already implemented through " + label(hierarchy, other));
+                        break;
+                    }
+                }
+            }
+
+            if (!summary.isInterface() || declaresMethods(summary)) continue;
+
+            // 2) Marker-like interfaces with one implementor
+            if (summary.interfaceCount() == 0 && implementors[node] == 1) {
+                findings.add("[RedundantInterface] " + name + " is a marker-like interface implemented only by "
+                        + label(hierarchy, lastImplementor[node]));
+            }
+
+            // 3) Empty sub-interfaces
+            if (summary.interfaceCount() == 1) {
+                findings.add("[RedundantInterface] " + name + " is empty and only renames "
+                        + index.symbol(summary.interfaceAt(0)).replace('/', '.'));
+            }
+        }
+
+        if (findings.isEmpty()) {
+            System.out.println("No redundant interfaces in " + index.size() + " classes");
+        } else {
+            findings.forEach(System.out::println);
+        }
+    }
+
+    // Static initializers of constant interfaces are not methods of the interface
+    private boolean declaresMethods(ClassSummary summary) {
+        for (int m = 0; m < summary.methodCount(); m++) {
+            if ((summary.methodAccess(m) & Opcodes.ACC_SYNTHETIC) == 0
+                    && !index.symbol(summary.methodName(m)).equals("<clinit>")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String label(TypeHierarchy hierarchy, int node) {
+        return hierarchy.name(node).replace('/', '.');
+    }
+}
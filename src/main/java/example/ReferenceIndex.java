@@ -0,0 +1,187 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Which declared members of a ClassSummaryIndex are referenced from
+ * somewhere else in the index. Every method and field gets a dense member
+ * id, numbered class by class (methods first, then fields, in summary
+ * order), and is found by (class, name, descriptor) symbol ids through an
+ * open-addressing table.
+ *
+ * Each call site and field access is resolved once, the way the JVM
+ * resolves it: in the named class, then up its indexed superclasses and
+ * interfaces. A member's references from inside its own body do not count.
+ * Virtual and interface calls also record their name and descriptor as
+ * dispatched, since any override of that signature may be the one that
+ * runs. Building the index is linear in the number of call sites and field
+ * accesses. Obtain it with of(index) so every linter of a run shares one.
+ */
+public final class ReferenceIndex {
+
+    private static final int MAX_HIERARCHY_DEPTH = 64;
+
+    private final ClassSummaryIndex index;
+    private final int[] firstMember;
+    private final int[] firstField;
+    private final int[] memberClass;
+    private final int[] memberName;
+    private final int[] memberDesc;
+    private final int[] table;
+    private final BitSet referenced = new BitSet();
+    private final Set<Long> dispatched = new HashSet<>();
+
+    public static ReferenceIndex of(ClassSummaryIndex index) {
+        return index.shared(ReferenceIndex.class, ReferenceIndex::new);
+    }
+
+    private ReferenceIndex(ClassSummaryIndex index) {
+        this.index = index;
+        int size = index.size();
+
+        // 1) Dense member ids
+        firstMember = new int[size + 1];
+        firstField = new int[size];
+        for (int c = 0; c < size; c++) {
+            ClassSummary summary = index.summaries().get(c);
+            firstField[c] = firstMember[c] + summary.methodCount();
+            firstMember[c + 1] = firstField[c] + summary.fieldCount();
+        }
+        int members = firstMember[size];
+        memberClass = new int[members];
+        memberName = new int[members];
+        memberDesc = new int[members];
+        table = new int[Integer.highestOneBit(Math.max(members, 8) * 2) * 2];
+        for (int c = 0; c < size; c++) {
+            ClassSummary summary = index.summaries().get(c);
+            for (int i = 0; i < summary.methodCount(); i++) {
+                insert(firstMember[c] + i, c, summary.methodName(i), summary.methodDesc(i));
+            }
+            for (int i = 0; i < summary.fieldCount(); i++) {
+                insert(firstField[c] + i, c, summary.fieldName(i), summary.fieldDesc(i));
+            }
+        }
+
+        // 2) Resolve every call site and field access once
+        for (int c = 0; c < size; c++) {
+            ClassSummary summary = index.summaries().get(c);
+            for (int i = 0; i < summary.callCount(); i++) {
+                int opcode = summary.callOpcode(i);
+                if (opcode == Opcodes.INVOKEVIRTUAL || opcode == Opcodes.INVOKEINTERFACE) {
+                    dispatched.add(signature(summary.callName(i), summary.callDesc(i)));
+                }
+                mark(firstMember[c] + summary.callMethod(i),
+                        resolve(summary.callOwner(i), summary.callName(i), summary.callDesc(i)));
+            }
+            for (int i = 0; i < summary.fieldRefCount(); i++) {
+                mark(firstMember[c] + summary.fieldRefMethod(i),
+                        resolve(summary.fieldRefOwner(i), summary.fieldRefName(i), summary.fieldRefDesc(i)));
+            }
+        }
+    }
+
+    private void insert(int member, int owner, int name, int desc) {
+        memberClass[member] = owner;
+        memberName[member] = name;
+        memberDesc[member] = desc;
+        int mask = table.length - 1;
+        for (int slot = hash(owner, name, desc) & mask; ; slot = (slot + 1) & mask) {
+            if (table[slot] == 0) {
+                table[slot] = member + 1;
+                return;
+            }
+        }
+    }
+
+    private void mark(int site, int target) {
+        if (target >= 0 && target != site) {
+            referenced.set(target);
+        }
+    }
+
+    private static int hash(int owner, int name, int desc) {
+        int h = owner * 0x9E3779B1 + name;
+        h = h * 0x9E3779B1 + desc;
+        return h ^ (h >>> 16);
+    }
+
+    private static long signature(int name, int desc) {
+        return ((long) name << 32) | (desc & 0xFFFFFFFFL);
+    }
+
+    public int memberCount() {
+        return memberClass.length;
+    }
+
+    /**
+     * Id of the first member of the class at the given index position; its
+     * methods come first, then its fields.
+     */
+    public int firstMember(int position) {
+        return firstMember[position];
+    }
+
+    public int firstField(int position) {
+        return firstField[position];
+    }
+
+    public int memberClass(int member) {
+        return memberClass[member];
+    }
+
+    public boolean isField(int member) {
+        return member >= firstField[memberClass[member]];
+    }
+
+    public boolean isReferenced(int member) {
+        return referenced.get(member);
+    }
+
+    /**
+     * True if some virtual or interface call in the index uses this name and
+     * descriptor.
+     */
+    public boolean isDispatched(int name, int desc) {
+        return dispatched.contains(signature(name, desc));
+    }
+
+    /**
+     * Member declared by the indexed class with exactly this name and
+     * descriptor, or -1.
+     */
+    public int find(int position, int name, int desc) {
+        int mask = table.length - 1;
+        for (int slot = hash(position, name, desc) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int member = table[slot] - 1;
+            if (memberClass[member] == position && memberName[member] == name && memberDesc[member] == desc) {
+                return member;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Member a reference to owner.name:desc resolves to within the index,
+     * or -1 if it is declared outside it.
+     */
+    public int resolve(int owner, int name, int desc) {
+        return resolveIn(index.positionOf(owner), name, desc, 0);
+    }
+
+    private int resolveIn(int position, int name, int desc, int depth) {
+        if (position < 0 || depth > MAX_HIERARCHY_DEPTH) return -1;
+        int member = find(position, name, desc);
+        if (member >= 0) return member;
+
+        ClassSummary summary = index.summaries().get(position);
+        member = resolveIn(index.positionOf(summary.superName()), name, desc, depth + 1);
+        for (int i = 0; member < 0 && i < summary.interfaceCount(); i++) {
+            member = resolveIn(index.positionOf(summary.interfaceAt(i)), name, desc, depth + 1);
+        }
+        return member;
+    }
+}
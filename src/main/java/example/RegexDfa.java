@@ -0,0 +1,458 @@
+package example;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A regular expression compiled into a deterministic automaton with a dense
+ * transition table, for whole-name matching of identifiers. Matching is one
+ * table lookup per character with no allocation and no backtracking, and the
+ * answers for up to MEMO_LIMIT distinct names are memoized.
+ *
+ * Supported syntax is the subset naming rules need: literals, ., character
+ * classes with ranges and negation, \d \w \s and their negations, groups,
+ * |, *, +, ? and {m}, {m,}, {m,n}. A leading ^ and trailing $ are accepted
+ * and ignored, since the whole name must always match. Classes and escapes
+ * are ASCII; any other input character only matches . and negated classes.
+ *
+ * compile builds a new automaton on every call. A run compiles each pattern
+ * once through a Cache, which it drops with the run, memos included.
+ */
+public final class RegexDfa {
+
+    private static final int ALPHABET = 129;
+    private static final int OTHER = 128;
+    private static final int MAX_STATES = 4096;
+    private static final int MAX_REPEAT = 100;
+    private static final int MEMO_LIMIT = 1 << 16;
+
+    private final String pattern;
+    private final int[] delta;
+    private final boolean[] accepting;
+    private final Map<String, Boolean> memo = new ConcurrentHashMap<>();
+
+    private RegexDfa(String pattern, int[] delta, boolean[] accepting) {
+        this.pattern = pattern;
+        this.delta = delta;
+        this.accepting = accepting;
+    }
+
+    /**
+     * A new automaton for pattern.
+     *
+     * @throws IllegalArgumentException if the pattern is malformed or uses
+     *         unsupported syntax
+     */
+    public static RegexDfa compile(String pattern) {
+        Nfa nfa = new Nfa();
+        int start = nfa.build(new Parser(pattern).parse(), nfa.state(null));
+        return determinize(pattern, nfa, start);
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public int stateCount() {
+        return accepting.length;
+    }
+
+    /**
+     * True if the whole name matches the pattern.
+     */
+    public boolean matches(String name) {
+        if (name == null) return false;
+        Boolean cached = memo.get(name);
+        if (cached == null) {
+            cached = scan(name);
+            // Past the limit names are scanned each time, which is still one lookup per character
+            if (memo.size() < MEMO_LIMIT) memo.put(name, cached);
+        }
+        return cached;
+    }
+
+    private boolean scan(String name) {
+        // State 0 is the start state
+        int state = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            state = delta[state * ALPHABET + (c >= OTHER ? OTHER : c)];
+            if (state < 0) return false;
+        }
+        return accepting[state];
+    }
+
+    /**
+     * The automata of one run, by pattern. Obtain it with
+     * index.shared(RegexDfa.Cache.class, ...) so that it goes with the index.
+     */
+    public static final class Cache {
+        private final Map<String, RegexDfa> compiled = new ConcurrentHashMap<>();
+
+        /**
+         * The automaton for pattern, built on first use.
+         *
+         * @throws IllegalArgumentException as compile does
+         */
+        public RegexDfa compile(String pattern) {
+            RegexDfa dfa = compiled.get(pattern);
+            if (dfa == null) {
+                dfa = RegexDfa.compile(pattern);
+                RegexDfa raced = compiled.putIfAbsent(pattern, dfa);
+                if (raced != null) dfa = raced;
+            }
+            return dfa;
+        }
+    }
+
+    // ---------------- subset construction ----------------
+
+    private static RegexDfa determinize(String pattern, Nfa nfa, int start) {
+        Map<BitSet, Integer> ids = new HashMap<>();
+        List<BitSet> states = new ArrayList<>();
+        BitSet first = nfa.closure(singleton(start));
+        ids.put(first, 0);
+        states.add(first);
+
+        int[] delta = new int[ALPHABET * 16];
+        for (int d = 0; d < states.size(); d++) {
+            BitSet current = states.get(d);
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                BitSet next = new BitSet();
+                for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+                    boolean[] set = nfa.sets.get(s);
+                    if (set != null && set[symbol]) next.set(nfa.next1.get(s));
+                }
+
+                // The empty set is the dead state, left as -1
+                int target = -1;
+                if (!next.isEmpty()) {
+                    next = nfa.closure(next);
+                    Integer id = ids.get(next);
+                    if (id == null) {
+                        if (states.size() == MAX_STATES) {
+                            throw new IllegalArgumentException("Pattern is too complex: " + pattern);
+                        }
+                        id = states.size();
+                        ids.put(next, id);
+                        states.add(next);
+                    }
+                    target = id;
+                }
+                if ((d + 1) * ALPHABET > delta.length) delta = Arrays.copyOf(delta, delta.length * 2);
+                delta[d * ALPHABET + symbol] = target;
+            }
+        }
+
+        boolean[] accepting = new boolean[states.size()];
+        for (int d = 0; d < accepting.length; d++) {
+            accepting[d] = states.get(d).get(nfa.match);
+        }
+        return new RegexDfa(pattern, Arrays.copyOf(delta, states.size() * ALPHABET), accepting);
+    }
+
+    private static BitSet singleton(int state) {
+        BitSet set = new BitSet();
+        set.set(state);
+        return set;
+    }
+
+    // ---------------- Thompson NFA ----------------
+
+    /**
+     * NFA states: a character set with one successor, an epsilon split with
+     * up to two successors, or the single match state. Fragments are built
+     * back to front, each given the state it continues into.
+     */
+    private static final class Nfa {
+        final List<boolean[]> sets = new ArrayList<>();
+        final List<Integer> next1 = new ArrayList<>();
+        final List<Integer> next2 = new ArrayList<>();
+        int match = -1;
+
+        int state(boolean[] set) {
+            sets.add(set);
+            next1.add(-1);
+            next2.add(-1);
+            if (match < 0) match = sets.size() - 1;
+            return sets.size() - 1;
+        }
+
+        int split(int a, int b) {
+            int s = state(null);
+            next1.set(s, a);
+            next2.set(s, b);
+            return s;
+        }
+
+        int build(Node node, int target) {
+            if (node instanceof CharSet) {
+                int s = state(((CharSet) node).set);
+                next1.set(s, target);
+                return s;
+            }
+            if (node instanceof Concat) {
+                List<Node> parts = ((Concat) node).parts;
+                for (int i = parts.size() - 1; i >= 0; i--) {
+                    target = build(parts.get(i), target);
+                }
+                return target;
+            }
+            if (node instanceof Alternation) {
+                List<Node> options = ((Alternation) node).options;
+                int start = build(options.get(options.size() - 1), target);
+                for (int i = options.size() - 2; i >= 0; i--) {
+                    start = split(build(options.get(i), target), start);
+                }
+                return start;
+            }
+            Repeat repeat = (Repeat) node;
+            int start = target;
+            if (repeat.max < 0) {
+                int loop = split(-1, target);
+                next1.set(loop, build(repeat.body, loop));
+                start = loop;
+            } else {
+                for (int i = repeat.min; i < repeat.max; i++) {
+                    start = split(build(repeat.body, start), target);
+                }
+            }
+            for (int i = 0; i < repeat.min; i++) {
+                start = build(repeat.body, start);
+            }
+            return start;
+        }
+
+        BitSet closure(BitSet states) {
+            BitSet closed = (BitSet) states.clone();
+            Deque<Integer> pending = new ArrayDeque<>();
+            for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) pending.push(s);
+            while (!pending.isEmpty()) {
+                int s = pending.pop();
+                if (sets.get(s) != null) continue;
+                for (int next : new int[] { next1.get(s), next2.get(s) }) {
+                    if (next >= 0 && !closed.get(next)) {
+                        closed.set(next);
+                        pending.push(next);
+                    }
+                }
+            }
+            return closed;
+        }
+    }
+
+    // ---------------- parser ----------------
+
+    private interface Node {
+    }
+
+    private static final class CharSet implements Node {
+        final boolean[] set;
+
+        CharSet(boolean[] set) {
+            this.set = set;
+        }
+    }
+
+    private static final class Concat implements Node {
+        final List<Node> parts;
+
+        Concat(List<Node> parts) {
+            this.parts = parts;
+        }
+    }
+
+    private static final class Alternation implements Node {
+        final List<Node> options;
+
+        Alternation(List<Node> options) {
+            this.options = options;
+        }
+    }
+
+    private static final class Repeat implements Node {
+        final Node body;
+        final int min;
+        final int max;
+
+        Repeat(Node body, int min, int max) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Recursive descent: alternation of concatenations of quantified atoms.
+     */
+    private static final class Parser {
+        private final String pattern;
+        private int pos;
+        private int end;
+
+        Parser(String pattern) {
+            this.pattern = pattern;
+            this.end = pattern.length();
+            if (end > 0 && pattern.charAt(0) == '^') pos = 1;
+            if (end > pos && pattern.charAt(end - 1) == '$' && (end < 2 || pattern.charAt(end - 2) != '\\')) end--;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (pos < end) throw error("Unexpected '" + pattern.charAt(pos) + "'");
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> options = new ArrayList<>();
+            options.add(concatenation());
+            while (pos < end && pattern.charAt(pos) == '|') {
+                pos++;
+                options.add(concatenation());
+            }
+            return options.size() == 1 ? options.get(0) : new Alternation(options);
+        }
+
+        private Node concatenation() {
+            List<Node> parts = new ArrayList<>();
+            while (pos < end && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+                parts.add(quantified(atom()));
+            }
+            return parts.size() == 1 ? parts.get(0) : new Concat(parts);
+        }
+
+        private Node quantified(Node atom) {
+            while (pos < end) {
+                char c = pattern.charAt(pos);
+                if (c == '*') {
+                    atom = new Repeat(atom, 0, -1);
+                } else if (c == '+') {
+                    atom = new Repeat(atom, 1, -1);
+                } else if (c == '?') {
+                    atom = new Repeat(atom, 0, 1);
+                } else if (c == '{') {
+                    int close = pattern.indexOf('}', pos);
+                    if (close < 0 || close >= end) throw error("Unclosed {");
+                    String[] bounds = pattern.substring(pos + 1, close).split(",", -1);
+                    try {
+                        int min = Integer.parseInt(bounds[0].trim());
+                        int max = bounds.length == 1 ? min
+                                : bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+                        if (bounds.length > 2 || min > MAX_REPEAT || max > MAX_REPEAT || (max >= 0 && max < min)) {
+                            throw error("Bad repetition");
+                        }
+                        atom = new Repeat(atom, min, max);
+                    } catch (NumberFormatException e) {
+                        throw error("Bad repetition");
+                    }
+                    pos = close;
+                } else {
+                    return atom;
+                }
+                pos++;
+            }
+            return atom;
+        }
+
+        private Node atom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (pattern.startsWith("?:", pos)) pos += 2;
+                    Node group = alternation();
+                    if (pos >= end || pattern.charAt(pos) != ')') throw error("Unclosed (");
+                    pos++;
+                    return group;
+                case '[':
+                    return new CharSet(characterClass());
+                case '.':
+                    boolean[] any = new boolean[ALPHABET];
+                    Arrays.fill(any, true);
+                    return new CharSet(any);
+                case '\\':
+                    return new CharSet(escape());
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw error("Nothing to repeat");
+                default:
+                    return new CharSet(single(c));
+            }
+        }
+
+        private boolean[] characterClass() {
+            boolean[] set = new boolean[ALPHABET];
+            boolean negate = pos < end && pattern.charAt(pos) == '^';
+            if (negate) pos++;
+            boolean first = true;
+            while (pos < end && (pattern.charAt(pos) != ']' || first)) {
+                first = false;
+                char c = pattern.charAt(pos++);
+                if (c == '\\') {
+                    union(set, escape());
+                    continue;
+                }
+                char to = c;
+                if (pos + 1 < end && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                    to = pattern.charAt(pos + 1);
+                    pos += 2;
+                    if (to < c) throw error("Bad range " + c + "-" + to);
+                }
+                for (int x = c; x <= to && x < OTHER; x++) set[x] = true;
+            }
+            if (pos >= end) throw error("Unclosed [");
+            pos++;
+            if (negate) {
+                for (int x = 0; x < ALPHABET; x++) set[x] = !set[x];
+            }
+            return set;
+        }
+
+        private boolean[] escape() {
+            if (pos >= end) throw error("Trailing \\");
+            char c = pattern.charAt(pos++);
+            boolean[] set = new boolean[ALPHABET];
+            switch (Character.toLowerCase(c)) {
+                case 'd':
+                    for (int x = '0'; x <= '9'; x++) set[x] = true;
+                    break;
+                case 'w':
+                    for (int x = 0; x < OTHER; x++) set[x] = Character.isLetterOrDigit(x) || x == '_';
+                    break;
+                case 's':
+                    for (char x : new char[] { ' ', '\t', '\n', '\r', '\f', 0x0B }) set[x] = true;
+                    break;
+                default:
+                    if (Character.isLetterOrDigit(c)) throw error("Unsupported escape \\" + c);
+                    return single(c);
+            }
+            if (Character.isUpperCase(c)) {
+                for (int x = 0; x < ALPHABET; x++) set[x] = !set[x];
+            }
+            return set;
+        }
+
+        private boolean[] single(char c) {
+            if (c >= OTHER) throw error("Pattern must be ASCII");
+            boolean[] set = new boolean[ALPHABET];
+            set[c] = true;
+            return set;
+        }
+
+        private static void union(boolean[] into, boolean[] from) {
+            for (int x = 0; x < ALPHABET; x++) into[x] |= from[x];
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + pos + " in pattern: " + pattern);
+        }
+    }
+}
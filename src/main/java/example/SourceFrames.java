@@ -0,0 +1,106 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * SourceInterpreter frames of a method, telling which instructions may have
+ * produced each stack and local value. The Analyzer runs once per MethodNode
+ * and the frames are cached while the node is reachable. Linters of one run
+ * get their ClassNodes from the run's ClassNodeCache, so they all share the
+ * frames of a method.
+ */
+public final class SourceFrames {
+
+    private static final Map<MethodNode, SourceFrames> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    // The instructions, not the MethodNode: a value must not keep its weak key alive
+    private final InsnList instructions;
+    private final Frame<SourceValue>[] frames;
+
+    private SourceFrames(MethodNode method, Frame<SourceValue>[] frames) {
+        this.instructions = method.instructions;
+        this.frames = frames;
+    }
+
+    /**
+     * Frames of a method declared by owner, or null when the method has no
+     * code or its bytecode cannot be analyzed.
+     */
+    public static SourceFrames of(String owner, MethodNode method) {
+        SourceFrames cached = CACHE.get(method);
+        if (cached == null) {
+            // Analyzed outside the map's lock; a racing thread's frames are kept if stored first
+            SourceFrames analyzed = analyze(owner, method);
+            cached = CACHE.putIfAbsent(method, analyzed);
+            if (cached == null) cached = analyzed;
+        }
+        return cached.frames == null ? null : cached;
+    }
+
+    private static SourceFrames analyze(String owner, MethodNode method) {
+        if (method.instructions == null || method.instructions.size() == 0) {
+            return new SourceFrames(method, null);
+        }
+        try {
+            return new SourceFrames(method, new Analyzer<>(new SourceInterpreter()).analyze(owner, method));
+        } catch (AnalyzerException e) {
+            return new SourceFrames(method, null);
+        }
+    }
+
+    /**
+     * Frame before the instruction executes, or null if it is unreachable.
+     */
+    public Frame<SourceValue> frameAt(AbstractInsnNode insn) {
+        return frames[instructions.indexOf(insn)];
+    }
+
+    /**
+     * Value depth entries below the top of the stack before insn executes.
+     */
+    public SourceValue stackValue(AbstractInsnNode insn, int depth) {
+        Frame<SourceValue> frame = frameAt(insn);
+        if (frame == null || depth >= frame.getStackSize()) return null;
+        return frame.getStack(frame.getStackSize() - 1 - depth);
+    }
+
+    /**
+     * The receiver of an instance call, or null for static calls.
+     */
+    public SourceValue receiver(MethodInsnNode call) {
+        if (call.getOpcode() == Opcodes.INVOKESTATIC) return null;
+        return stackValue(call, Type.getArgumentTypes(call.desc).length);
+    }
+
+    /**
+     * The value a PUTFIELD or PUTSTATIC stores.
+     */
+    public SourceValue storedValue(FieldInsnNode put) {
+        return stackValue(put, 0);
+    }
+
+    /**
+     * The only instruction that can have produced the value, or null when
+     * there is none or several paths merge different producers.
+     */
+    public static AbstractInsnNode singleSource(SourceValue value) {
+        if (value == null || value.insns.size() != 1) return null;
+        return value.insns.iterator().next();
+    }
+}
@@ -0,0 +1,284 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spell-checks class, method, field and local names. Each name is split
+ * into words at camelCase humps, underscores and digits ("parseHTTPHeader_2"
+ * gives parse, HTTP, Header); all-caps words inside mixed-case names are
+ * taken as acronyms and skipped. Words shorter than SpellCheck.minLength
+ * (default 3) are skipped, and a word also passes when it is a dictionary
+ * word plus s, es, ed, d, ing, er, ers or ly.
+ *
+ * The dictionary is the word list SpellCheck.dictionary (default
+ * src/main/resources/spelling/words.txt: WordNet 3.1 lemmas and their
+ * inflections merged with the words of JDK identifiers; see
+ * WORDNET-LICENSE.txt next to it)
+ * plus the words in SpellCheck.words, opened as a SpellingDictionary.
+ * Results are memoized per word in a table keyed by the word's hash, so
+ * checking a name allocates nothing unless it is reported. As a package
+ * linter every indexed class is streamed from its class file without
+ * building ClassNodes.
+ */
+public class SpellCheckLinter implements Linter {
+
+    private static final String NAME = "SpellCheck";
+    public static final String DEFAULT_DICTIONARY = "src/main/resources/spelling/words.txt";
+
+    private static final String[] SUFFIXES = { "s", "es", "ed", "d", "ing", "er", "ers", "ly" };
+
+    // One memo per dictionary, shared by every linter instance of the run
+    private static final Map<SpellingDictionary, WordMemo> MEMOS = new ConcurrentHashMap<>();
+
+    private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
+
+    public SpellCheckLinter(ClassNode classNode) {
+        this(classNode, null, LinterSettings.global());
+    }
+
+    public SpellCheckLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public SpellCheckLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
+        this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    @Override
+    public LinterType getType() {
+        return LinterType.CHECKSTYLE;
+    }
+
+    /**
+     * With an index the whole index is checked at once.
+     */
+    @Override
+    public boolean isPerClass() {
+        return index == null;
+    }
+
+    @Override
+    public void lintClass() {
+        SpellingDictionary dictionary = SpellingDictionary.open(
+                Paths.get(settings.get(NAME, "dictionary", DEFAULT_DICTIONARY)),
+                settings.getList(NAME, "words", ""));
+        Speller speller = new Speller(dictionary, MEMOS.computeIfAbsent(dictionary, d -> new WordMemo()),
+                Math.max(1, settings.getInt(NAME, "minLength", 3)));
+
+        if (index == null) {
+            classNode.accept(speller);
+        } else {
+            for (String className : index.classNames()) {
+                index.accept(className, speller, ClassReader.SKIP_FRAMES);
+            }
+        }
+
+        if (speller.misspelled == 0) {
+            System.out.println("No spelling errors (" + speller.checked + " names checked)");
+        } else {
+            System.out.println(speller.misspelled + " names with unknown words in " + speller.checked
+                    + " names checked");
+        }
+    }
+
+    /**
+     * Checks the names of every visited class and prints each name with
+     * unknown words.
+     */
+    private static final class Speller extends ClassVisitor {
+        private final SpellingDictionary dictionary;
+        private final WordMemo memo;
+        private final int minLength;
+        private String owner;
+        private int checked;
+        private int misspelled;
+
+        Speller(SpellingDictionary dictionary, WordMemo memo, int minLength) {
+            super(Opcodes.ASM9);
+            this.dictionary = dictionary;
+            this.memo = memo;
+            this.minLength = minLength;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature,
+                String superName, String[] interfaces) {
+            owner = name.replace('/', '.');
+            if ((access & Opcodes.ACC_SYNTHETIC) != 0) return;
+            int start = Math.max(name.lastIndexOf('/'), name.lastIndexOf('$')) + 1;
+            check("class", name, start, owner);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor,
+                String signature, Object value) {
+            if ((access & Opcodes.ACC_SYNTHETIC) == 0) {
+                check("field", name, 0, owner + "." + name);
+            }
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor,
+                String signature, String[] exceptions) {
+            if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0) return null;
+            String method = owner + "." + name + descriptor;
+            if (!name.startsWith("<")) {
+                check("method", name, 0, method);
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitLocalVariable(String local, String descriptor, String signature,
+                        Label start, Label end, int slot) {
+                    if (!local.equals("this") && local.indexOf('$') < 0) {
+                        check("local", local, 0, method);
+                    }
+                }
+            };
+        }
+
+        /**
+         * Splits name[from..] into words and looks each one up; only a name
+         * with unknown words allocates, for its report.
+         */
+        private void check(String kind, String name, int from, String where) {
+            checked++;
+            boolean mixedCase = false;
+            for (int i = from; i < name.length(); i++) {
+                if (Character.isLowerCase(name.charAt(i))) {
+                    mixedCase = true;
+                    break;
+                }
+            }
+
+            List<String> unknown = null;
+            int i = from;
+            int length = name.length();
+            while (i < length) {
+                if (!isLetter(name.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                boolean upperRun = isUpper(name.charAt(i));
+                i++;
+                if (upperRun && i < length && isUpper(name.charAt(i))) {
+                    // Acronym: up to the last capital before a lowercase letter
+                    while (i < length && isUpper(name.charAt(i))) i++;
+                    if (i < length && isLower(name.charAt(i)) && mixedCase) i--;
+                    if (mixedCase) continue;
+                }
+                while (i < length && isLower(name.charAt(i))) i++;
+
+                if (i - start >= minLength && !known(name, start, i)) {
+                    if (unknown == null) unknown = new ArrayList<>();
+                    unknown.add(name.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+            }
+
+            if (unknown != null) {
+                misspelled++;
+                System.out.println("[SpellCheck] " + where + ": " + kind + " name '" + name.substring(from)
+                        + "' has unknown words " + unknown);
+            }
+        }
+
+        private boolean known(String name, int start, int end) {
+            long hash = SpellingDictionary.hash(name, start, end);
+            if (hash == 0) return true;
+            int cached = memo.get(hash);
+            if (cached != WordMemo.MISSING) return cached == 1;
+
+            boolean known = dictionary.contains(name, start, end);
+            for (int s = 0; !known && s < SUFFIXES.length; s++) {
+                known = endsWith(name, start, end, SUFFIXES[s])
+                        && end - start - SUFFIXES[s].length() >= minLength
+                        && dictionary.contains(name, start, end - SUFFIXES[s].length());
+            }
+            memo.put(hash, known);
+            return known;
+        }
+
+        private static boolean endsWith(String name, int start, int end, String suffix) {
+            if (end - start <= suffix.length()) return false;
+            for (int i = 0; i < suffix.length(); i++) {
+                if (Character.toLowerCase(name.charAt(end - suffix.length() + i)) != suffix.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private static boolean isLetter(char c) {
+            return isUpper(c) || isLower(c);
+        }
+
+        private static boolean isUpper(char c) {
+            return c >= 'A' && c <= 'Z';
+        }
+
+        private static boolean isLower(char c) {
+            return c >= 'a' && c <= 'z';
+        }
+    }
+
+    /**
+     * Open-addressing map from a word's 64-bit hash to whether it is known.
+     * Zero marks a free slot; SpellingDictionary.hash never returns it for
+     * an ASCII word.
+     */
+    private static final class WordMemo {
+        static final int MISSING = -1;
+
+        private long[] keys = new long[1024];
+        private boolean[] values = new boolean[1024];
+        private int size;
+
+        synchronized int get(long hash) {
+            int mask = keys.length - 1;
+            for (int slot = (int) hash & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == hash) return values[slot] ? 1 : 0;
+            }
+            return MISSING;
+        }
+
+        synchronized void put(long hash, boolean known) {
+            if (size * 2 >= keys.length) grow();
+            insert(keys, values, hash, known);
+            size++;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            boolean[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) insert(keys, values, oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static void insert(long[] keys, boolean[] values, long hash, boolean known) {
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0 && keys[slot] != hash) slot = (slot + 1) & mask;
+            keys[slot] = hash;
+            values[slot] = known;
+        }
+    }
+}
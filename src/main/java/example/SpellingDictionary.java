@@ -0,0 +1,335 @@
+package example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only set of lowercase ASCII words in a compact binary file that is
+ * memory-mapped, so opening it costs no parsing. Lookups take a range of a
+ * CharSequence, fold case on the fly and never allocate.
+ *
+ * File layout, all big-endian:
+ * - header: magic, word count, table size, bucket count, Bloom filter words
+ * - Bloom filter: longs, three probes per word
+ * - displacement per bucket of the minimal perfect hash
+ * - per table slot: key length in the top byte, key offset in the rest
+ * - key bytes
+ *
+ * The perfect hash uses hash and displace: words are split into buckets by
+ * their hash, and each bucket, largest first, gets the smallest displacement
+ * that sends all its words to free slots. A lookup is then one Bloom filter
+ * test, one displacement read and one key comparison. The Bloom filter
+ * rejects most unknown words without touching the key bytes.
+ *
+ * A word list is compiled on first use into target/linter-cache (or the
+ * directory of -Dlinter.cacheDir) and reused while the list is unchanged;
+ * recompiling a changed list deletes its older compiled files. With the
+ * cache set to "none", and for lists in the temporary directory, which would
+ * only leave orphaned compiled files behind, the compiled form stays on the
+ * heap.
+ */
+public final class SpellingDictionary {
+
+    private static final int MAGIC = 0x53504431; // "SPD1"
+    private static final int HEADER_SIZE = 20;
+    private static final int BLOOM_BITS_PER_WORD = 12;
+    private static final int MAX_WORD_LENGTH = 255;
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+
+    private static final Map<String, SpellingDictionary> OPENED = new ConcurrentHashMap<>();
+
+    private final ByteBuffer buffer;
+    private final int words;
+    private final int tableSize;
+    private final int buckets;
+    private final int bloomWords;
+    private final int displacements;
+    private final int slots;
+    private final int keys;
+
+    private SpellingDictionary(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled dictionary");
+        }
+        this.buffer = buffer;
+        this.words = buffer.getInt(4);
+        this.tableSize = buffer.getInt(8);
+        this.buckets = buffer.getInt(12);
+        this.bloomWords = buffer.getInt(16);
+        this.displacements = HEADER_SIZE + bloomWords * 8;
+        this.slots = displacements + buckets * 4;
+        this.keys = slots + tableSize * 4;
+    }
+
+    /**
+     * The dictionary of a word list file, one word per line, plus extra
+     * words. Opened once per run for the same list and extra words.
+     */
+    public static SpellingDictionary open(Path wordList, Collection<String> extra) {
+        String key = wordList.toAbsolutePath() + "|" + String.join(",", extra);
+        return OPENED.computeIfAbsent(key, k -> {
+            try {
+                return load(wordList, extra);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot load dictionary " + wordList, e);
+            }
+        });
+    }
+
+    private static SpellingDictionary load(Path wordList, Collection<String> extra) throws IOException {
+        String dir = System.getProperty(SupertypeResolver.CACHE_DIR_PROPERTY, "target/linter-cache").trim();
+        if (dir.equals("none") || isTemporary(wordList)) {
+            return fromWords(readWords(wordList, extra));
+        }
+
+        // Named after the list's path, then its size, modification time and extra words,
+        // so an edited list is recompiled and replaces its previous compiled form
+        String prefix = "dictionary-" + Integer.toHexString(wordList.toAbsolutePath().normalize().hashCode()) + "-";
+        long stamp = Files.size(wordList) * 31 + Files.getLastModifiedTime(wordList).toMillis();
+        stamp = stamp * 31 + String.join(",", extra).hashCode();
+        Path compiled = Paths.get(dir, prefix + Long.toHexString(stamp) + ".bin");
+        if (!Files.isRegularFile(compiled)) {
+            Files.createDirectories(compiled.getParent());
+            Path temp = Files.createTempFile(compiled.getParent(), "dictionary", ".tmp");
+            Files.write(temp, compile(readWords(wordList, extra)));
+            Files.move(temp, compiled, StandardCopyOption.REPLACE_EXISTING);
+            deleteStale(compiled, prefix);
+        }
+        try (FileChannel channel = FileChannel.open(compiled, StandardOpenOption.READ)) {
+            return new SpellingDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static boolean isTemporary(Path wordList) {
+        Path temp = Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        return wordList.toAbsolutePath().normalize().startsWith(temp);
+    }
+
+    // Earlier compiled forms of the same list; one still mapped elsewhere may fail to delete
+    private static void deleteStale(Path compiled, String prefix) {
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(compiled.getParent(), prefix + "*.bin")) {
+            for (Path path : stale) {
+                if (!path.equals(compiled)) {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        // Left for a later run
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Stale files only cost disk space
+        }
+    }
+
+    /**
+     * A dictionary built in memory, e.g. for tests.
+     */
+    public static SpellingDictionary fromWords(Collection<String> words) {
+        return new SpellingDictionary(ByteBuffer.wrap(compile(words)));
+    }
+
+    private static List<String> readWords(Path wordList, Collection<String> extra) throws IOException {
+        List<String> words = new ArrayList<>(Files.readAllLines(wordList, StandardCharsets.UTF_8));
+        words.addAll(extra);
+        return words;
+    }
+
+    public int size() {
+        return words;
+    }
+
+    /**
+     * True if text[start, end), ignoring ASCII case, is one of the words.
+     */
+    public boolean contains(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > MAX_WORD_LENGTH || words == 0) return false;
+        long hash = hash(text, start, end);
+        if (hash == 0) return false;
+        if (!mightContain(hash)) return false;
+
+        int slot = slot(hash, buffer.getInt(displacements + bucket(hash, buckets) * 4), tableSize);
+        int entry = buffer.getInt(slots + slot * 4);
+        if ((entry >>> 24) != length) return false;
+        int offset = keys + (entry & 0xFFFFFF);
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != lower(text.charAt(start + i))) return false;
+        }
+        return true;
+    }
+
+    private boolean mightContain(long hash) {
+        long bits = (long) bloomWords * 64;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < 3; i++) {
+            long bit = Long.remainderUnsigned(h1 + (long) i * h2, bits);
+            if ((buffer.getLong(HEADER_SIZE + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // ---------------- hashing ----------------
+
+    /**
+     * FNV-1a over the lowercased characters, finished with the splitmix64
+     * mixer. Zero when the range has a non-ASCII character, never zero
+     * otherwise.
+     */
+    static long hash(CharSequence text, int start, int end) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= 128) return 0;
+            h = (h ^ lower(c)) * 0x100000001B3L;
+        }
+        h = mix(h);
+        return h == 0 ? 1 : h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int lower(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static int bucket(long hash, int buckets) {
+        return (int) Long.remainderUnsigned(hash >>> 17, buckets);
+    }
+
+    private static int slot(long hash, int displacement, int tableSize) {
+        return (int) Long.remainderUnsigned(mix(hash + displacement * 0x9E3779B97F4A7C15L), tableSize);
+    }
+
+    // ---------------- compilation ----------------
+
+    private static byte[] compile(Collection<String> input) {
+        // Distinct lowercase ASCII words
+        TreeSet<String> distinct = new TreeSet<>();
+        for (String word : input) {
+            String w = word.trim().toLowerCase(Locale.ROOT);
+            if (!w.isEmpty() && w.length() <= MAX_WORD_LENGTH && w.chars().allMatch(c -> c < 128)) {
+                distinct.add(w);
+            }
+        }
+        String[] words = distinct.toArray(new String[0]);
+        int n = words.length;
+        long[] hashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = hash(words[i], 0, words[i].length());
+        }
+
+        // Perfect hash by hash and displace; the table grows slightly if a bucket cannot be placed
+        int bucketCount = Math.max(1, n / 4);
+        int tableSize = Math.max(1, n);
+        int[] displacement;
+        int[] table;
+        while (true) {
+            displacement = new int[bucketCount];
+            table = place(hashes, bucketCount, tableSize, displacement);
+            if (table != null) break;
+            tableSize += Math.max(1, tableSize / 100);
+        }
+
+        int bloomWords = Math.max(1, (int) (((long) n * BLOOM_BITS_PER_WORD + 63) / 64));
+        int keyBytes = 0;
+        for (String word : words) keyBytes += word.length();
+        if (keyBytes > 0xFFFFFF) {
+            throw new IllegalArgumentException("Word list too large: " + keyBytes + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + bloomWords * 8 + bucketCount * 4 + tableSize * 4 + keyBytes);
+        out.putInt(MAGIC).putInt(n).putInt(tableSize).putInt(bucketCount).putInt(bloomWords);
+
+        long[] bloom = new long[bloomWords];
+        long bits = (long) bloomWords * 64;
+        for (long hash : hashes) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < 3; i++) {
+                long bit = Long.remainderUnsigned(h1 + (long) i * h2, bits);
+                bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+        for (long word : bloom) out.putLong(word);
+        for (int d : displacement) out.putInt(d);
+
+        int[] offsets = new int[n];
+        int offset = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = offset;
+            offset += words[i].length();
+        }
+        for (int s = 0; s < tableSize; s++) {
+            int w = table[s];
+            out.putInt(w < 0 ? 0 : (words[w].length() << 24) | offsets[w]);
+        }
+        for (String word : words) out.put(word.getBytes(StandardCharsets.US_ASCII));
+        return out.array();
+    }
+
+    /**
+     * Word index per table slot (-1 if free), or null if some bucket found
+     * no displacement.
+     */
+    private static int[] place(long[] hashes, int bucketCount, int tableSize, int[] displacement) {
+        List<List<Integer>> buckets = new ArrayList<>();
+        for (int b = 0; b < bucketCount; b++) buckets.add(new ArrayList<>());
+        for (int i = 0; i < hashes.length; i++) {
+            buckets.get(bucket(hashes[i], bucketCount)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) order[b] = b;
+        Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+        int[] table = new int[tableSize];
+        Arrays.fill(table, -1);
+        int[] chosen = new int[0];
+        for (int b : order) {
+            List<Integer> members = buckets.get(b);
+            if (members.isEmpty()) break;
+            if (chosen.length < members.size()) chosen = new int[members.size()];
+
+            search:
+            for (int d = 0; ; d++) {
+                if (d == MAX_DISPLACEMENT) return null;
+                for (int m = 0; m < members.size(); m++) {
+                    int s = slot(hashes[members.get(m)], d, tableSize);
+                    if (table[s] >= 0) continue search;
+                    for (int earlier = 0; earlier < m; earlier++) {
+                        if (chosen[earlier] == s) continue search;
+                    }
+                    chosen[m] = s;
+                }
+                displacement[b] = d;
+                for (int m = 0; m < members.size(); m++) {
+                    table[chosen[m]] = members.get(m);
+                }
+                break;
+            }
+        }
+        return table;
+    }
+}
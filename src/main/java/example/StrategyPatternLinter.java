@@ -3,6 +3,7 @@ package example;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.SourceValue;
 
 import java.util.*;
 
@@ -10,10 +11,6 @@ public class StrategyPatternLinter implements Linter {
 
     private final ClassNode classNode;
 
-    private static final int DELEGATION_BACKSCAN_LIMIT = 16;
-
-    private static final int INJECTION_BACKSCAN_LIMIT = 12;
-
     public StrategyPatternLinter(ClassNode classNode) {
         this.classNode = classNode;
     }
@@ -26,11 +23,12 @@ public class StrategyPatternLinter implements Linter {
     @Override
     public void lintClass() {
         List<String> findings = new ArrayList<>();
+        Map<String, FieldUses> uses = indexFieldUses();
 
         for (FieldNode field : classNode.fields) {
             if (!isCandidateField(field)) continue;
 
-            Evidence ev = analyzeField(field);
+            Evidence ev = analyzeField(field, uses.get(fieldKey(field.name, field.desc)));
 
             // "Strategy-like" only if it is injected AND delegated through
             if (ev.injectedFromOutside && !ev.delegations.isEmpty()) {
@@ -63,44 +61,56 @@ public class StrategyPatternLinter implements Linter {
         return true;
     }
 
-    private Evidence analyzeField(FieldNode field) {
+    private Evidence analyzeField(FieldNode field, FieldUses uses) {
         Evidence ev = new Evidence();
         ev.field = field;
         ev.fieldTypeInternal = Type.getType(field.desc).getInternalName();
-
-        // 1) Injection from outside: any method stores a param into this.field (PUTFIELD)
-        ev.injectedFromOutside = detectInjectedFromOutside(field);
-
-        // 2) Delegation: method calls that use this.field as receiver (GETFIELD ... INVOKE)
-        ev.delegations = detectDelegations(field);
-
+        if (uses != null) {
+            ev.injectedFromOutside = uses.injectedFromOutside;
+            ev.delegations = uses.delegations;
+        }
         return ev;
     }
 
-    private boolean detectInjectedFromOutside(FieldNode field) {
+    /**
+     * One pass over the class that records, for every field of this class:
+     * 1) Injection from outside: some method stores a parameter into it (PUTFIELD)
+     * 2) Delegation: calls whose receiver is the value read from it (GETFIELD ... INVOKE)
+     */
+    private Map<String, FieldUses> indexFieldUses() {
+        Map<String, FieldUses> uses = new HashMap<>();
+
         for (MethodNode m : classNode.methods) {
             if (m.instructions == null) continue;
             if (m.name.equals("<clinit>")) continue;
+            boolean constructor = m.name.equals("<init>");
 
-            Set<Integer> paramLocals = computeParamLocalIndexes(m);
-
-            for (AbstractInsnNode insn = m.instructions.getFirst(); insn != null; insn = insn.getNext()) {
-                if (!(insn instanceof FieldInsnNode)) continue;
+            SourceFrames frames = SourceFrames.of(classNode.name, m);
+            if (frames == null) continue;
 
-                FieldInsnNode fin = (FieldInsnNode) insn;
-                if (fin.getOpcode() != Opcodes.PUTFIELD) continue;
+            Set<Integer> paramLocals = null;
 
-                if (!fin.owner.equals(classNode.name)) continue;
-                if (!fin.name.equals(field.name)) continue;
-                if (!fin.desc.equals(field.desc)) continue;
-
-                VarInsnNode loadedParam = findRecentParamLoad(paramLocals, insn, INJECTION_BACKSCAN_LIMIT);
-                if (loadedParam != null) {
-                    return true;
+            for (AbstractInsnNode insn = m.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (insn.getOpcode() == Opcodes.PUTFIELD) {
+                    FieldInsnNode fin = (FieldInsnNode) insn;
+                    if (!fin.owner.equals(classNode.name)) continue;
+
+                    FieldUses fieldUses = uses.computeIfAbsent(fieldKey(fin.name, fin.desc), k -> new FieldUses());
+                    if (fieldUses.injectedFromOutside) continue;
+                    if (paramLocals == null) paramLocals = computeParamLocalIndexes(m);
+                    fieldUses.injectedFromOutside = isParamLoad(frames, paramLocals, frames.storedValue(fin));
+                } else if (insn instanceof MethodInsnNode && !constructor) {
+                    MethodInsnNode min = (MethodInsnNode) insn;
+                    FieldInsnNode backingGet = ownFieldRead(SourceFrames.singleSource(frames.receiver(min)));
+                    if (backingGet == null) continue;
+
+                    int line = LineNumberIndex.of(m).lineAt(insn);
+                    uses.computeIfAbsent(fieldKey(backingGet.name, backingGet.desc), k -> new FieldUses())
+                            .delegations.add(new Delegation(m.name, m.desc, min.owner, min.name, min.desc, line));
                 }
             }
         }
-        return false;
+        return uses;
     }
 
     private Set<Integer> computeParamLocalIndexes(MethodNode m) {
@@ -116,92 +126,39 @@ public class StrategyPatternLinter implements Linter {
         return paramLocals;
     }
 
-    private VarInsnNode findRecentParamLoad(Set<Integer> paramLocals, AbstractInsnNode from, int maxSteps) {
-        int steps = 0;
-        AbstractInsnNode cur = from.getPrevious();
-
-        while (cur != null && steps < maxSteps) {
-            if (cur instanceof LineNumberNode || cur instanceof FrameNode || cur instanceof LabelNode) {
-                cur = cur.getPrevious();
-                continue;
-            }
-
-            if (cur instanceof VarInsnNode) {
-                VarInsnNode vin = (VarInsnNode) cur;
-                if (paramLocals.contains(vin.var) && isLoadOpcode(vin.getOpcode())) {
-                    return vin;
-                }
+    // The stored value comes straight from a parameter, possibly through casts
+    // and Objects.requireNonNull, which hand back their argument unchanged
+    private boolean isParamLoad(SourceFrames frames, Set<Integer> paramLocals, SourceValue value) {
+        AbstractInsnNode source = SourceFrames.singleSource(value);
+        while (source != null) {
+            if (source.getOpcode() == Opcodes.CHECKCAST) {
+                source = SourceFrames.singleSource(frames.stackValue(source, 0));
+            } else if (isRequireNonNull(source)) {
+                int args = Type.getArgumentTypes(((MethodInsnNode) source).desc).length;
+                source = SourceFrames.singleSource(frames.stackValue(source, args - 1));
+            } else {
+                break;
             }
-
-
-            cur = cur.getPrevious();
-            steps++;
         }
-
-        return null;
+        return source instanceof VarInsnNode
+                && isLoadOpcode(source.getOpcode())
+                && paramLocals.contains(((VarInsnNode) source).var);
     }
 
-    private List<Delegation> detectDelegations(FieldNode field) {
-        List<Delegation> out = new ArrayList<>();
-
-        for (MethodNode m : classNode.methods) {
-            if (m.instructions == null) continue;
-            if (m.name.equals("<init>") || m.name.equals("<clinit>")) continue;
-
-            for (AbstractInsnNode insn = m.instructions.getFirst(); insn != null; insn = insn.getNext()) {
-                if (!(insn instanceof MethodInsnNode)) continue;
-
-                MethodInsnNode min = (MethodInsnNode) insn;
-
-                FieldInsnNode backingGet = findRecentGetField(field, insn, DELEGATION_BACKSCAN_LIMIT);
-                if (backingGet != null) {
-                    int line = findLineNumberBefore(insn);
-                    out.add(new Delegation(m.name, m.desc, min.owner, min.name, min.desc, line));
-                }
-            }
-        }
-
-        return out;
+    private boolean isRequireNonNull(AbstractInsnNode insn) {
+        if (insn.getOpcode() != Opcodes.INVOKESTATIC) return false;
+        MethodInsnNode min = (MethodInsnNode) insn;
+        return min.owner.equals("java/util/Objects") && min.name.equals("requireNonNull");
     }
 
-    private FieldInsnNode findRecentGetField(FieldNode field, AbstractInsnNode from, int maxSteps) {
-        int steps = 0;
-        AbstractInsnNode cur = from.getPrevious();
-
-        while (cur != null && steps < maxSteps) {
-            if (cur instanceof LineNumberNode || cur instanceof FrameNode || cur instanceof LabelNode) {
-                cur = cur.getPrevious();
-                continue;
-            }
-
-            if (cur instanceof MethodInsnNode) {
-                return null;
-            }
-
-            if (cur instanceof FieldInsnNode) {
-                FieldInsnNode fin = (FieldInsnNode) cur;
-                if (fin.getOpcode() == Opcodes.GETFIELD
-                        && fin.owner.equals(classNode.name)
-                        && fin.name.equals(field.name)
-                        && fin.desc.equals(field.desc)) {
-                    return fin;
-                }
-            }
-
-            cur = cur.getPrevious();
-            steps++;
-        }
-
-        return null;
+    private FieldInsnNode ownFieldRead(AbstractInsnNode source) {
+        if (source == null || source.getOpcode() != Opcodes.GETFIELD) return null;
+        FieldInsnNode fin = (FieldInsnNode) source;
+        return fin.owner.equals(classNode.name) ? fin : null;
     }
 
-    private int findLineNumberBefore(AbstractInsnNode target) {
-        AbstractInsnNode cur = target;
-        while (cur != null) {
-            if (cur instanceof LineNumberNode) return ((LineNumberNode) cur).line;
-            cur = cur.getPrevious();
-        }
-        return -1;
+    private static String fieldKey(String name, String desc) {
+        return name + ":" + desc;
     }
 
     private String formatEvidence(Evidence ev) {
@@ -248,6 +205,11 @@ public class StrategyPatternLinter implements Linter {
         List<Delegation> delegations = new ArrayList<>();
     }
 
+    private static class FieldUses {
+        boolean injectedFromOutside;
+        List<Delegation> delegations = new ArrayList<>();
+    }
+
     private static class Delegation {
         String inMethodName;
         String inMethodDesc;
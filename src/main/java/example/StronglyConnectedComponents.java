@@ -0,0 +1,106 @@
+package example;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of a graph given in compressed adjacency
+ * form: the successors of node v are targets[offset[v]] up to
+ * targets[offset[v + 1]]. Tarjan's algorithm runs with explicit stacks, so
+ * deep dependency chains cannot overflow the call stack.
+ *
+ * Components are numbered in the order Tarjan completes them, which is a
+ * reverse topological order of the condensation: every edge leads to a
+ * component with the same or a lower number.
+ */
+public final class StronglyConnectedComponents {
+
+    private final int[] componentOf;
+    private final int[] componentStart;
+    private final int[] members;
+
+    public StronglyConnectedComponents(int[] offset, int[] targets) {
+        int n = offset.length - 1;
+        componentOf = new int[n];
+        int[] order = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(order, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        members = new int[n];
+        int[] starts = new int[n + 1];
+        int visited = 0;
+        int placed = 0;
+        int components = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (order[root] >= 0) continue;
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = offset[root];
+            order[root] = low[root] = visited++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                if (callEdge[depth] < offset[v + 1]) {
+                    int w = targets[callEdge[depth]++];
+                    if (order[w] < 0) {
+                        order[w] = low[w] = visited++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = offset[w];
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], order[w]);
+                    }
+                    continue;
+                }
+
+                // All successors done: v either roots a component or passes its low link up
+                if (low[v] == order[v]) {
+                    starts[components] = placed;
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        componentOf[w] = components;
+                        members[placed++] = w;
+                    } while (w != v);
+                    components++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        starts[components] = placed;
+        componentStart = Arrays.copyOf(starts, components + 1);
+    }
+
+    public int count() {
+        return componentStart.length - 1;
+    }
+
+    public int componentOf(int node) {
+        return componentOf[node];
+    }
+
+    public int size(int component) {
+        return componentStart[component + 1] - componentStart[component];
+    }
+
+    /**
+     * Members in the order Tarjan popped them; member 0 is the last one
+     * reached, the component's root comes last.
+     */
+    public int member(int component, int i) {
+        return members[componentStart[component] + i];
+    }
+}
@@ -0,0 +1,39 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storage for ClassSummary records. Handles are dense ints assigned in
+ * insertion order.
+ */
+public interface SummaryStore {
+
+    int put(int[] words);
+
+    ClassSummary get(int handle);
+
+    int size();
+
+    static SummaryStore onHeap() {
+        return new SummaryStore() {
+            private final List<ClassSummary> summaries = new ArrayList<>();
+
+            @Override
+            public synchronized int put(int[] words) {
+                summaries.add(ClassSummary.wrap(words));
+                return summaries.size() - 1;
+            }
+
+            @Override
+            public synchronized ClassSummary get(int handle) {
+                return summaries.get(handle);
+            }
+
+            @Override
+            public synchronized int size() {
+                return summaries.size();
+            }
+        };
+    }
+}
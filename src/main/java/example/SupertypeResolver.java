@@ -0,0 +1,260 @@
+package example;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up supertypes by name: classes of the ClassSummaryIndex first, then
+ * the JDK (jrt:/) and the classpath through the system class loader. Outside
+ * types are summarized with flags, supertypes and method signatures only.
+ *
+ * Each JDK type (jrt:/) resolved from class bytes is appended to a cache
+ * file in target/linter-cache (override with -Dlinter.cacheDir, or "none" to
+ * disable), one file per java.version, so later runs don't parse the JDK
+ * again. Classpath types are only remembered for the run, since a jar can
+ * change without java.version changing, and so are types that cannot be
+ * found, as they may be on the classpath next time. Records are written
+ * through one stream per run, closed with the index.
+ *
+ * Obtain it with index.shared(SupertypeResolver.class, SupertypeResolver::new).
+ */
+public final class SupertypeResolver implements Closeable {
+
+    public static final String CACHE_DIR_PROPERTY = "linter.cacheDir";
+
+    // Version 2 holds JDK types only; older caches are replaced on the first append
+    private static final int MAGIC = 0x4C535432; // "LST2"
+    private static final int NOT_FOUND = -1;
+    private static final ClassSummary MISSING = ClassSummary.wrap(new int[ClassSummary.HEADER_SIZE]);
+
+    private final ClassSummaryIndex index;
+    private final Map<Integer, ClassSummary> outside = new HashMap<>();
+    private final Path cacheFile;
+    private long cacheLength;
+    private DataOutputStream cacheOut;
+
+    public SupertypeResolver(ClassSummaryIndex index) {
+        this(index, defaultCacheFile());
+    }
+
+    public SupertypeResolver(ClassSummaryIndex index, Path cacheFile) {
+        this.index = index;
+        this.cacheFile = cacheFile;
+        loadCache();
+    }
+
+    private static Path defaultCacheFile() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY, "target/linter-cache").trim();
+        if (dir.equals("none")) {
+            return null;
+        }
+        String version = System.getProperty("java.version", "unknown").replaceAll("[^\\w.-]", "_");
+        return Paths.get(dir, "supertypes-" + version + ".bin");
+    }
+
+    public ClassSummary get(String internalName) {
+        return internalName == null ? null : get(index.symbols().intern(internalName));
+    }
+
+    /**
+     * Summary of the type, or null if it is neither indexed nor loadable.
+     */
+    public synchronized ClassSummary get(int nameId) {
+        if (nameId < 0) return null;
+        ClassSummary summary = index.get(nameId);
+        if (summary != null) return summary;
+
+        summary = outside.get(nameId);
+        if (summary == null) {
+            TypeRecord record = load(index.symbol(nameId));
+            summary = toSummary(record);
+            outside.put(nameId, summary);
+            if (record.jdk) append(record);
+        }
+        return summary == MISSING ? null : summary;
+    }
+
+    private ClassSummary toSummary(TypeRecord record) {
+        if (record.access == NOT_FOUND) return MISSING;
+
+        ClassSummaryBuilder builder = new ClassSummaryBuilder(index.symbols());
+        builder.visit(Opcodes.V1_8, record.access, record.name, null, record.superName,
+                record.interfaces.toArray(new String[0]));
+        for (MethodRecord method : record.methods) {
+            builder.visitMethod(method.access, method.name, method.desc, null, null);
+        }
+        return ClassSummary.wrap(builder.toWords());
+    }
+
+    private static TypeRecord load(String internalName) {
+        TypeRecord record = new TypeRecord(internalName);
+        URL resource = ClassLoader.getSystemResource(internalName + ".class");
+        if (resource == null) return record;
+        try (InputStream in = resource.openStream()) {
+            new ClassReader(in).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(int version, int access, String name, String signature,
+                        String superName, String[] interfaces) {
+                    record.access = access;
+                    record.superName = superName;
+                    if (interfaces != null) {
+                        for (String iface : interfaces) record.interfaces.add(iface);
+                    }
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor,
+                        String signature, String[] exceptions) {
+                    record.methods.add(new MethodRecord(access, name, descriptor));
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            record.jdk = resource.getProtocol().equals("jrt");
+        } catch (IOException | RuntimeException e) {
+            record.access = NOT_FOUND;
+        }
+        return record;
+    }
+
+    // ---------------- on-disk cache ----------------
+
+    private void loadCache() {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) return;
+
+        try {
+            byte[] bytes = Files.readAllBytes(cacheFile);
+            ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+            DataInputStream in = new DataInputStream(buffer);
+            if (in.readInt() != MAGIC) return;
+            cacheLength = bytes.length - buffer.available();
+            while (true) {
+                TypeRecord record = readRecord(in);
+                cacheLength = bytes.length - buffer.available();
+                outside.put(index.symbols().intern(record.name), toSummary(record));
+            }
+        } catch (EOFException e) {
+            // End of cache, or a record cut short by an interrupted run
+        } catch (IOException e) {
+            System.err.println("Ignoring supertype cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private void append(TypeRecord record) {
+        if (cacheFile == null) return;
+
+        try {
+            if (cacheOut == null) {
+                if (cacheFile.getParent() != null) {
+                    Files.createDirectories(cacheFile.getParent());
+                }
+                // Drop a record cut short by an interrupted run, or a file that is not a cache
+                try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+                    channel.truncate(cacheLength);
+                }
+                cacheOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile,
+                        StandardOpenOption.APPEND)));
+                if (cacheLength == 0) cacheOut.writeInt(MAGIC);
+            }
+            writeRecord(cacheOut, record);
+            // Whole records reach the file even if the index is never closed
+            cacheOut.flush();
+        } catch (IOException e) {
+            System.err.println("Cannot update supertype cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the cache file; called by ClassSummaryIndex.close.
+     */
+    @Override
+    public synchronized void close() {
+        if (cacheOut == null) return;
+        try {
+            cacheOut.close();
+        } catch (IOException e) {
+            System.err.println("Cannot close supertype cache " + cacheFile + ": " + e.getMessage());
+        }
+        cacheOut = null;
+    }
+
+    private static void writeRecord(DataOutputStream out, TypeRecord record) throws IOException {
+        out.writeUTF(record.name);
+        out.writeInt(record.access);
+        out.writeUTF(record.superName == null ? "" : record.superName);
+        out.writeShort(record.interfaces.size());
+        for (String iface : record.interfaces) {
+            out.writeUTF(iface);
+        }
+        out.writeInt(record.methods.size());
+        for (MethodRecord method : record.methods) {
+            out.writeInt(method.access);
+            out.writeUTF(method.name);
+            out.writeUTF(method.desc);
+        }
+    }
+
+    private static TypeRecord readRecord(DataInputStream in) throws IOException {
+        TypeRecord record = new TypeRecord(in.readUTF());
+        record.access = in.readInt();
+        String superName = in.readUTF();
+        record.superName = superName.isEmpty() ? null : superName;
+        int interfaces = in.readUnsignedShort();
+        for (int i = 0; i < interfaces; i++) {
+            record.interfaces.add(in.readUTF());
+        }
+        int methods = in.readInt();
+        for (int i = 0; i < methods; i++) {
+            int access = in.readInt();
+            String name = in.readUTF();
+            record.methods.add(new MethodRecord(access, name, in.readUTF()));
+        }
+        return record;
+    }
+
+    private static final class TypeRecord {
+        final String name;
+        int access = NOT_FOUND;
+        boolean jdk;
+        String superName;
+        final List<String> interfaces = new ArrayList<>();
+        final List<MethodRecord> methods = new ArrayList<>();
+
+        TypeRecord(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class MethodRecord {
+        final int access;
+        final String name;
+        final String desc;
+
+        MethodRecord(int access, String name, String desc) {
+            this.access = access;
+            this.name = name;
+            this.desc = desc;
+        }
+    }
+}
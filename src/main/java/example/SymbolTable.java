@@ -0,0 +1,21 @@
+package example;
+
+/**
+ * Interns class names, member names and descriptors into dense int ids so
+ * that class summaries can store them in primitive arrays.
+ */
+public interface SymbolTable {
+
+    int NONE = -1;
+
+    int intern(String symbol);
+
+    /**
+     * Id of an already interned symbol, or NONE if it was never seen.
+     */
+    int lookup(String symbol);
+
+    String symbol(int id);
+
+    int size();
+}
@@ -0,0 +1,193 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supertype and subtype relations of the classes of a ClassSummaryIndex,
+ * built once per run. Nodes are the indexed classes, numbered by index
+ * position, followed by every supertype outside the index that they reach,
+ * such as JDK classes and interfaces, resolved through SupertypeResolver.
+ *
+ * Direct supertypes (superclass first, then interfaces in declaration
+ * order) and direct indexed subtypes are kept in compressed adjacency
+ * arrays. The transitive supertypes of a node are computed on first use
+ * from those of its direct supertypes and cached as a sorted int[], so each
+ * type's ancestry is resolved once however many classes share it. Obtain
+ * the hierarchy with of(index).
+ */
+public final class TypeHierarchy {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int[] IN_PROGRESS = new int[0];
+
+    private final ClassSummaryIndex index;
+    private final SupertypeResolver resolver;
+    private final int indexed;
+    private final List<Integer> symbols = new ArrayList<>();
+    private final Map<Integer, Integer> outside = new HashMap<>();
+    private final int[] superOffset;
+    private final int[] supers;
+    private final int[] subOffset;
+    private final int[] subs;
+    private final int[][] ancestors;
+
+    public static TypeHierarchy of(ClassSummaryIndex index) {
+        return index.shared(TypeHierarchy.class, TypeHierarchy::new);
+    }
+
+    private TypeHierarchy(ClassSummaryIndex index) {
+        this.index = index;
+        this.resolver = index.shared(SupertypeResolver.class, SupertypeResolver::new);
+        this.indexed = index.size();
+        for (int c = 0; c < indexed; c++) {
+            symbols.add(index.summaries().get(c).name());
+        }
+
+        // 1) Direct supertypes; outside types are numbered as they are reached
+        List<Integer> offsets = new ArrayList<>();
+        int[] edges = new int[Math.max(16, indexed * 2)];
+        int count = 0;
+        for (int node = 0; node < symbols.size(); node++) {
+            offsets.add(count);
+            ClassSummary summary = summary(node);
+            if (summary == null) continue;
+            int direct = summary.interfaceCount() + 1;
+            if (count + direct > edges.length) edges = Arrays.copyOf(edges, Math.max(edges.length * 2, count + direct));
+            if (summary.superName() >= 0) {
+                edges[count++] = nodeFor(summary.superName());
+            }
+            for (int i = 0; i < summary.interfaceCount(); i++) {
+                edges[count++] = nodeFor(summary.interfaceAt(i));
+            }
+        }
+        offsets.add(count);
+        int size = symbols.size();
+        superOffset = new int[size + 1];
+        for (int node = 0; node <= size; node++) {
+            superOffset[node] = offsets.get(node);
+        }
+        supers = Arrays.copyOf(edges, count);
+
+        // 2) Direct subtypes among indexed classes, by counting sort on the supertype
+        subOffset = new int[size + 1];
+        for (int node = 0; node < indexed; node++) {
+            for (int i = superOffset[node]; i < superOffset[node + 1]; i++) subOffset[supers[i] + 1]++;
+        }
+        for (int node = 0; node < size; node++) {
+            subOffset[node + 1] += subOffset[node];
+        }
+        subs = new int[subOffset[size]];
+        int[] fill = Arrays.copyOf(subOffset, size);
+        for (int node = 0; node < indexed; node++) {
+            for (int i = superOffset[node]; i < superOffset[node + 1]; i++) subs[fill[supers[i]]++] = node;
+        }
+
+        ancestors = new int[size][];
+    }
+
+    private int nodeFor(int symbol) {
+        int position = index.positionOf(symbol);
+        if (position >= 0) return position;
+        Integer node = outside.get(symbol);
+        if (node == null) {
+            node = symbols.size();
+            symbols.add(symbol);
+            outside.put(symbol, node);
+        }
+        return node;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    /**
+     * True for nodes 0 .. index.size() - 1, the indexed classes.
+     */
+    public boolean isIndexed(int node) {
+        return node < indexed;
+    }
+
+    /**
+     * Node of a type name symbol, or -1 if the type is not in the hierarchy.
+     */
+    public int nodeOf(int symbol) {
+        int position = index.positionOf(symbol);
+        if (position >= 0) return position;
+        Integer node = outside.get(symbol);
+        return node == null ? -1 : node;
+    }
+
+    public String name(int node) {
+        return index.symbol(symbols.get(node));
+    }
+
+    /**
+     * Summary of the type; for outside types only flags, supertypes and
+     * methods. Null if an outside type could not be found.
+     */
+    public ClassSummary summary(int node) {
+        return node < indexed ? index.summaries().get(node) : resolver.get(symbols.get(node));
+    }
+
+    public int superCount(int node) {
+        return superOffset[node + 1] - superOffset[node];
+    }
+
+    /**
+     * The i-th direct supertype: the superclass first, if any, then the
+     * interfaces in declaration order.
+     */
+    public int superAt(int node, int i) {
+        return supers[superOffset[node] + i];
+    }
+
+    public int subCount(int node) {
+        return subOffset[node + 1] - subOffset[node];
+    }
+
+    /**
+     * The i-th indexed class that names this type as a direct supertype.
+     */
+    public int subAt(int node, int i) {
+        return subs[subOffset[node] + i];
+    }
+
+    /**
+     * All transitive supertypes of the node, not itself, sorted by node.
+     */
+    public synchronized int[] ancestors(int node) {
+        int[] cached = ancestors[node];
+        if (cached == IN_PROGRESS) return EMPTY; // cyclic hierarchy in malformed input
+        if (cached != null) return cached;
+
+        ancestors[node] = IN_PROGRESS;
+        int[] merged = EMPTY;
+        for (int i = superOffset[node]; i < superOffset[node + 1]; i++) {
+            int[] inherited = ancestors(supers[i]);
+            int[] next = Arrays.copyOf(merged, merged.length + inherited.length + 1);
+            System.arraycopy(inherited, 0, next, merged.length, inherited.length);
+            next[next.length - 1] = supers[i];
+            merged = next;
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (unique == 0 || merged[i] != merged[unique - 1]) merged[unique++] = merged[i];
+        }
+        int[] result = unique == merged.length ? merged : Arrays.copyOf(merged, unique);
+        ancestors[node] = result;
+        return result;
+    }
+
+    /**
+     * True if sub is super or one of its transitive subtypes.
+     */
+    public boolean isSubtype(int sub, int sup) {
+        return sub == sup || Arrays.binarySearch(ancestors(sub), sup) >= 0;
+    }
+}
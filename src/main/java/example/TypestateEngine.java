@@ -0,0 +1,346 @@
+package example;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Forward "may" dataflow over a method's ControlFlowGraph that follows call
+ * protocols per receiver. A receiver is a local variable slot or a field of
+ * this. Each (receiver, rule) pair has one state bit, and states from merging
+ * paths are OR-ed, so a violation is reported if any path breaks the rule.
+ *
+ * Two rule kinds:
+ * - "a|b before c|d": calling c or d needs an earlier a or b on the same
+ *   receiver. The bit means "not done yet". It starts set for locals and clear
+ *   for fields, which may have been set up by another method.
+ * - "a|b after c|d": once c or d is called, a or b must follow before the
+ *   method returns. The bit means "pending".
+ *
+ * Names are case-insensitive prefixes, as in "open|init before read".
+ */
+public final class TypestateEngine {
+
+    public enum Kind {
+        BEFORE,
+        AFTER
+    }
+
+    public static final class Rule {
+        final Kind kind;
+        final NameMatcher required;
+        final NameMatcher trigger;
+        final String requiredLabel;
+        final String triggerLabel;
+
+        Rule(Kind kind, String[] required, String[] trigger) {
+            this.kind = kind;
+            this.required = NameMatcher.ignoringCase().prefix(required).build();
+            this.trigger = NameMatcher.ignoringCase().prefix(trigger).build();
+            this.requiredLabel = String.join("/", required);
+            this.triggerLabel = String.join("/", trigger);
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public String requiredLabel() {
+            return requiredLabel;
+        }
+
+        public String triggerLabel() {
+            return triggerLabel;
+        }
+
+        public static Rule parse(String text) {
+            String[] parts = text.trim().split("\\s+");
+            if (parts.length != 3 || !(parts[1].equals("before") || parts[1].equals("after"))) {
+                throw new IllegalArgumentException("Invalid typestate rule: " + text);
+            }
+            // "x after y": the trigger is y and x must follow it
+            Kind kind = parts[1].equals("before") ? Kind.BEFORE : Kind.AFTER;
+            return new Rule(kind, parts[0].split("\\|"), parts[2].split("\\|"));
+        }
+
+        @Override
+        public String toString() {
+            return requiredLabel + (kind == Kind.BEFORE ? " before " : " after ") + triggerLabel;
+        }
+    }
+
+    /**
+     * Receives violations. For BEFORE rules at is the offending call; for
+     * AFTER rules it is the return that leaves the protocol unfinished.
+     */
+    public interface Reporter {
+        void violation(Rule rule, String receiver, AbstractInsnNode at);
+    }
+
+    private static final int NONE = -1;
+
+    private final List<Rule> rules;
+    private final Predicate<MethodInsnNode> callFilter;
+
+    public TypestateEngine(List<Rule> rules, Predicate<MethodInsnNode> callFilter) {
+        this.rules = new ArrayList<>(rules);
+        this.callFilter = callFilter;
+    }
+
+    public static List<Rule> parseRules(List<String> texts) {
+        List<Rule> out = new ArrayList<>();
+        for (String text : texts) {
+            out.add(Rule.parse(text));
+        }
+        return out;
+    }
+
+    public void run(String owner, MethodNode method, Reporter reporter) {
+        if (rules.isEmpty()) return;
+        SourceFrames frames = SourceFrames.of(owner, method);
+        if (frames == null) return;
+        new Run(owner, method, frames).solve(reporter);
+    }
+
+    /**
+     * State of one method analysis. Receivers are numbered locals first, then
+     * fields of this in order of first appearance.
+     */
+    private final class Run {
+        private final MethodNode method;
+        private final ControlFlowGraph cfg;
+        private final int ruleCount = rules.size();
+        private final int words;
+        private final List<String> fieldNames = new ArrayList<>();
+        private final Map<Long, Boolean> reportedAtReturn = new HashMap<>();
+
+        // Per instruction: the receiver a call or store acts on, or NONE
+        private final int[] receiverAt;
+        private final long[] initial;
+        private final long[] in;
+        private final long[] out;
+        private final long[] throughout;
+
+        Run(String owner, MethodNode method, SourceFrames frames) {
+            this.method = method;
+            this.cfg = ControlFlowGraph.of(method);
+
+            int n = cfg.instructionCount();
+            boolean isStatic = (method.access & Opcodes.ACC_STATIC) != 0;
+            Map<String, Integer> fieldIds = new HashMap<>();
+            receiverAt = new int[n];
+            Arrays.fill(receiverAt, NONE);
+
+            for (int i = 0; i < n; i++) {
+                AbstractInsnNode insn = cfg.instruction(i);
+                if (insn instanceof MethodInsnNode) {
+                    MethodInsnNode call = (MethodInsnNode) insn;
+                    if (callFilter.test(call)) {
+                        receiverAt[i] = receiverOf(SourceFrames.singleSource(frames.receiver(call)),
+                                owner, isStatic, frames, fieldIds);
+                    }
+                } else if (insn.getOpcode() == Opcodes.ASTORE) {
+                    receiverAt[i] = ((VarInsnNode) insn).var;
+                } else if (insn.getOpcode() == Opcodes.PUTFIELD) {
+                    FieldInsnNode put = (FieldInsnNode) insn;
+                    if (!isStatic && put.owner.equals(owner)
+                            && isThis(SourceFrames.singleSource(frames.stackValue(put, 1)))) {
+                        receiverAt[i] = fieldId(put, fieldIds);
+                    }
+                }
+            }
+
+            int receivers = method.maxLocals + fieldNames.size();
+            words = Math.max(1, (receivers * ruleCount + 63) >>> 6);
+            initial = new long[words];
+            for (int local = 0; local < method.maxLocals; local++) {
+                reset(initial, 0, local);
+            }
+            in = new long[cfg.blockCount() * words];
+            out = new long[cfg.blockCount() * words];
+            throughout = new long[cfg.blockCount() * words];
+        }
+
+        private int receiverOf(AbstractInsnNode source, String owner, boolean isStatic,
+                               SourceFrames frames, Map<String, Integer> fieldIds) {
+            if (source == null) return NONE;
+            if (source.getOpcode() == Opcodes.ALOAD) {
+                return ((VarInsnNode) source).var;
+            }
+            if (source.getOpcode() == Opcodes.GETFIELD && !isStatic) {
+                FieldInsnNode get = (FieldInsnNode) source;
+                if (get.owner.equals(owner) && isThis(SourceFrames.singleSource(frames.stackValue(get, 0)))) {
+                    return fieldId(get, fieldIds);
+                }
+            }
+            return NONE;
+        }
+
+        private boolean isThis(AbstractInsnNode source) {
+            return source != null && source.getOpcode() == Opcodes.ALOAD && ((VarInsnNode) source).var == 0;
+        }
+
+        private int fieldId(FieldInsnNode field, Map<String, Integer> fieldIds) {
+            return fieldIds.computeIfAbsent(field.name + ":" + field.desc, key -> {
+                fieldNames.add(field.name);
+                return method.maxLocals + fieldNames.size() - 1;
+            });
+        }
+
+        private String describe(int receiver) {
+            return receiver < method.maxLocals
+                    ? "local var index " + receiver
+                    : "field '" + fieldNames.get(receiver - method.maxLocals) + "'";
+        }
+
+        // Fresh value in a receiver: BEFORE bits set for locals, clear for fields; AFTER bits clear
+        private void reset(long[] state, int base, int receiver) {
+            boolean local = receiver < method.maxLocals;
+            for (int r = 0; r < ruleCount; r++) {
+                int bit = receiver * ruleCount + r;
+                boolean set = local && rules.get(r).kind == Kind.BEFORE;
+                setBit(state, base, bit, set);
+            }
+        }
+
+        void solve(Reporter reporter) {
+            int blocks = cfg.blockCount();
+            if (blocks == 0) return;
+
+            int[] queue = new int[blocks];
+            long[] queued = new long[(blocks + 63) >>> 6];
+            int head = 0;
+            int size = 0;
+            System.arraycopy(initial, 0, in, 0, words);
+            for (int block = 0; block < blocks; block++) {
+                if (cfg.isReachable(block)) {
+                    queue[size++] = block;
+                    queued[block >>> 6] |= 1L << block;
+                }
+            }
+
+            long[] state = new long[words];
+            while (size > 0) {
+                int block = queue[head];
+                head = (head + 1) % blocks;
+                size--;
+                queued[block >>> 6] &= ~(1L << block);
+
+                transfer(block, state, null);
+
+                for (int i = 0; i < cfg.successorCount(block); i++) {
+                    size = propagate(out, block, cfg.successor(block, i), queue, queued, head, size);
+                }
+                for (int i = 0; i < cfg.handlerCount(block); i++) {
+                    size = propagate(throughout, block, cfg.handler(block, i), queue, queued, head, size);
+                }
+            }
+
+            // One reporting pass over the fixpoint keeps each finding single
+            for (int block = 0; block < blocks; block++) {
+                if (cfg.isReachable(block)) {
+                    transfer(block, state, reporter);
+                }
+            }
+        }
+
+        private int propagate(long[] from, int block, int target, int[] queue, long[] queued, int head, int size) {
+            boolean changed = false;
+            int src = block * words;
+            int dst = target * words;
+            for (int w = 0; w < words; w++) {
+                long merged = in[dst + w] | from[src + w];
+                if (merged != in[dst + w]) {
+                    in[dst + w] = merged;
+                    changed = true;
+                }
+            }
+            long bit = 1L << target;
+            if (changed && (queued[target >>> 6] & bit) == 0) {
+                queued[target >>> 6] |= bit;
+                queue[(head + size) % queue.length] = target;
+                size++;
+            }
+            return size;
+        }
+
+        private void transfer(int block, long[] state, Reporter reporter) {
+            int base = block * words;
+            System.arraycopy(in, base, state, 0, words);
+            System.arraycopy(state, 0, throughout, base, words);
+
+            for (int i = cfg.start(block); i < cfg.end(block); i++) {
+                AbstractInsnNode insn = cfg.instruction(i);
+                int opcode = insn.getOpcode();
+                int receiver = receiverAt[i];
+
+                if (receiver != NONE && insn instanceof MethodInsnNode) {
+                    call((MethodInsnNode) insn, receiver, state, reporter);
+                } else if (receiver != NONE) {
+                    reset(state, 0, receiver);
+                } else if (reporter != null && opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN) {
+                    pendingAtReturn(insn, state, reporter);
+                }
+
+                for (int w = 0; w < words; w++) {
+                    throughout[base + w] |= state[w];
+                }
+            }
+            System.arraycopy(state, 0, out, base, words);
+        }
+
+        private void call(MethodInsnNode call, int receiver, long[] state, Reporter reporter) {
+            for (int r = 0; r < ruleCount; r++) {
+                Rule rule = rules.get(r);
+                int bit = receiver * ruleCount + r;
+                if (rule.kind == Kind.BEFORE) {
+                    if (rule.required.matches(call.name)) {
+                        setBit(state, 0, bit, false);
+                    } else if (rule.trigger.matches(call.name) && testBit(state, bit) && reporter != null) {
+                        reporter.violation(rule, describe(receiver), call);
+                    }
+                } else {
+                    if (rule.required.matches(call.name)) {
+                        setBit(state, 0, bit, false);
+                    } else if (rule.trigger.matches(call.name)) {
+                        setBit(state, 0, bit, true);
+                    }
+                }
+            }
+        }
+
+        private void pendingAtReturn(AbstractInsnNode ret, long[] state, Reporter reporter) {
+            int receivers = method.maxLocals + fieldNames.size();
+            for (int receiver = 0; receiver < receivers; receiver++) {
+                for (int r = 0; r < ruleCount; r++) {
+                    if (rules.get(r).kind == Kind.AFTER && testBit(state, receiver * ruleCount + r)
+                            && reportedAtReturn.putIfAbsent(((long) receiver << 32) | r, Boolean.TRUE) == null) {
+                        reporter.violation(rules.get(r), describe(receiver), ret);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean testBit(long[] state, int bit) {
+        return (state[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static void setBit(long[] state, int base, int bit, boolean value) {
+        if (value) {
+            state[base + (bit >>> 6)] |= 1L << bit;
+        } else {
+            state[base + (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+}
@@ -5,17 +5,70 @@ import org.objectweb.asm.tree.*;
 
 import java.util.*;
 
+/**
+ * Per class: unused private fields and methods, unused locals and dead
+ * stores.
+ *
+ * As a package linter it instead reports members of any visibility that
+ * nothing else in the analyzed classes references, using a shared
+ * ReferenceIndex. Members are kept when they may be reached from outside:
+ * constructors and initializers, main methods, serialization hooks, enum
+ * support members, compile-time constants (inlined by javac), synthetic
+ * members, and instance methods whose signature is called virtually in the
+ * index or that override a method of a supertype outside it. Reflection is
+ * invisible in bytecode, so reflectively used members are listed in the
+ * UnusedVariables.keep setting: "pkg.Class" keeps a class's members,
+ * "pkg.Class.member" one member, and a leading or trailing * matches a
+ * suffix or prefix.
+ */
 public class UnusedVariablesLinter implements Linter {
 
+    private static final String NAME = "UnusedVariables";
+
+    private static final NameMatcher SERIALIZATION = NameMatcher.builder()
+            .exact("serialVersionUID", "serialPersistentFields", "readObject", "writeObject",
+                    "readObjectNoData", "readResolve", "writeReplace")
+            .build();
+
     private final ClassNode classNode;
+    private final ClassSummaryIndex index;
+    private final LinterSettings settings;
 //    private Set<String> UnusedVariable;
 
     public UnusedVariablesLinter(ClassNode classNode) {
+        this(classNode, null, LinterSettings.global());
+    }
+
+    public UnusedVariablesLinter(ClassNode classNode, ClassSummaryIndex index) {
+        this(classNode, index, LinterSettings.global());
+    }
+
+    public UnusedVariablesLinter(ClassNode classNode, ClassSummaryIndex index, LinterSettings settings) {
         this.classNode = classNode;
+        this.index = index;
+        this.settings = settings;
+    }
+
+    /**
+     * With an index all classes are checked together for unused members.
+     */
+    @Override
+    public boolean isPerClass() {
+        return index == null;
     }
 
     @Override
     public void lintClass() {
+        if (index != null) {
+            List<String> unused = findUnusedMembers();
+            if (unused.isEmpty()) {
+                System.out.println("No unused members in " + index.size() + " classes");
+            } else {
+                unused.forEach(System.err::println);
+            }
+            return;
+        }
+
         List<String> violations = new ArrayList<>();
 
         violations.addAll(findUnusedPrivateFields());
@@ -106,50 +159,187 @@ public class UnusedVariablesLinter implements Linter {
     }
 
     // ----------------------------
-    // Unused locals (stored but never loaded)
+    // Members unused across all indexed classes
     // ----------------------------
+    private List<String> findUnusedMembers() {
+        List<String> out = new ArrayList<>();
+        NameMatcher keep = keepMatcher();
+        ReferenceIndex references = ReferenceIndex.of(index);
+        SupertypeResolver resolver = index.shared(SupertypeResolver.class, SupertypeResolver::new);
+
+        for (int c = 0; c < index.size(); c++) {
+            ClassSummary summary = index.summaries().get(c);
+            String owner = index.symbol(summary.name());
+            String label = owner.replace('/', '.');
+            if (isSynthetic(summary.access()) || keep.matches(label)) continue;
+            boolean isEnum = (summary.access() & Opcodes.ACC_ENUM) != 0;
+            Set<Long> inherited = null;
+
+            for (int i = 0; i < summary.methodCount(); i++) {
+                int member = references.firstMember(c) + i;
+                if (references.isReferenced(member)) continue;
+                int access = summary.methodAccess(i);
+                String name = index.symbol(summary.methodName(i));
+                String desc = index.symbol(summary.methodDesc(i));
+                if (isSynthetic(access) || isBridge(access) || name.startsWith("<")) continue;
+                if (isStatic(access) && name.equals("main") && desc.equals("([Ljava/lang/String;)V")) continue;
+                if (SERIALIZATION.matches(name)) continue;
+                if (isEnum && isStatic(access) && (name.equals("values") || name.equals("valueOf"))) continue;
+                if (!isStatic(access) && !isPrivate(access)) {
+                    if (references.isDispatched(summary.methodName(i), summary.methodDesc(i))) continue;
+                    if (inherited == null) inherited = outsideMethods(summary, resolver);
+                    if (inherited.contains(signature(summary.methodName(i), summary.methodDesc(i)))) continue;
+                }
+                if (keep.matches(label + "." + name)) continue;
+                out.add(owner + " has unused " + visibility(access) + " method: " + name + ". Description: " + desc);
+            }
+
+            for (int i = 0; i < summary.fieldCount(); i++) {
+                int member = references.firstField(c) + i;
+                if (references.isReferenced(member)) continue;
+                int access = summary.fieldAccess(i);
+                String name = index.symbol(summary.fieldName(i));
+                String desc = index.symbol(summary.fieldDesc(i));
+                if (isSynthetic(access) || SERIALIZATION.matches(name)) continue;
+                if ((access & Opcodes.ACC_ENUM) != 0 || (isEnum && name.equals("$VALUES"))) continue;
+                if (isConstant(access, desc)) continue;
+                if (keep.matches(label + "." + name)) continue;
+                out.add(owner + " has unused " + visibility(access) + " field: " + name + ". Description: " + desc);
+            }
+        }
+        return out;
+    }
+
+    private NameMatcher keepMatcher() {
+        NameMatcher.Builder builder = NameMatcher.builder();
+        for (String pattern : settings.getList(NAME, "keep", "")) {
+            if (pattern.startsWith("*")) {
+                builder.suffix(pattern.substring(1));
+            } else if (pattern.endsWith("*")) {
+                builder.prefix(pattern.substring(0, pattern.length() - 1));
+            } else {
+                builder.exact(pattern);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Signatures of the methods declared by supertypes outside the index,
+     * which an override here may be called through.
+     */
+    private Set<Long> outsideMethods(ClassSummary summary, SupertypeResolver resolver) {
+        Set<Long> methods = new HashSet<>();
+        Set<Integer> seen = new HashSet<>();
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(summary.superName());
+        for (int i = 0; i < summary.interfaceCount(); i++) pending.push(summary.interfaceAt(i));
+
+        while (!pending.isEmpty()) {
+            int type = pending.pop();
+            if (type < 0 || !seen.add(type)) continue;
+            ClassSummary supertype = resolver.get(type);
+            if (supertype == null) continue;
+            if (!index.contains(type)) {
+                for (int i = 0; i < supertype.methodCount(); i++) {
+                    methods.add(signature(supertype.methodName(i), supertype.methodDesc(i)));
+                }
+            }
+            pending.push(supertype.superName());
+            for (int i = 0; i < supertype.interfaceCount(); i++) pending.push(supertype.interfaceAt(i));
+        }
+        return methods;
+    }
+
+    // ----------------------------
+    // Unused locals (stored but never loaded) and dead stores
+    // ----------------------------
+
+    // Scratch tables reused for every method, grown to the largest maxLocals seen.
+    // Per slot: stores/loads not covered by any LocalVariableNode, and the first
+    // LocalVariableNode (by table order) that lives in the slot.
+    private int[] slotStores = new int[16];
+    private int[] slotLoads = new int[16];
+    private int[] slotFirstVar = new int[16];
+    // Per LocalVariableNode: instruction range, next variable in the same slot, counters
+    private int[] varStart = new int[16];
+    private int[] varEnd = new int[16];
+    private int[] varNext = new int[16];
+    private int[] varStores = new int[16];
+    private int[] varLoads = new int[16];
+
     private List<String> findUnusedLocals() {
         List<String> out = new ArrayList<>();
 
         for (MethodNode m : classNode.methods) {
             if (m.instructions == null || m.instructions.size() == 0) continue;
 
-            Map<Integer, int[]> counts = new HashMap<>();
+            InsnList insns = m.instructions;
+            int slots = Math.max(m.maxLocals, 1);
+            ensureSlotCapacity(slots);
+            Arrays.fill(slotStores, 0, slots, 0);
+            Arrays.fill(slotLoads, 0, slots, 0);
+            Arrays.fill(slotFirstVar, 0, slots, -1);
+
+            // Chain each slot's variables so the head is the first one in the table
+            List<LocalVariableNode> vars = m.localVariables != null ? m.localVariables : Collections.emptyList();
+            ensureVarCapacity(vars.size());
+            for (int v = vars.size() - 1; v >= 0; v--) {
+                LocalVariableNode lvn = vars.get(v);
+                varNext[v] = -1;
+                if (lvn == null || lvn.index >= slots) continue;
+                varStart[v] = insns.indexOf(lvn.start);
+                varEnd[v] = insns.indexOf(lvn.end);
+                varStores[v] = 0;
+                varLoads[v] = 0;
+                varNext[v] = slotFirstVar[lvn.index];
+                slotFirstVar[lvn.index] = v;
+            }
 
-            for (AbstractInsnNode insn = m.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            int pos = 0;
+            for (AbstractInsnNode insn = insns.getFirst(); insn != null; insn = insn.getNext(), pos++) {
                 if (!(insn instanceof VarInsnNode)) continue;
 
                 VarInsnNode vin = (VarInsnNode) insn;
                 int idx = vin.var;
 
                 if (!isStatic(m.access) && idx == 0) continue;
+                if (idx >= slots) continue;
 
                 int op = vin.getOpcode();
-                if (isStoreOpcode(op)) {
-                    counts.computeIfAbsent(idx, k -> new int[2])[0]++; // stores
-                } else if (isLoadOpcode(op)) {
-                    counts.computeIfAbsent(idx, k -> new int[2])[1]++; // loads
+                boolean store = isStoreOpcode(op);
+                if (!store && !isLoadOpcode(op)) continue;
+
+                // A store that declares a variable sits just before the variable's start label
+                int v = findVariable(idx, store ? pos + 1 : pos, pos);
+                if (v >= 0) {
+                    if (store) varStores[v]++; else varLoads[v]++;
+                } else {
+                    if (store) slotStores[idx]++; else slotLoads[idx]++;
                 }
             }
 
-            Map<Integer, String> localNames = new HashMap<>();
-            if (m.localVariables != null) {
-                for (LocalVariableNode lvn : m.localVariables) {
-                    if (lvn != null) {
-                        localNames.put(lvn.index, lvn.name);
+            for (int idx = 0; idx < slots; idx++) {
+                for (int v = slotFirstVar[idx]; v >= 0; v = varNext[v]) {
+                    if (varStores[v] > 0 && varLoads[v] == 0) {
+                        out.add(unusedLocal(m, vars.get(v).name, idx));
                     }
                 }
+                if (slotStores[idx] > 0 && slotLoads[idx] == 0) {
+                    out.add(unusedLocal(m, "var" + idx, idx));
+                }
             }
 
-            for (Map.Entry<Integer, int[]> e : counts.entrySet()) {
-                int idx = e.getKey();
-                int stores = e.getValue()[0];
-                int loads = e.getValue()[1];
+            // Stores overwritten or dropped before any read. Locals that are never
+            // read at all were already reported above.
+            for (int dead : new LivenessAnalysis(m).deadStores()) {
+                int idx = ((VarInsnNode) insns.get(dead)).var;
+                if ((!isStatic(m.access) && idx == 0) || idx >= slots) continue;
 
-                if (stores > 0 && loads == 0) {
-                    String name = localNames.getOrDefault(idx, "var" + idx);
-                    out.add(classNode.name + " :: " + m.name + m.desc
-                            + " has unused local: " + name + " (index " + idx + ")");
+                int v = findVariable(idx, dead + 1, dead);
+                boolean read = v >= 0 ? varLoads[v] > 0 : slotLoads[idx] > 0;
+                if (read) {
+                    out.add(deadStore(m, v >= 0 ? vars.get(v).name : "var" + idx, idx, dead));
                 }
             }
         }
@@ -157,6 +347,45 @@ public class UnusedVariablesLinter implements Linter {
         return out;
     }
 
+    private int findVariable(int slot, int rangeStartProbe, int pos) {
+        for (int v = slotFirstVar[slot]; v >= 0; v = varNext[v]) {
+            if (varStart[v] <= rangeStartProbe && pos < varEnd[v]) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private String unusedLocal(MethodNode m, String name, int idx) {
+        return classNode.name + " :: " + m.name + m.desc
+                + " has unused local: " + name + " (index " + idx + ")";
+    }
+
+    private String deadStore(MethodNode m, String name, int idx, int insnIndex) {
+        int line = LineNumberIndex.of(m).lineAt(insnIndex);
+        String lineInfo = line > 0 ? ", line " + line : "";
+        return classNode.name + " :: " + m.name + m.desc
+                + " has dead store to local: " + name + " (index " + idx + lineInfo + ")";
+    }
+
+    private void ensureSlotCapacity(int slots) {
+        if (slotStores.length >= slots) return;
+        int size = Math.max(slots, slotStores.length * 2);
+        slotStores = new int[size];
+        slotLoads = new int[size];
+        slotFirstVar = new int[size];
+    }
+
+    private void ensureVarCapacity(int count) {
+        if (varStart.length >= count) return;
+        int size = Math.max(count, varStart.length * 2);
+        varStart = new int[size];
+        varEnd = new int[size];
+        varNext = new int[size];
+        varStores = new int[size];
+        varLoads = new int[size];
+    }
+
     
     // ----------------------------
     //           HELPERS
@@ -193,6 +422,22 @@ public class UnusedVariablesLinter implements Linter {
         return (access & Opcodes.ACC_BRIDGE) != 0;
     }
 
+    // static final primitives and Strings may be inlined where they are read
+    private static boolean isConstant(int access, String desc) {
+        return isStatic(access) && (access & Opcodes.ACC_FINAL) != 0
+                && (desc.length() == 1 || desc.equals("Ljava/lang/String;"));
+    }
+
+    private static String visibility(int access) {
+        if ((access & Opcodes.ACC_PUBLIC) != 0) return "public";
+        if ((access & Opcodes.ACC_PROTECTED) != 0) return "protected";
+        return isPrivate(access) ? "private" : "package-private";
+    }
+
+    private static long signature(int name, int desc) {
+        return ((long) name << 32) | (desc & 0xFFFFFFFFL);
+    }
+
     private static String fieldKey(String owner, String name, String desc) {
         return owner + "#" + name + ":" + desc;
     }
@@ -0,0 +1,52 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class ClassNodeCacheTest {
+
+    // Two package runs over the same directory, as two LinterConfig lines would do
+    @Test
+    void linterRunsShareNodesAndFrames(@TempDir Path dir) throws IOException {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V11, ACC_PUBLIC, "p/A", null, "java/lang/Object", null);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "id", "(Ljava/lang/Object;)Ljava/lang/Object;",
+                null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+        Files.createDirectories(dir.resolve("p"));
+        Files.write(dir.resolve("p/A.class"), cw.toByteArray());
+
+        ClassNodeCache nodes = new ClassNodeCache();
+        ClassNode first;
+        ClassNode second;
+        try (ClassSummaryIndex one = ClassSummaryIndex.fromDirectory(dir, 2, nodes);
+             ClassSummaryIndex two = ClassSummaryIndex.fromDirectory(dir, 2, nodes)) {
+            first = one.loadNode("p/A");
+            second = two.loadNode("p/A");
+        }
+        assertSame(first, second);
+        MethodNode method = first.methods.get(0);
+        assertSame(SourceFrames.of("p/A", method), SourceFrames.of("p/A", second.methods.get(0)));
+        assertSame(ControlFlowGraph.of(method), ControlFlowGraph.of(second.methods.get(0)));
+        assertSame(LineNumberIndex.of(method), LineNumberIndex.of(second.methods.get(0)));
+
+        try (ClassSummaryIndex uncached = ClassSummaryIndex.fromDirectory(dir, 2)) {
+            assertNotSame(first, uncached.loadNode("p/A"));
+        }
+    }
+}
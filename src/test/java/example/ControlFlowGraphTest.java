@@ -0,0 +1,64 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class ControlFlowGraphTest {
+
+    private int blockAt(ControlFlowGraph cfg, MethodNode method, AbstractInsnNode insn) {
+        return cfg.blockOf(method.instructions.indexOf(insn));
+    }
+
+    @Test
+    void codeAfterGotoIsUnreachable() {
+        MethodNode method = new MethodNode(ACC_STATIC, "m", "()V", null, null);
+        LabelNode end = new LabelNode();
+        InsnNode dead = new InsnNode(NOP);
+        method.instructions.add(new JumpInsnNode(GOTO, end));
+        method.instructions.add(dead);
+        method.instructions.add(end);
+        method.instructions.add(new InsnNode(RETURN));
+
+        ControlFlowGraph cfg = ControlFlowGraph.of(method);
+        assertFalse(cfg.isReachable(blockAt(cfg, method, dead)));
+        assertTrue(cfg.isReachable(blockAt(cfg, method, end)));
+        assertSame(cfg, ControlFlowGraph.of(method));
+    }
+
+    @Test
+    void switchTargetsAndHandlersAreReachable() {
+        MethodNode method = new MethodNode(ACC_STATIC, "m", "(I)V", null, null);
+        LabelNode tryStart = new LabelNode();
+        LabelNode tryEnd = new LabelNode();
+        LabelNode handler = new LabelNode();
+        LabelNode caseOne = new LabelNode();
+        LabelNode caseDefault = new LabelNode();
+        InsnNode afterReturn = new InsnNode(NOP);
+
+        InsnList insns = method.instructions;
+        insns.add(tryStart);
+        insns.add(new VarInsnNode(ILOAD, 0));
+        insns.add(new LookupSwitchInsnNode(caseDefault, new int[] { 1 }, new LabelNode[] { caseOne }));
+        insns.add(caseOne);
+        insns.add(new InsnNode(RETURN));
+        insns.add(caseDefault);
+        insns.add(new InsnNode(RETURN));
+        insns.add(tryEnd);
+        insns.add(afterReturn);
+        insns.add(handler);
+        insns.add(new InsnNode(ATHROW));
+        method.tryCatchBlocks.add(new TryCatchBlockNode(tryStart, tryEnd, handler, null));
+
+        ControlFlowGraph cfg = ControlFlowGraph.of(method);
+        int entry = blockAt(cfg, method, tryStart);
+        assertEquals(2, cfg.successorCount(entry));
+        assertEquals(1, cfg.handlerCount(entry));
+        assertTrue(cfg.isReachable(blockAt(cfg, method, caseOne)));
+        assertTrue(cfg.isReachable(blockAt(cfg, method, caseDefault)));
+        assertTrue(cfg.isReachable(blockAt(cfg, method, handler)));
+        assertFalse(cfg.isReachable(blockAt(cfg, method, afterReturn)));
+    }
+}
@@ -0,0 +1,43 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class CycleDependencyLinterTest {
+
+    private static String lintErr(ClassNode... nodes) {
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : nodes) classes.put(cn.name, cn);
+        return captureErr(() -> new CycleDependencyLinter(nodes[0], classes).lintClass());
+    }
+
+    // a.A -> b.B -> a.C is a package cycle without any class cycle
+    @Test
+    void packageCycleIsReportedWithWitnessMembers() {
+        String err = lintErr(type("a/A", "b/B"), type("b/B", "a/C"), type("a/C"));
+
+        assertTrue(err.contains("Package cycle 1: "), err);
+        assertTrue(err.contains("a -> b (a.A.f0 -> b.B)"), err);
+        assertTrue(err.contains("b -> a (b.B.f0 -> a.C)"), err);
+        assertFalse(err.contains("  Cycle 1:"), err);
+    }
+
+    // x.P -> x.Q -> x.R -> x.P, with x.S hanging off the cycle
+    @Test
+    void classCycleWitnessFollowsTheLoop() {
+        String err = lintErr(type("x/P", "x/Q"), type("x/Q", "x/R", "x/S"), type("x/R", "x/P"), type("x/S"));
+
+        assertFalse(err.contains("Package cycle"), err);
+        assertTrue(err.contains("  Cycle 1: "), err);
+        assertFalse(err.contains("x.S <->") || err.contains("<-> x.S"), err);
+        assertTrue(err.contains("x.P.f0 -> x.Q"), err);
+        assertTrue(err.contains("x.Q.f0 -> x.R"), err);
+        assertTrue(err.contains("x.R.f0 -> x.P"), err);
+    }
+}
@@ -0,0 +1,114 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class DependencyGraphTest {
+
+    private static void call(ClassNode from, String method, String owner) {
+        MethodNode mn = new MethodNode(ACC_PUBLIC, method, "()V", null, null);
+        mn.instructions.add(new MethodInsnNode(INVOKESTATIC, owner, "run", "()V", false));
+        mn.instructions.add(new InsnNode(RETURN));
+        from.methods.add(mn);
+    }
+
+    // a.A holds a b.B field and calls c.C; b.B calls a.A from its constructor
+    @Test
+    void edgesComeFromFieldsAndCalls() {
+        ClassNode a = type("a/A");
+        ClassNode b = type("b/B");
+        ClassNode c = type("c/C");
+        a.fields.add(new FieldNode(ACC_PRIVATE, "b", "Lb/B;", null, null));
+        call(a, "work", "c/C");
+        call(a, "self", "a/A");
+        call(b, "<init>", "a/A");
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(a, b, c)) classes.put(cn.name, cn);
+        DependencyGraph graph = DependencyGraph.of(ClassSummaryIndex.fromNodes(classes));
+
+        Map<String, Set<String>> map = graph.asMap();
+        assertEquals(new HashSet<>(Arrays.asList("b/B", "c/C")), map.get("a/A"));
+        assertEquals(Collections.singleton("a/A"), map.get("b/B"));
+        assertTrue(map.get("c/C").isEmpty());
+
+        int node = -1;
+        for (int i = 0; i < graph.size(); i++) {
+            if (graph.name(i).equals("c/C")) node = i;
+        }
+        assertEquals(1, graph.inDegree(node));
+        assertEquals("a/A", graph.name(graph.dependent(node, 0)));
+    }
+
+    // Casts, class literals, generic signatures and annotations count; bare nesting does not
+    @Test
+    void constantPoolReferencesBeyondCallsAndFieldsCount() {
+        ClassNode a = type("p/A");
+        a.fields.add(new FieldNode(ACC_PRIVATE, "items", "Ljava/util/List;", "Ljava/util/List<Lp/Item;>;", null));
+        MethodNode mn = new MethodNode(ACC_PUBLIC, "m", "(Ljava/lang/Object;)V", null, null);
+        mn.visibleAnnotations = new ArrayList<>(Collections.singletonList(new AnnotationNode("Lp/Marker;")));
+        mn.instructions.add(new LdcInsnNode(Type.getObjectType("p/Literal")));
+        mn.instructions.add(new InsnNode(POP));
+        mn.instructions.add(new VarInsnNode(ALOAD, 1));
+        mn.instructions.add(new TypeInsnNode(CHECKCAST, "[Lp/Cast;"));
+        mn.instructions.add(new InsnNode(POP));
+        mn.instructions.add(new InsnNode(RETURN));
+        a.methods.add(mn);
+        a.innerClasses.add(new InnerClassNode("p/A$Nested", "p/A", "Nested", ACC_STATIC));
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (String name : Arrays.asList("p/Item", "p/Marker", "p/Literal", "p/Cast", "p/A$Nested")) {
+            classes.put(name, type(name));
+        }
+        classes.put("p/A", a);
+
+        Set<String> dependencies = DependencyGraph.of(ClassSummaryIndex.fromNodes(classes)).asMap().get("p/A");
+        assertEquals(new HashSet<>(Arrays.asList("p/Item", "p/Marker", "p/Literal", "p/Cast")), dependencies);
+    }
+
+    // Another class's nested type used only by INSTANCEOF and a class literal still counts
+    @Test
+    void nestedTypesOfOtherClassesUsedWithoutMemberReferencesCount() {
+        ClassNode a = type("p/A");
+        MethodNode mn = new MethodNode(ACC_PUBLIC, "m", "(Ljava/lang/Object;)Z", null, null);
+        mn.instructions.add(new LdcInsnNode(Type.getObjectType("q/Outer$Inner")));
+        mn.instructions.add(new InsnNode(POP));
+        mn.instructions.add(new VarInsnNode(ALOAD, 1));
+        mn.instructions.add(new TypeInsnNode(INSTANCEOF, "q/Outer$Inner"));
+        mn.instructions.add(new InsnNode(IRETURN));
+        a.methods.add(mn);
+        a.innerClasses.add(new InnerClassNode("q/Outer$Inner", "q/Outer", "Inner", ACC_PUBLIC | ACC_STATIC));
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        classes.put("p/A", a);
+        classes.put("q/Outer$Inner", type("q/Outer$Inner"));
+
+        Set<String> dependencies = DependencyGraph.of(ClassSummaryIndex.fromNodes(classes)).asMap().get("p/A");
+        assertEquals(Collections.singleton("q/Outer$Inner"), dependencies);
+    }
+
+    // A node ASM cannot write keeps no edges, and the class is named on stderr
+    @Test
+    void unwritableNodeIsReported() {
+        ClassNode a = type("p/A", "p/B");
+        MethodNode mn = new MethodNode(ACC_PUBLIC, "m", "()V", null, null);
+        mn.instructions.add(new FieldInsnNode(GETSTATIC, null, "f", "I"));
+        mn.instructions.add(new InsnNode(RETURN));
+        a.methods.add(mn);
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        classes.put("p/A", a);
+        classes.put("p/B", type("p/B"));
+
+        DependencyGraph[] graph = new DependencyGraph[1];
+        String err = captureErr(() -> graph[0] = DependencyGraph.of(ClassSummaryIndex.fromNodes(classes)));
+        assertTrue(err.startsWith("Cannot read dependencies of p/A: "), err);
+        assertTrue(graph[0].asMap().get("p/A").isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class DuplicateCodeLinterTest {
+
+    // int name(int a) { int s = 0; for (int i = 0; i < a; i++) { s += i * scale; } return s; }
+    private static ClassNode withLoop(String owner, String name, int local, String field, int multiply) {
+        ClassNode cn = type(owner);
+        cn.fields.add(new FieldNode(ACC_PRIVATE, field, "I", null, null));
+
+        MethodNode mn = new MethodNode(ACC_PUBLIC, name, "(I)I", null, null);
+        LabelNode loop = new LabelNode();
+        LabelNode done = new LabelNode();
+        InsnList insns = mn.instructions;
+        insns.add(new InsnNode(ICONST_0));
+        insns.add(new VarInsnNode(ISTORE, local));
+        insns.add(new InsnNode(ICONST_0));
+        insns.add(new VarInsnNode(ISTORE, local + 1));
+        insns.add(loop);
+        insns.add(new VarInsnNode(ILOAD, local + 1));
+        insns.add(new VarInsnNode(ILOAD, 1));
+        insns.add(new JumpInsnNode(IF_ICMPGE, done));
+        insns.add(new VarInsnNode(ILOAD, local));
+        insns.add(new VarInsnNode(ILOAD, local + 1));
+        insns.add(new VarInsnNode(ALOAD, 0));
+        insns.add(new FieldInsnNode(GETFIELD, owner, field, "I"));
+        insns.add(new InsnNode(multiply));
+        insns.add(new InsnNode(IADD));
+        insns.add(new VarInsnNode(ISTORE, local));
+        insns.add(new IincInsnNode(local + 1, 1));
+        insns.add(new JumpInsnNode(GOTO, loop));
+        insns.add(done);
+        insns.add(new VarInsnNode(ILOAD, local));
+        insns.add(new InsnNode(IRETURN));
+        mn.maxLocals = local + 2;
+        mn.maxStack = 4;
+        cn.methods.add(mn);
+        return cn;
+    }
+
+    @Test
+    void renamedCopiesFormOneGroup() {
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(
+                withLoop("p/A", "total", 2, "scale", IMUL),
+                withLoop("q/B", "sum", 3, "factor", IMUL),
+                withLoop("r/C", "other", 2, "scale", IXOR))) {
+            classes.put(cn.name, cn);
+        }
+        LinterSettings settings = new LinterSettings();
+        settings.set("DuplicateCode", "minInstructions", "10");
+
+        String err = captureErr(() ->
+                new DuplicateCodeLinter(classes.get("p/A"), ClassSummaryIndex.fromNodes(classes), settings).lintClass());
+
+        assertTrue(err.contains("Clone group 1 (2 methods, 18 instructions, ~100% similar)"), err);
+        assertTrue(err.contains("p.A.total(I)I"), err);
+        assertTrue(err.contains("q.B.sum(I)I"), err);
+        assertFalse(err.contains("r.C.other"), err);
+    }
+}
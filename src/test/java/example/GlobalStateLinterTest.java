@@ -0,0 +1,73 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class GlobalStateLinterTest {
+
+    private static String lint(ClassSummaryIndex index) {
+        return captureErr(() -> new GlobalStateLinter(null, index).lintClass());
+    }
+
+    private static ClassNode read(byte[] bytes) {
+        ClassNode node = new ClassNode();
+        new ClassReader(bytes).accept(node, 0);
+        return node;
+    }
+
+    @Test
+    void registryMapsAreMutatedOutsideClinit() throws IOException {
+        ClassSummaryIndex index = new ClassSummaryIndex();
+        try (InputStream in = LinterRegistry.class.getResourceAsStream("LinterRegistry.class")) {
+            index.add(read(in.readAllBytes()));
+        }
+        String err = lint(index);
+
+        assertTrue(err.contains("[GlobalState] example.LinterRegistry.linters (Ljava/util/Map;) is mutated by "
+                + "example.LinterRegistry.register("), err);
+        assertTrue(err.contains("[GlobalState] example.LinterRegistry.packageLinters (Ljava/util/Map;) is mutated by "
+                + "example.LinterRegistry.registerPackageLinter("), err);
+        assertFalse(err.contains("is reassigned by"), err);
+    }
+
+    // List l = Sub.CACHE; l.add(x); where CACHE is declared by Base
+    @Test
+    void followsSubclassOwnersAndLocalAliases() {
+        ClassWriter base = new ClassWriter(0);
+        base.visit(V11, ACC_PUBLIC, "p/Base", null, "java/lang/Object", null);
+        base.visitField(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "CACHE", "Ljava/util/List;", null, null).visitEnd();
+        base.visitEnd();
+
+        ClassWriter sub = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        sub.visit(V11, ACC_PUBLIC, "p/Sub", null, "p/Base", null);
+        MethodVisitor mv = sub.visitMethod(ACC_PUBLIC | ACC_STATIC, "remember", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitFieldInsn(GETSTATIC, "p/Sub", "CACHE", "Ljava/util/List;");
+        mv.visitVarInsn(ASTORE, 1);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        sub.visitEnd();
+
+        ClassSummaryIndex index = new ClassSummaryIndex();
+        index.add(read(base.toByteArray()));
+        index.add(read(sub.toByteArray()));
+
+        String err = lint(index);
+        assertTrue(err.contains("[GlobalState] p.Base.CACHE (Ljava/util/List;) is mutated by "
+                + "p.Sub.remember(Ljava/lang/Object;)V"), err);
+    }
+}
@@ -0,0 +1,59 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class LayeringLinterTest {
+
+    private static List<String> lint(String rules, ClassNode... nodes) {
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : nodes) classes.put(cn.name, cn);
+        LinterSettings settings = new LinterSettings();
+        settings.set("Layering", "rules", rules);
+        String out = capture(() ->
+                new LayeringLinter(nodes[0], ClassSummaryIndex.fromNodes(classes), settings).lintClass());
+        return Arrays.asList(out.trim().split("\\R"));
+    }
+
+    @Test
+    void packagePatterns() {
+        assertTrue(LayeringLinter.Rule.packagePattern("..ui").matcher("com.acme.ui").matches());
+        assertTrue(LayeringLinter.Rule.packagePattern("..ui").matcher("ui").matches());
+        assertFalse(LayeringLinter.Rule.packagePattern("..ui").matcher("com.acme.ui.forms").matches());
+        assertTrue(LayeringLinter.Rule.packagePattern("..ui..").matcher("com.acme.ui.forms").matches());
+        assertTrue(LayeringLinter.Rule.packagePattern("com..dao").matcher("com.acme.x.dao").matches());
+        assertTrue(LayeringLinter.Rule.packagePattern("com.*dao|..jdbc").matcher("com.userdao").matches());
+        assertFalse(LayeringLinter.Rule.packagePattern("com.*dao").matcher("com.a.userdao").matches());
+    }
+
+    // app.ui.View -> app.service.Users -> app.persistence.Dao, and app.ui.Form -> app.persistence.Dao
+    @Test
+    void directAndTransitiveViolationsAreReported() {
+        List<String> out = lint("..ui must not depend on ..persistence",
+                type("app/ui/View", "app/service/Users"),
+                type("app/ui/Form", "app/persistence/Dao"),
+                type("app/service/Users", "app/persistence/Dao"),
+                type("app/persistence/Dao"));
+
+        assertEquals(Arrays.asList(
+                "[Layering] app.ui.View.f0 -> app.service.Users (f0) -> app.persistence.Dao"
+                        + " violates '..ui must not depend on ..persistence'",
+                "[Layering] app.ui.Form.f0 -> app.persistence.Dao"
+                        + " violates '..ui must not depend on ..persistence'"), out);
+    }
+
+    @Test
+    void allowedDirectionIsQuiet() {
+        List<String> out = lint("..persistence must not depend on ..ui",
+                type("app/ui/View", "app/persistence/Dao"),
+                type("app/persistence/Dao"));
+
+        assertEquals(Collections.singletonList("No layering violations"), out);
+    }
+}
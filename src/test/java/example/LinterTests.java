@@ -0,0 +1,65 @@
+package example;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Helpers shared by the linter tests: ClassNodes built in memory and the
+ * output a linter prints while it runs.
+ */
+final class LinterTests {
+
+    private LinterTests() {
+    }
+
+    static ClassNode type(int access, String name, String superName, String... interfaces) {
+        ClassNode cn = new ClassNode();
+        cn.version = V11;
+        cn.access = access;
+        cn.name = name;
+        cn.superName = superName;
+        cn.interfaces.addAll(Arrays.asList(interfaces));
+        return cn;
+    }
+
+    /**
+     * A public class with a private field f0, f1... of each given type.
+     */
+    static ClassNode type(String name, String... fieldTypes) {
+        ClassNode cn = type(ACC_PUBLIC, name, "java/lang/Object");
+        for (int i = 0; i < fieldTypes.length; i++) {
+            cn.fields.add(new FieldNode(ACC_PRIVATE, "f" + i, "L" + fieldTypes[i] + ";", null, null));
+        }
+        return cn;
+    }
+
+    static String capture(Runnable r) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(buf));
+        try {
+            r.run();
+        } finally {
+            System.setOut(original);
+        }
+        return buf.toString();
+    }
+
+    static String captureErr(Runnable r) {
+        PrintStream original = System.err;
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(buf));
+        try {
+            r.run();
+        } finally {
+            System.setErr(original);
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class LivenessAnalysisTest {
+
+    @Test
+    void overwrittenStoreIsDead() {
+        MethodNode method = new MethodNode(ACC_STATIC, "m", "()I", null, null);
+        method.maxLocals = 1;
+        VarInsnNode first = new VarInsnNode(ISTORE, 0);
+        InsnList insns = method.instructions;
+        insns.add(new InsnNode(ICONST_1));
+        insns.add(first);
+        insns.add(new InsnNode(ICONST_2));
+        insns.add(new VarInsnNode(ISTORE, 0));
+        insns.add(new VarInsnNode(ILOAD, 0));
+        insns.add(new InsnNode(IRETURN));
+
+        assertArrayEquals(new int[] { insns.indexOf(first) }, new LivenessAnalysis(method).deadStores());
+    }
+
+    @Test
+    void storeReadOnlyByHandlerIsLive() {
+        MethodNode method = new MethodNode(ACC_STATIC, "m", "()I", null, null);
+        method.maxLocals = 1;
+        LabelNode start = new LabelNode();
+        LabelNode end = new LabelNode();
+        LabelNode handler = new LabelNode();
+        InsnList insns = method.instructions;
+        insns.add(start);
+        insns.add(new InsnNode(ICONST_1));
+        insns.add(new VarInsnNode(ISTORE, 0));
+        insns.add(new MethodInsnNode(INVOKESTATIC, "T", "work", "()V", false));
+        insns.add(new InsnNode(ICONST_2));
+        insns.add(new VarInsnNode(ISTORE, 0));
+        insns.add(new InsnNode(ICONST_0));
+        insns.add(new InsnNode(IRETURN));
+        insns.add(end);
+        insns.add(handler);
+        insns.add(new InsnNode(POP));
+        insns.add(new VarInsnNode(ILOAD, 0));
+        insns.add(new InsnNode(IRETURN));
+        method.tryCatchBlocks.add(new TryCatchBlockNode(start, end, handler, null));
+
+        LivenessAnalysis liveness = new LivenessAnalysis(method);
+        assertEquals(0, liveness.deadStores().length);
+        assertTrue(liveness.isLiveIn(liveness.cfg().blockOf(insns.indexOf(handler)), 0));
+    }
+}
@@ -0,0 +1,65 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class MethodMetricsLinterTest {
+
+    // static void m(int x) { try { try { if (x > 0) a(); switch (x) { case 1: case 2: b(); default: } } catch (E e) {} }
+    //     catch (F f) {} finally {} }
+    @Test
+    void oneRecordPerMethod() {
+        ClassNode cn = type("p/Metrics");
+
+        MethodNode mn = new MethodNode(ACC_STATIC, "m", "(I)V", null, null);
+        LabelNode outerStart = new LabelNode();
+        LabelNode innerStart = new LabelNode();
+        LabelNode skip = new LabelNode();
+        LabelNode caseB = new LabelNode();
+        LabelNode dflt = new LabelNode();
+        LabelNode innerEnd = new LabelNode();
+        LabelNode outerEnd = new LabelNode();
+        LabelNode handler = new LabelNode();
+        LabelNode exit = new LabelNode();
+        InsnList insns = mn.instructions;
+        insns.add(outerStart);
+        insns.add(innerStart);
+        insns.add(new VarInsnNode(ILOAD, 0));
+        insns.add(new JumpInsnNode(IFLE, skip));
+        insns.add(new MethodInsnNode(INVOKESTATIC, "p/Metrics", "a", "()V", false));
+        insns.add(skip);
+        insns.add(new VarInsnNode(ILOAD, 0));
+        insns.add(new TableSwitchInsnNode(1, 2, dflt, caseB, caseB));
+        insns.add(caseB);
+        insns.add(new MethodInsnNode(INVOKESTATIC, "p/Metrics", "b", "()V", false));
+        insns.add(new MethodInsnNode(INVOKESTATIC, "p/Metrics", "b", "()V", false));
+        insns.add(dflt);
+        insns.add(innerEnd);
+        insns.add(new JumpInsnNode(GOTO, exit));
+        insns.add(outerEnd);
+        insns.add(handler);
+        insns.add(new InsnNode(POP));
+        insns.add(exit);
+        insns.add(new InsnNode(RETURN));
+        mn.tryCatchBlocks.add(new TryCatchBlockNode(innerStart, innerEnd, handler, "p/E"));
+        mn.tryCatchBlocks.add(new TryCatchBlockNode(outerStart, outerEnd, handler, "p/F"));
+        mn.tryCatchBlocks.add(new TryCatchBlockNode(outerStart, outerEnd, handler, null));
+        mn.maxStack = 1;
+        mn.maxLocals = 1;
+        cn.methods.add(mn);
+
+        LinterSettings settings = new LinterSettings();
+        settings.set("MethodMetrics", "report", "all");
+        String out = capture(() -> new MethodMetricsLinter(cn, null, settings).lintClass());
+
+        String[] lines = out.trim().split("\\R");
+        assertEquals("{\"class\":\"p.Metrics\",\"method\":\"m\",\"desc\":\"(I)V\",\"line\":0,\"cc\":5,\"insns\":10,"
+                + "\"maxStack\":1,\"maxLocals\":1,\"tryNesting\":2,\"fanOut\":2,\"over\":[]}", lines[0]);
+        assertEquals("1 methods measured, 0 over thresholds", lines[1]);
+    }
+}
@@ -1,10 +1,12 @@
 package example;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.objectweb.asm.*;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.io.*;
+import java.nio.file.*;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -88,4 +90,108 @@ class MissingImplementationLinterTest {
 
         assertTrue(out.isBlank(), "Expected no violations for complete implementation, got: " + out);
     }
+
+    @Test
+    void defaultMethodsCountAsImplemented() {
+        ClassNode parting = makeInterface("test/Parting", "farewell");
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(V11, ACC_PUBLIC | ACC_ABSTRACT | ACC_INTERFACE, "test/Greeter", null, "java/lang/Object",
+                new String[] { "test/Parting" });
+        cw.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "greet", "()V", null, null).visitEnd();
+        MethodVisitor dflt = cw.visitMethod(ACC_PUBLIC, "farewell", "()V", null, null);
+        dflt.visitCode();
+        dflt.visitInsn(RETURN);
+        dflt.visitMaxs(0, 1);
+        dflt.visitEnd();
+        cw.visitEnd();
+        ClassNode iface = new ClassNode();
+        new ClassReader(cw.toByteArray()).accept(iface, 0);
+        ClassNode impl = makeClass("test/PoliteGreeter", "test/Greeter", "greet");
+
+        Map<String, ClassNode> classMap = new HashMap<>();
+        classMap.put(parting.name, parting);
+        classMap.put(iface.name, iface);
+        classMap.put(impl.name, impl);
+
+        String out = capture(() -> new MissingImplementationLinter(impl, classMap).lintClass());
+
+        assertTrue(out.isBlank(), "Default method should satisfy the interface, got: " + out);
+    }
+
+    @Test
+    void resolvesJdkSupertypesOutsideTheClassMap(@TempDir Path cacheDir) {
+        // Comparator also declares equals(Object), which java/lang/Object implements
+        ClassNode sorter = makeClass("test/NoCompare", "java/util/Comparator", "unrelated");
+        ClassNode runner = makeClass("test/NoRun", "java/lang/Runnable");
+
+        Map<String, ClassNode> classMap = new HashMap<>();
+        classMap.put(sorter.name, sorter);
+        classMap.put(runner.name, runner);
+
+        String previous = System.setProperty(SupertypeResolver.CACHE_DIR_PROPERTY, cacheDir.toString());
+        String sorterOut;
+        String runnerOut;
+        try {
+            sorterOut = capture(() -> new MissingImplementationLinter(sorter, classMap).lintClass());
+            runnerOut = capture(() -> new MissingImplementationLinter(runner, classMap).lintClass());
+        } finally {
+            restoreCacheDir(previous);
+        }
+
+        assertTrue(sorterOut.contains("compare(Ljava/lang/Object;Ljava/lang/Object;)I"), sorterOut);
+        assertFalse(sorterOut.contains("equals"), sorterOut);
+        assertTrue(runnerOut.contains("run()V"), runnerOut);
+    }
+
+    @Test
+    void missingTypesAreNotPersisted(@TempDir Path cacheDir) throws IOException {
+        Path cacheFile = cacheDir.resolve("supertypes.bin");
+        ClassSummaryIndex index = new ClassSummaryIndex();
+        SupertypeResolver resolver = new SupertypeResolver(index, cacheFile);
+
+        assertNull(resolver.get("no/such/Type"));
+        assertNotNull(resolver.get("java/lang/Runnable"));
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(cacheFile))) {
+            in.readInt();
+            assertEquals("java/lang/Runnable", in.readUTF());
+        }
+        assertFalse(new String(Files.readAllBytes(cacheFile), "ISO-8859-1").contains("no/such/Type"));
+    }
+
+    // Classpath types can change with a jar upgrade that java.version does not reflect
+    @Test
+    void onlyJdkTypesArePersisted(@TempDir Path cacheDir) throws IOException {
+        Path cacheFile = cacheDir.resolve("supertypes.bin");
+        try (ClassSummaryIndex index = new ClassSummaryIndex()) {
+            SupertypeResolver resolver = index.shared(SupertypeResolver.class,
+                    i -> new SupertypeResolver(i, cacheFile));
+            assertNotNull(resolver.get("org/objectweb/asm/ClassVisitor"));
+            assertNotNull(resolver.get("java/util/Comparator"));
+        }
+
+        String cached = new String(Files.readAllBytes(cacheFile), "ISO-8859-1");
+        assertTrue(cached.contains("java/util/Comparator"), cached);
+        assertFalse(cached.contains("org/objectweb/asm/ClassVisitor"), cached);
+
+        // A later run reads the cache back, appends after it and still loads both
+        try (ClassSummaryIndex index = new ClassSummaryIndex()) {
+            SupertypeResolver resolver = index.shared(SupertypeResolver.class,
+                    i -> new SupertypeResolver(i, cacheFile));
+            assertNotNull(resolver.get("java/util/Comparator"));
+            assertNotNull(resolver.get("java/lang/Runnable"));
+        }
+        try (ClassSummaryIndex index = new ClassSummaryIndex()) {
+            SupertypeResolver resolver = new SupertypeResolver(index, cacheFile);
+            assertEquals("java/lang/Object", index.symbol(resolver.get("java/lang/Runnable").superName()));
+        }
+    }
+
+    private static void restoreCacheDir(String previous) {
+        if (previous == null) {
+            System.clearProperty(SupertypeResolver.CACHE_DIR_PROPERTY);
+        } else {
+            System.setProperty(SupertypeResolver.CACHE_DIR_PROPERTY, previous);
+        }
+    }
 }
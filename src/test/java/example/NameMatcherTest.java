@@ -0,0 +1,54 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameMatcherTest {
+
+    @Test
+    void matchesEachModeAtTheRightPosition() {
+        NameMatcher matcher = NameMatcher.builder()
+                .contains("stream")
+                .prefix("get")
+                .suffix("Builder")
+                .exact("run")
+                .build();
+
+        assertTrue(matcher.matches("parallelstreamOf"));
+        assertTrue(matcher.matches("getName"));
+        assertFalse(matcher.matches("target"), "prefix must start at index 0");
+        assertTrue(matcher.matches("UserBuilder"));
+        assertFalse(matcher.matches("BuilderFactory"), "suffix must end the name");
+        assertTrue(matcher.matches("run"));
+        assertFalse(matcher.matches("runAll"), "exact must cover the whole name");
+    }
+
+    @Test
+    void overlappingPatternsAreFoundThroughFailureLinks() {
+        NameMatcher matcher = NameMatcher.builder().contains("he", "she", "hers").build();
+
+        assertTrue(matcher.matches("ushers"));
+        assertTrue(matcher.matches("ahe"));
+        assertFalse(matcher.matches("hhs"));
+    }
+
+    @Test
+    void ignoringCaseFoldsInputButCaseSensitiveDoesNot() {
+        NameMatcher folded = NameMatcher.ignoringCase().contains("notify").build();
+        NameMatcher exact = NameMatcher.builder().contains("notify").build();
+
+        assertTrue(folded.matches("fireNotifyAll"));
+        assertFalse(exact.matches("fireNotifyAll"));
+        assertTrue(exact.matches("notifyAll"));
+    }
+
+    @Test
+    void nonAsciiNamesNeverMatchAcrossForeignCharacters() {
+        NameMatcher matcher = NameMatcher.ignoringCase().contains("init").build();
+
+        assertTrue(matcher.matches("ünitInit"));
+        assertFalse(matcher.matches("iniét"));
+        assertFalse(matcher.matches(null));
+    }
+}
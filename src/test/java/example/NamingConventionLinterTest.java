@@ -0,0 +1,72 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class NamingConventionLinterTest {
+
+    @Test
+    void patternsMatchWholeNames() {
+        RegexDfa constant = RegexDfa.compile("^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$");
+        assertTrue(constant.matches("MAX_SIZE"));
+        assertTrue(constant.matches("A1"));
+        assertFalse(constant.matches("MAX__SIZE"));
+        assertFalse(constant.matches("MAX_"));
+        assertFalse(constant.matches("maxSize"));
+
+        RegexDfa prefixed = RegexDfa.compile("(?:is|has)[A-Z]\\w{0,3}|get.+");
+        assertTrue(prefixed.matches("isOpen"));
+        assertFalse(prefixed.matches("isOpened"));
+        assertTrue(prefixed.matches("getX"));
+        assertFalse(prefixed.matches("get"));
+        assertFalse(prefixed.matches("isété"));
+        assertTrue(RegexDfa.compile("[^a-z]+").matches("ÉTÉ"));
+
+        RegexDfa.Cache cache = new RegexDfa.Cache();
+        RegexDfa cached = cache.compile("^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$");
+        assertSame(cached, cache.compile("^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$"));
+        assertNotSame(cached, new RegexDfa.Cache().compile("^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$"));
+        assertThrows(IllegalArgumentException.class, () -> RegexDfa.compile("[a-z"));
+        assertThrows(IllegalArgumentException.class, () -> RegexDfa.compile("*a"));
+    }
+
+    @Test
+    void reportsEachKindOfName() {
+        ClassNode cn = type("p/Outer$bad_name");
+        cn.fields.add(new FieldNode(ACC_STATIC | ACC_FINAL, "maxSize", "I", null, null));
+        cn.fields.add(new FieldNode(ACC_PRIVATE, "Count", "I", null, null));
+        cn.fields.add(new FieldNode(ACC_FINAL | ACC_SYNTHETIC, "this$0", "Lp/Outer;", null, null));
+
+        MethodNode mn = new MethodNode(ACC_PUBLIC, "Run", "(I)V", null, null);
+        LabelNode start = new LabelNode();
+        LabelNode end = new LabelNode();
+        mn.instructions.add(start);
+        mn.instructions.add(new InsnNode(RETURN));
+        mn.instructions.add(end);
+        mn.localVariables.add(new LocalVariableNode("this", "Lp/Outer$bad_name;", null, start, end, 0));
+        mn.localVariables.add(new LocalVariableNode("Total_", "I", null, start, end, 1));
+        mn.maxLocals = 2;
+        cn.methods.add(mn);
+        cn.methods.add(new MethodNode(ACC_PUBLIC, "<init>", "()V", null, null));
+
+        LinterSettings settings = new LinterSettings();
+        settings.set("NamingConvention", "method", "[a-z]\\w*");
+        String out = capture(() -> new NamingConventionLinter(cn, null, settings).lintClass());
+
+        String[] lines = out.trim().split("\\R");
+        assertArrayEquals(new String[] {
+                "[NamingConvention] p.Outer$bad_name: class name 'bad_name' does not match [A-Z][A-Za-z0-9]*",
+                "[NamingConvention] p.Outer$bad_name.maxSize: constant name 'maxSize' does not match "
+                        + "[A-Z][A-Z0-9]*(_[A-Z0-9]+)*",
+                "[NamingConvention] p.Outer$bad_name.Count: field name 'Count' does not match [a-z][A-Za-z0-9]*",
+                "[NamingConvention] p.Outer$bad_name.Run(I)V: method name 'Run' does not match [a-z]\\w*",
+                "[NamingConvention] p.Outer$bad_name.Run(I)V: local name 'Total_' does not match [a-z][A-Za-z0-9]*",
+                "5 naming convention violations in 5 names checked"
+        }, lines);
+    }
+}
@@ -0,0 +1,56 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class NonConstructibleLinterTest {
+
+    private static ClassNode withConstructor(int access, String name, int constructorAccess) {
+        ClassNode cn = type(access, name, "java/lang/Object");
+        cn.methods.add(new MethodNode(constructorAccess, "<init>", "()V", null, null));
+        cn.methods.add(new MethodNode(ACC_PUBLIC, "run", "()V", null, null));
+        return cn;
+    }
+
+    @Test
+    void reportsOnlyClassesWithNoWayToObtainAnInstance() {
+        ClassNode hidden = withConstructor(ACC_PUBLIC, "p/Hidden", ACC_PRIVATE);
+        ClassNode open = withConstructor(ACC_PUBLIC, "p/Open", ACC_PUBLIC);
+        ClassNode factory = withConstructor(ACC_PUBLIC, "p/Factory", 0);
+        factory.methods.add(new MethodNode(ACC_PUBLIC | ACC_STATIC, "create", "()Lp/Factory;", null, null));
+        ClassNode built = withConstructor(ACC_PUBLIC, "p/Built", ACC_PRIVATE);
+        ClassNode builder = withConstructor(ACC_PUBLIC | ACC_STATIC, "p/Built$Builder", ACC_PUBLIC);
+        builder.methods.add(new MethodNode(ACC_PUBLIC, "build", "()Lp/Built;", null, null));
+        ClassNode sealed = withConstructor(ACC_PUBLIC, "p/Sealed", ACC_PRIVATE);
+        ClassNode sealedBuilder = withConstructor(ACC_PUBLIC | ACC_STATIC, "p/Sealed$Builder", ACC_PRIVATE);
+        sealedBuilder.methods.add(new MethodNode(ACC_PUBLIC, "build", "()Lp/Sealed;", null, null));
+        ClassNode fluent = withConstructor(ACC_PUBLIC, "p/Fluent", 0);
+        fluent.methods.add(new MethodNode(ACC_PUBLIC, "copy", "()Lp/Fluent;", null, null));
+        ClassNode internal = withConstructor(0, "p/Internal", ACC_PRIVATE);
+        ClassNode utility = withConstructor(ACC_PUBLIC | ACC_FINAL, "p/Utility", ACC_PRIVATE);
+        utility.methods.removeIf(m -> m.name.equals("run"));
+        utility.methods.add(new MethodNode(ACC_PUBLIC | ACC_STATIC, "help", "()V", null, null));
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(hidden, open, factory, built, builder, sealed, sealedBuilder, fluent,
+                internal, utility)) {
+            classes.put(cn.name, cn);
+        }
+
+        String out = capture(() -> new NonConstructibleLinter(hidden, classes).lintClass());
+
+        String[] lines = out.trim().split("\\R");
+        assertArrayEquals(new String[] {
+                "[NonConstructible] p.Hidden has no public constructor, static factory or builder",
+                "[NonConstructible] p.Sealed has no public constructor, static factory or builder",
+                "[NonConstructible] p.Sealed$Builder has no public constructor, static factory or builder",
+                "[NonConstructible] p.Fluent has no public constructor, static factory or builder"
+        }, lines);
+    }
+}
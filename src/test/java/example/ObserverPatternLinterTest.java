@@ -0,0 +1,61 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class ObserverPatternLinterTest {
+
+    private static MethodNode notifying(String name, String observer) {
+        MethodNode m = new MethodNode(ACC_PUBLIC, name, "()V", null, null);
+        m.instructions.add(new VarInsnNode(ALOAD, 1));
+        m.instructions.add(new MethodInsnNode(INVOKEINTERFACE, observer, "onEvent", "()V", true));
+        m.instructions.add(new InsnNode(RETURN));
+        return m;
+    }
+
+    private static String lint(ClassNode target, Map<String, ClassNode> classes) {
+        return capture(() -> new ObserverPatternLinter(target, classes).lintClass()).trim();
+    }
+
+    @Test
+    void linksSubjectsToObserversThroughGenericFieldTypes() {
+        int iface = ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT;
+        ClassNode listener = type(iface, "p/Listener", "java/lang/Object");
+        listener.methods.add(new MethodNode(ACC_PUBLIC | ACC_ABSTRACT, "onEvent", "()V", null, null));
+        ClassNode special = type(iface, "p/SpecialListener", "java/lang/Object", "p/Listener");
+
+        ClassNode bus = type("p/Bus");
+        bus.fields.add(new FieldNode(ACC_PRIVATE, "listeners", "Ljava/util/Map;",
+                "Ljava/util/Map<Ljava/lang/String;Ljava/util/List<Lp/Listener;>;>;", null));
+        bus.methods.add(notifying("publish", "p/Listener"));
+        bus.methods.add(new MethodNode(ACC_PUBLIC, "removeListener", "(Lp/Listener;)V", null, null));
+
+        ClassNode holder = type("p/Holder");
+        holder.fields.add(new FieldNode(ACC_PRIVATE, "waiting", "[Lp/Listener;", null, null));
+
+        ClassNode handler = type(ACC_PUBLIC, "p/Handler", "java/lang/Object", "p/SpecialListener");
+        ClassNode unrelated = type("p/Names");
+        unrelated.fields.add(new FieldNode(ACC_PRIVATE, "names", "Ljava/util/List;",
+                "Ljava/util/List<Ljava/lang/String;>;", null));
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(listener, special, bus, holder, handler, unrelated)) {
+            classes.put(cn.name, cn);
+        }
+
+        assertEquals("[Observer] Subject detected: p.Bus notifies p.Listener observers in field listeners",
+                lint(bus, classes));
+        assertEquals("[Observer] Warning - p.Holder holds p.Listener observers in field waiting but never notifies them",
+                lint(holder, classes));
+        assertEquals("[Observer] Observer detected: p.Handler implements p.Listener, notified by p.Bus\n"
+                + "[Observer] Observer detected: p.Handler implements p.SpecialListener, notified by p.Bus",
+                lint(handler, classes).replace("\r", ""));
+        assertEquals("No error in ObserverPatternLinter for: p/Names", lint(unrelated, classes));
+    }
+}
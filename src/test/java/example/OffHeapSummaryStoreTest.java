@@ -0,0 +1,96 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapSummaryStoreTest {
+
+    @Test
+    void directStoreRoundTrips() throws IOException {
+        try (OffHeapArena arena = new OffHeapArena()) {
+            roundTrip(arena);
+        }
+    }
+
+    @Test
+    void mappedStoreRoundTrips(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("store.bin");
+        try (OffHeapArena arena = new OffHeapArena(file)) {
+            roundTrip(arena);
+        }
+        assertTrue(Files.size(file) > OffHeapArena.FIRST_SEGMENT_SIZE);
+    }
+
+    // Enough symbols and records to fill the first segment and open larger ones
+    private static void roundTrip(OffHeapArena arena) {
+        OffHeapSymbolTable symbols = new OffHeapSymbolTable(arena);
+        OffHeapSummaryStore store = new OffHeapSummaryStore(arena);
+        List<String> strings = new ArrayList<>();
+        List<int[]> records = new ArrayList<>();
+        char[] padding = new char[200];
+        Arrays.fill(padding, 'x');
+        for (int i = 0; i < 5000; i++) {
+            String s = (i % 7 == 0 ? "p/Ж" : "p/C") + i + new String(padding, 0, i % 200);
+            assertEquals(i, symbols.intern(s));
+            strings.add(s);
+            int[] words = new int[1 + i % 40];
+            for (int k = 0; k < words.length; k++) words[k] = i * 31 + k - 100;
+            assertEquals(i, store.put(words));
+            records.add(words);
+        }
+        assertTrue(arena.reservedBytes() > OffHeapArena.FIRST_SEGMENT_SIZE);
+
+        assertEquals(strings.size(), symbols.size());
+        assertEquals(records.size(), store.size());
+        OffHeapSummaryStore.Flyweight flyweight = new OffHeapSummaryStore.Flyweight();
+        for (int i = 0; i < strings.size(); i++) {
+            assertEquals(strings.get(i), symbols.symbol(i));
+            assertEquals(i, symbols.lookup(strings.get(i)));
+            assertEquals(i, symbols.intern(strings.get(i)));
+            int[] words = records.get(i);
+            ClassSummary summary = store.get(i);
+            ClassSummary reused = store.reuse(flyweight, i);
+            for (int k = 0; k < words.length; k++) {
+                assertEquals(words[k], summary.word(k));
+                assertEquals(words[k], reused.word(k));
+            }
+        }
+        assertEquals(SymbolTable.NONE, symbols.lookup("p/Missing"));
+    }
+
+    @Test
+    void summaryStorePropertySelectsOffHeapIndex(@TempDir Path dir) throws IOException {
+        String previous = System.getProperty(ClassSummaryIndex.STORE_PROPERTY);
+        try {
+            for (String mode : Arrays.asList("direct", "mmap:" + dir.resolve("index.bin"))) {
+                System.setProperty(ClassSummaryIndex.STORE_PROPERTY, mode);
+                try (ClassSummaryIndex index = ClassSummaryIndex.create()) {
+                    assertFalse(index.symbols() instanceof HeapSymbolTable, mode);
+                    for (int i = 0; i < 100; i++) {
+                        ClassNode cn = type("p/C" + i, "p/C" + (i + 1), "java/util/List");
+                        assertEquals(cn.name, index.symbol(index.add(cn).name()));
+                    }
+                    assertEquals(100, index.size());
+                    ClassSummary c7 = index.get("p/C7");
+                    assertEquals("java/lang/Object", index.symbol(c7.superName()));
+                    assertEquals(2, c7.fieldCount());
+                }
+            }
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ClassSummaryIndex.STORE_PROPERTY);
+            } else {
+                System.setProperty(ClassSummaryIndex.STORE_PROPERTY, previous);
+            }
+        }
+        assertTrue(Files.exists(dir.resolve("index.bin")));
+    }
+}
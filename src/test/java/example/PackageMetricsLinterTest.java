@@ -0,0 +1,84 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class PackageMetricsLinterTest {
+
+    // a.A1 (abstract) -> b.B1; a.A2 -> b.B1, b.B2; b.B1 -> a.A1
+    private static ClassSummaryIndex twoPackages() {
+        ClassNode a1 = type(ACC_PUBLIC | ACC_ABSTRACT, "a/A1", "java/lang/Object");
+        a1.fields.add(new FieldNode(ACC_PRIVATE, "b", "Lb/B1;", null, null));
+        ClassNode a2 = type("a/A2", "b/B1", "b/B2");
+        ClassNode b1 = type("b/B1", "a/A1");
+        ClassNode b2 = type("b/B2");
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(a1, a2, b1, b2)) classes.put(cn.name, cn);
+        return ClassSummaryIndex.fromNodes(classes);
+    }
+
+    private static String[] run(LinterSettings settings) {
+        ClassSummaryIndex index = twoPackages();
+        return capture(() -> new PackageMetricsLinter(null, index, settings).lintClass()).split("\\R");
+    }
+
+    // Package a depends on B1 twice but counts it once in Ce; B1 and B2 both see A2 once in Ca
+    @Test
+    void metricsPerPackageAndClass() {
+        LinterSettings settings = new LinterSettings();
+        settings.set("PackageMetrics", "format", "tsv");
+        String[] lines = run(settings);
+
+        assertArrayEquals(new String[] {
+                "Package metrics (2 packages, 4 classes):",
+                "package\tclasses\tCa\tCe\tI\tA\tD",
+                "b\t2\t2\t1\t0.33\t0.00\t0.67",
+                "a\t2\t1\t2\t0.67\t0.50\t0.17",
+                "Class metrics:",
+                "class\tCa\tCe\tI\tA\tD",
+                "b.B2\t1\t0\t0.00\t0.00\t1.00",
+                "b.B1\t2\t1\t0.33\t0.00\t0.67",
+                "a.A1\t1\t1\t0.50\t1.00\t0.50",
+                "a.A2\t0\t2\t1.00\t0.00\t0.00"}, lines);
+    }
+
+    @Test
+    void sortByOrdersRowsWithNameAsTieBreak() {
+        LinterSettings settings = new LinterSettings();
+        settings.set("PackageMetrics", "format", "tsv");
+        settings.set("PackageMetrics", "sortBy", "ca");
+        String[] lines = run(settings);
+        assertEquals("b\t2\t2\t1\t0.33\t0.00\t0.67", lines[2]);
+        assertEquals(Arrays.asList("b.B1", "a.A1", "b.B2", "a.A2"), names(lines, 6));
+
+        settings.set("PackageMetrics", "sortBy", "name");
+        settings.set("PackageMetrics", "classes", "false");
+        lines = run(settings);
+        assertEquals(4, lines.length);
+        assertEquals(Arrays.asList("a", "b"), names(lines, 2));
+
+        settings.set("PackageMetrics", "sortBy", "ce");
+        settings.set("PackageMetrics", "classes", "true");
+        assertEquals(Arrays.asList("a.A2", "a.A1", "b.B1", "b.B2"), names(run(settings), 6));
+
+        settings.set("PackageMetrics", "sortBy", "bogus");
+        String[][] byD = new String[1][];
+        String err = captureErr(() -> byD[0] = run(settings));
+        assertTrue(err.contains("Unknown PackageMetrics.sortBy: bogus"), err);
+        assertEquals(Arrays.asList("b.B2", "b.B1", "a.A1", "a.A2"), names(byD[0], 6));
+    }
+
+    private static List<String> names(String[] lines, int from) {
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < lines.length; i++) names.add(lines[i].split("\t")[0]);
+        return names;
+    }
+}
@@ -0,0 +1,41 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class RedundantInterfaceLinterTest {
+
+    @Test
+    void reportsEachKindOfRedundantInterface() {
+        int iface = ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT;
+        ClassNode base = type(iface, "p/Base", "java/lang/Object");
+        base.methods.add(new MethodNode(ACC_PUBLIC | ACC_ABSTRACT, "run", "()V", null, null));
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(
+                type(iface, "p/Marker", "java/lang/Object"),
+                base,
+                type(iface, "p/Alias", "java/lang/Object", "p/Base"),
+                type(ACC_PUBLIC, "p/A", "java/lang/Object", "p/Marker"),
+                type(ACC_PUBLIC, "p/Impl", "java/util/ArrayList", "java/util/List", "p/Base"),
+                type(ACC_PUBLIC, "p/Impl2", "java/lang/Object", "p/Alias", "p/Base"))) {
+            classes.put(cn.name, cn);
+        }
+
+        String out = capture(() -> new RedundantInterfaceLinter(classes.get("p/A"), classes).lintClass());
+
+        String[] lines = out.trim().split("\\R");
+        assertArrayEquals(new String[] {
+                "[RedundantInterface] p.Marker is a marker-like interface implemented only by p.A",
+                "[RedundantInterface] p.Alias is empty and only renames p.Base",
+                "[RedundantInterface] p.Impl redeclares java.util.List, already implemented through java.util.ArrayList",
+                "[RedundantInterface] p.Impl2 redeclares p.Base, already implemented through p.Alias"
+        }, lines);
+    }
+}
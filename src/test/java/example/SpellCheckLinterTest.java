@@ -0,0 +1,90 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.tree.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class SpellCheckLinterTest {
+
+    @Test
+    void dictionaryLooksUpRangesIgnoringCase() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) words.add("word" + Integer.toString(i, 26).replace('0', 'z'));
+        words.addAll(Arrays.asList("parse", "header", "Value"));
+        SpellingDictionary dictionary = SpellingDictionary.fromWords(words);
+
+        assertEquals(503, dictionary.size());
+        String name = "parseHeaderValue";
+        assertTrue(dictionary.contains(name, 0, 5));
+        assertTrue(dictionary.contains(name, 5, 11));
+        assertTrue(dictionary.contains(name, 11, 16));
+        assertFalse(dictionary.contains(name, 0, 4));
+        assertFalse(dictionary.contains(name, 0, 11));
+        assertFalse(dictionary.contains("héader", 0, 6));
+        for (String word : words) {
+            assertTrue(dictionary.contains(word.toUpperCase(), 0, word.length()), word);
+        }
+    }
+
+    @Test
+    void bundledDictionaryKnowsEverydayWords() throws IOException {
+        SpellingDictionary dictionary = SpellingDictionary.fromWords(
+                Files.readAllLines(Paths.get(SpellCheckLinter.DEFAULT_DICTIONARY)));
+
+        for (String word : Arrays.asList("house", "phone", "payment", "shipping", "weather", "station",
+                "market", "discount", "deposit", "refund", "inventory", "calculator", "kitchen",
+                "customer", "invoice", "address", "stream", "iterator", "boolean")) {
+            assertTrue(dictionary.contains(word, 0, word.length()), word);
+        }
+        for (String word : Arrays.asList("recieve", "seperate", "adress", "cuont")) {
+            assertFalse(dictionary.contains(word, 0, word.length()), word);
+        }
+    }
+
+    @Test
+    void reportsNamesWithUnknownWords(@TempDir Path dir, @TempDir Path cacheDir) throws IOException {
+        Path wordList = dir.resolve("words.txt");
+        Files.write(wordList, Arrays.asList("order", "total", "compute", "item", "max"));
+
+        ClassNode cn = type("p/OrderTotal");
+        cn.fields.add(new FieldNode(ACC_STATIC | ACC_FINAL, "MAX_ITEMS", "I", null, null));
+        cn.fields.add(new FieldNode(ACC_PRIVATE, "itemCuont", "I", null, null));
+        cn.methods.add(new MethodNode(ACC_PUBLIC, "computeHTTPTotals", "()I", null, null));
+        cn.methods.add(new MethodNode(ACC_PUBLIC, "recompute", "()I", null, null));
+
+        LinterSettings settings = new LinterSettings();
+        settings.set("SpellCheck", "dictionary", wordList.toString());
+        settings.set("SpellCheck", "words", "count");
+        String previous = System.setProperty(SupertypeResolver.CACHE_DIR_PROPERTY, cacheDir.toString());
+        String out;
+        try {
+            out = capture(() -> new SpellCheckLinter(cn, null, settings).lintClass());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(SupertypeResolver.CACHE_DIR_PROPERTY);
+            } else {
+                System.setProperty(SupertypeResolver.CACHE_DIR_PROPERTY, previous);
+            }
+        }
+
+        // A word list in the temp directory is not compiled to disk
+        try (Stream<Path> cached = Files.list(cacheDir)) {
+            assertEquals(0, cached.count());
+        }
+        String[] lines = out.trim().split("\\R");
+        assertArrayEquals(new String[] {
+                "[SpellCheck] p.OrderTotal.itemCuont: field name 'itemCuont' has unknown words [cuont]",
+                "[SpellCheck] p.OrderTotal.recompute()I: method name 'recompute' has unknown words [recompute]",
+                "2 names with unknown words in 5 names checked"
+        }, lines);
+    }
+}
@@ -0,0 +1,68 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class TypestateEngineTest {
+
+    private static MethodInsnNode call(String name) {
+        return new MethodInsnNode(INVOKEVIRTUAL, "p/Res", name, "()V", false);
+    }
+
+    private List<String> run(MethodNode method, String... rules) {
+        List<String> found = new ArrayList<>();
+        new TypestateEngine(TypestateEngine.parseRules(Arrays.asList(rules)), c -> true)
+                .run("p/Owner", method, (rule, receiver, at) -> found.add(rule + " @ " + receiver));
+        return found;
+    }
+
+    // static void m(Res r, int c) { if (c != 0) r.open(); r.read(); }
+    @Test
+    void setupOnOnlyOneBranchIsReported() {
+        MethodNode method = new MethodNode(ACC_STATIC, "m", "(Lp/Res;I)V", null, null);
+        method.maxLocals = 2;
+        method.maxStack = 1;
+        LabelNode join = new LabelNode();
+        InsnList insns = method.instructions;
+        insns.add(new VarInsnNode(ILOAD, 1));
+        insns.add(new JumpInsnNode(IFEQ, join));
+        insns.add(new VarInsnNode(ALOAD, 0));
+        insns.add(call("open"));
+        insns.add(join);
+        insns.add(new FrameNode(F_SAME, 0, null, 0, null));
+        insns.add(new VarInsnNode(ALOAD, 0));
+        insns.add(call("read"));
+        insns.add(new InsnNode(RETURN));
+
+        assertEquals(Arrays.asList("open before read @ local var index 0"), run(method, "open before read"));
+    }
+
+    // static void m(Res r) { r.write(); r.close(); } is fine; dropping close() is not
+    @Test
+    void pendingCloseIsReportedAtReturn() {
+        MethodNode closed = new MethodNode(ACC_STATIC, "m", "(Lp/Res;)V", null, null);
+        closed.maxLocals = 1;
+        closed.maxStack = 1;
+        closed.instructions.add(new VarInsnNode(ALOAD, 0));
+        closed.instructions.add(call("write"));
+        closed.instructions.add(new VarInsnNode(ALOAD, 0));
+        closed.instructions.add(call("close"));
+        closed.instructions.add(new InsnNode(RETURN));
+        assertTrue(run(closed, "close after write").isEmpty());
+
+        MethodNode open = new MethodNode(ACC_STATIC, "m", "(Lp/Res;)V", null, null);
+        open.maxLocals = 1;
+        open.maxStack = 1;
+        open.instructions.add(new VarInsnNode(ALOAD, 0));
+        open.instructions.add(call("write"));
+        open.instructions.add(new InsnNode(RETURN));
+        assertEquals(Arrays.asList("close after write @ local var index 0"), run(open, "close after write"));
+    }
+}
@@ -0,0 +1,62 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+import static example.LinterTests.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+class UnusedMembersTest {
+
+    private static MethodNode method(int access, String name, String desc, AbstractInsnNode... insns) {
+        MethodNode mn = new MethodNode(access, name, desc, null, null);
+        for (AbstractInsnNode insn : insns) mn.instructions.add(insn);
+        mn.instructions.add(new InsnNode(desc.endsWith("V") ? RETURN : ARETURN));
+        mn.maxStack = 2;
+        mn.maxLocals = 2;
+        return mn;
+    }
+
+    @Test
+    void membersReachedFromOtherClassesAreKept() {
+        // class p/Lib { public static void viaRef(); public void unused(); public int count; String toString() }
+        ClassNode lib = type("p/Lib");
+        lib.methods.add(method(ACC_PUBLIC | ACC_STATIC, "viaRef", "()V"));
+        lib.methods.add(method(ACC_PUBLIC, "unused", "()V"));
+        lib.methods.add(method(ACC_PUBLIC, "toString", "()Ljava/lang/String;", new InsnNode(ACONST_NULL)));
+        lib.fields.add(new FieldNode(ACC_PUBLIC, "count", "I", null, null));
+        lib.fields.add(new FieldNode(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "LIMIT", "I", null, 3));
+
+        // class p/Sub extends p/Lib, whose field access names the subclass
+        ClassNode sub = type("p/Sub");
+        sub.superName = "p/Lib";
+
+        // class p/App { void run(Sub s) { s.count; Runnable r = Lib::viaRef; } }
+        Handle metafactory = new Handle(H_INVOKESTATIC, "java/lang/invoke/LambdaMetafactory", "metafactory",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;"
+                        + "Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodHandle;Ljava/lang/invoke/MethodType;)"
+                        + "Ljava/lang/invoke/CallSite;", false);
+        ClassNode app = type("p/App");
+        app.methods.add(method(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V",
+                new VarInsnNode(ALOAD, 0),
+                new FieldInsnNode(GETFIELD, "p/Sub", "count", "I"),
+                new InsnNode(POP),
+                new InvokeDynamicInsnNode("run", "()Ljava/lang/Runnable;", metafactory, Type.getType("()V"),
+                        new Handle(H_INVOKESTATIC, "p/Lib", "viaRef", "()V", false), Type.getType("()V")),
+                new InsnNode(POP)));
+
+        Map<String, ClassNode> classes = new LinkedHashMap<>();
+        for (ClassNode cn : Arrays.asList(lib, sub, app)) classes.put(cn.name, cn);
+
+        String err = captureErr(() ->
+                new UnusedVariablesLinter(lib, ClassSummaryIndex.fromNodes(classes), new LinterSettings()).lintClass());
+
+        String[] lines = err.trim().split("\\R");
+        assertArrayEquals(new String[] { "p/Lib has unused public method: unused. Description: ()V" }, lines);
+    }
+}